@@ -12,6 +12,9 @@ object Versions {
 
         // Latest Version: https://plugins.gradle.org/plugin/com.bmuschko.tomcat
         const val bmuschkoTomcat = "2.7.0"
+
+        // Latest Version: https://plugins.gradle.org/plugin/me.champeau.jmh
+        const val jmh = "0.7.2"
     }
 
     object Dependencies {
@@ -28,6 +31,10 @@ object Versions {
         //  Visit https://central.sonatype.com and search for: g:commons-io a:commons-io
         const val commonsIo = "2.15.1"
 
+        //  Latest Version:
+        //  Visit https://central.sonatype.com and search for: g:org.openjdk.jmh a:jmh-core
+        const val jmh = "1.37"
+
         //  Latest Version:
         //  Visit https://central.sonatype.com and search for: g:org.springdoc a:springdoc-openapi-starter-webmvc-ui
         const val openApi = "2.3.0"
@@ -0,0 +1,60 @@
+plugins {
+    id("java")
+    id("me.champeau.jmh") version Versions.Plugins.jmh
+}
+
+description = "Sample Benchmarks"
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(platform("org.springframework.boot:spring-boot-dependencies:${Versions.springBoot}"))
+
+    jmh(project(":samples:spring-boot-rest"))
+    jmh(testFixtures(project(":samples:spring-boot-rest")))
+
+    jmh("org.jodconverter:jodconverter-local-lo:${Versions.Dependencies.jodConverter}")
+    jmh("io.micrometer:micrometer-core")
+    jmh("org.springframework.boot:spring-boot")
+    jmh("org.springframework:spring-web")
+    jmh("org.springframework:spring-test")
+    jmh("commons-io:commons-io:${Versions.Dependencies.commonsIo}")
+}
+
+java {
+    sourceCompatibility = Versions.jvm
+    targetCompatibility = Versions.jvm
+}
+
+// Results are written as JSON, with the allocation rate measured by the gc profiler, so that runs
+// of different versions can be compared, for instance with https://jmh.morethan.io.
+jmh {
+    jmhVersion.set(Versions.Dependencies.jmh)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    profilers.set(listOf("gc"))
+
+    project.findProperty("jmh.includes")?.let {
+        includes.set(listOf(it.toString()))
+    }
+}
+
+// Load test of the REST service against simulated office processes, see LoadTest. Its settings are
+// given as loadTest.* project properties, the ones of the service as Spring arguments, for instance:
+// gradlew :samples:benchmarks:loadTest -PloadTest.rate=20 -PloadTest.args="--server.tomcat.threads.max=50"
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs a load test of the REST service with simulated office processes."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.jodconverter.sample.rest.LoadTest")
+
+    systemProperty("loadTest.output", layout.buildDirectory.file("results/load-test/results.json").get().asFile.path)
+    project.properties
+        .filterKeys { it.startsWith("loadTest.") && it != "loadTest.args" }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+    project.findProperty("loadTest.args")?.let {
+        args(it.toString().split(" ").filter(String::isNotBlank))
+    }
+}
@@ -0,0 +1,80 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole synchronous conversion request, from the upload to the response body, with an
+ * office manager echoing the uploaded bytes instead of an office process: what is left is the
+ * cost of the service itself (spilling documents to disk, decoding the parameters, building and
+ * scheduling the office task, reading the result back). The result cache is disabled so every
+ * invocation reaches the office manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterControllerBenchmark {
+
+    /** The size of the uploaded document: 2 MB is above the in-memory threshold, so it is streamed. */
+    @Param({"16384", "2097152"})
+    public int documentSize;
+
+    @Param({"false", "true"})
+    public boolean customProperties;
+
+    private Path workDir;
+    private ConverterController controller;
+    private MockMultipartFile inputFile;
+    private Map<String, String> parameters;
+
+    @Setup
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("jodconverter-benchmark");
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setEnabled(false);
+
+        controller = new ConverterController(
+                new DocumentConversionService(
+                        new EchoOfficeManager(), new ConversionCache(properties), properties, new SimpleMeterRegistry()),
+                new ParameterDecoder(),
+                new ConversionWorkspace(properties),
+                properties);
+        inputFile = new MockMultipartFile("data", "report.txt", null, new byte[documentSize]);
+        parameters = customProperties ? Map.of("sPageRange", "1-2", "sfdQuality", "90") : Map.of();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Benchmark
+    public long convert() throws IOException {
+        final ResponseEntity<?> response =
+                (ResponseEntity<?>) controller.convertToUsingPath(inputFile, "pdf", parameters, null);
+        final Object body = response.getBody();
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        // Reading a streamed document deletes its file, as sending it to a client does.
+        try (InputStream in = ((Resource) body).getInputStream()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XComponent;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the filters on in-process documents, see {@link FakeUno}, so that no office installation
+ * is needed. The documents answer UNO calls at once, where an office process answers each one
+ * through a socket: the time measured here is the time the filters spend on their own, the UNO
+ * calls they make being checked by the tests of each filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"ExcelSinglePageFilter", "ExcelNumberFormatFilter", "PptPageResizeFilter", "WordFrameFilter"})
+    public String filter;
+
+    private Filter filterInstance;
+    private XComponent document;
+
+    @Setup
+    public void setUp() {
+        switch (filter) {
+            case "ExcelSinglePageFilter" -> {
+                filterInstance = new ExcelSinglePageFilter();
+                document = spreadsheet(100_000, new Object[0][]);
+            }
+            case "ExcelNumberFormatFilter" -> {
+                final Random random = new Random(42);
+                final Object[][] values = new Object[1_000][20];
+                for (final Object[] row : values) {
+                    for (int column = 0; column < row.length; column++) {
+                        row[column] = random.nextBoolean() ? (Object) random.nextDouble() : (Object) (double) column;
+                    }
+                }
+                filterInstance = new ExcelNumberFormatFilter();
+                document = spreadsheet(1_000, values);
+            }
+            case "PptPageResizeFilter" -> {
+                final FakePresentation presentation = new FakePresentation();
+                for (int i = 0; i < 100; i++) {
+                    presentation.addSlide(28_000, 21_000,
+                            presentation.getUno().shape("com.sun.star.drawing.TextShape", 1_000, 1_000, 26_000, 3_000),
+                            presentation.getUno().shape("com.sun.star.drawing.GraphicObjectShape",
+                                    2_000, 5_000, 20_000 + i * 100, 15_000));
+                }
+                filterInstance = new PptPageResizeFilter();
+                document = presentation.getDocument();
+            }
+            case "WordFrameFilter" -> {
+                final FakeTextDocument textDocument = new FakeTextDocument();
+                for (int i = 0; i < 100; i++) {
+                    textDocument.addFrame("Frame" + i, null, null, 0xFFCC00);
+                }
+                filterInstance = new WordFrameFilter();
+                document = textDocument.getDocument();
+            }
+            default -> throw new IllegalArgumentException(filter);
+        }
+    }
+
+    @Benchmark
+    public XComponent filter() throws Exception {
+        new DefaultFilterChain(false, filterInstance).doFilter(null, document);
+        return document;
+    }
+
+    private static XComponent spreadsheet(final int rows, final Object[][] values) {
+        final FakeSpreadsheet spreadsheet = new FakeSpreadsheet();
+        final FakeSheet sheet = spreadsheet.addSheet("Data", 20, rows);
+        sheet.addShape("com.sun.star.drawing.GraphicObjectShape", 0, 0, 40_000, 1_000);
+        sheet.setValues(values);
+        return spreadsheet.getDocument();
+    }
+}
@@ -0,0 +1,404 @@
+package org.jodconverter.sample.rest;
+
+import org.apache.commons.io.FileUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of {@code /lool/convert-to/{format}}, run against the whole service (Tomcat, multipart
+ * handling, controllers, conversion queue) with a {@link SimulatedOfficeManager} instead of office
+ * processes, so that the settings of the service can be tuned and its throughput compared from one
+ * version to the next without an office installation.
+ *
+ * <p>Clients send conversion requests at a fixed rate, or as fast as they can when the rate is 0,
+ * each of them waiting for its response before sending the next request. With a rate, latencies
+ * are measured from the time a request was due, not from the time it could be sent, so that a
+ * service falling behind shows it in its latencies. The report gives the throughput, the latency
+ * percentiles, the share of requests rejected with 429 or failing, and the heap used by the JVM
+ * running both the clients and the service.
+ *
+ * <p>The test is configured with {@code loadTest.*} system properties (see {@link Settings}), the
+ * service with Spring properties given as arguments, such as
+ * {@code --server.tomcat.threads.max=50}.
+ */
+public final class LoadTest {
+
+    private static final String BOUNDARY = "jodconverter-load-test";
+
+    private final Settings settings;
+    private final URI uri;
+    private final HttpClient client;
+    private final byte[] document;
+
+    private LoadTest(final Settings settings, final URI uri, final HttpClient client) {
+        this.settings = settings;
+        this.uri = uri;
+        this.client = client;
+        this.document = new byte[(int) settings.documentSize.toBytes()];
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The properties of the service, as {@code --name=value} arguments.
+     * @throws Exception If the service cannot start or the results cannot be written.
+     */
+    public static void main(final String[] args) throws Exception {
+        final Settings settings = Settings.fromSystemProperties();
+        final Path workDir = Files.createTempDirectory("jodconverter-load-test");
+        final SimulatedOfficeManager officeManager = new SimulatedOfficeManager(
+                settings.processes, settings.conversionTime, settings.outputSize);
+        officeManager.setTaskQueueTimeout(settings.taskQueueTimeout.toMillis());
+        officeManager.setFailureRate(settings.failureRate);
+
+        final Report report;
+        // The office manager is registered as is: the metrics of office tasks measure the tasks of
+        // office processes, which it only simulates.
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootRestApplication.class)
+                .properties(
+                        "server.port=0",
+                        "jodconverter.local.enabled=false",
+                        "converter.work-dir=" + workDir,
+                        "logging.level.org.jodconverter=warn")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("officeManager", officeManager))
+                .run(args)) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final URI uri = URI.create("http://localhost:" + port + "/lool/convert-to/" + settings.targetFormat);
+            final ExecutorService clientExecutor = Executors.newCachedThreadPool();
+            try {
+                final HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clientExecutor)
+                        .build();
+                report = new LoadTest(settings, uri, client).run();
+            } finally {
+                clientExecutor.shutdownNow();
+            }
+        } finally {
+            FileUtils.deleteQuietly(workDir.toFile());
+        }
+
+        System.out.println(report.format(settings));
+        if (settings.output != null) {
+            Files.createDirectories(settings.output.toAbsolutePath().getParent());
+            Files.writeString(settings.output, report.toJson(settings));
+        }
+        final List<String> failures = report.check(settings);
+        failures.forEach(System.err::println);
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private Report run() throws Exception {
+        final ExecutorService clients = Executors.newFixedThreadPool(settings.concurrency);
+        final long intervalNanos = settings.rate > 0 ? Math.round(1e9 / settings.rate) : 0;
+        final long start = System.nanoTime();
+        final long measureStart = start + settings.warmup.toNanos();
+        final long end = measureStart + settings.duration.toNanos();
+        final AtomicLong nextRequest = new AtomicLong();
+
+        final List<Future<Results>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < settings.concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    final Results results = new Results();
+                    while (true) {
+                        final long request = nextRequest.getAndIncrement();
+                        final long due = intervalNanos > 0 ? start + request * intervalNanos : System.nanoTime();
+                        if (due >= end) {
+                            return results;
+                        }
+                        LockSupport.parkNanos(due - System.nanoTime());
+                        final int status = send(request);
+                        final long done = System.nanoTime();
+                        if (due >= measureStart) {
+                            results.add(status, done - due);
+                        }
+                        if (done >= measureStart && done < end && isSuccess(status)) {
+                            results.completed++;
+                        }
+                    }
+                }));
+            }
+            LockSupport.parkNanos(measureStart - System.nanoTime());
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            final Results results = new Results();
+            for (final Future<Results> future : futures) {
+                results.addAll(future.get());
+            }
+            return results.report(settings.duration.toNanos(), getPeakHeapUsed());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /** Sends a conversion request, the document being made unique so that no cache serves it. */
+    private int send(final long request) {
+        final String prefix = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"data\"; filename=\"document-" + request + "."
+                + settings.sourceFormat + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n"
+                + request + "\n";
+        final String suffix = "\r\n--" + BOUNDARY + "--\r\n";
+        final HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .timeout(settings.requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                        prefix.getBytes(StandardCharsets.UTF_8),
+                        document,
+                        suffix.getBytes(StandardCharsets.UTF_8))))
+                .build();
+        try {
+            return client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static boolean isSuccess(final int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static long getPeakHeapUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+    }
+
+    /**
+     * The settings of the load test, read from {@code loadTest.*} system properties.
+     *
+     * @param concurrency      {@code loadTest.concurrency}: the clients sending requests, 16 by
+     *                         default.
+     * @param rate             {@code loadTest.rate}: the requests sent per second by all the clients,
+     *                         0 (the default) for as many as they can.
+     * @param warmup           {@code loadTest.warmup}: the time before the measurement starts, 10s by
+     *                         default.
+     * @param duration         {@code loadTest.duration}: the time measured, 30s by default.
+     * @param requestTimeout   {@code loadTest.requestTimeout}: the time after which a request fails,
+     *                         2m by default.
+     * @param documentSize     {@code loadTest.documentSize}: the size of the uploaded documents, 256KB
+     *                         by default.
+     * @param sourceFormat     {@code loadTest.sourceFormat}: the extension of the uploaded documents,
+     *                         docx by default.
+     * @param targetFormat     {@code loadTest.targetFormat}: the format they are converted to, pdf by
+     *                         default.
+     * @param processes        {@code loadTest.processes}: the simulated office processes, 2 by
+     *                         default.
+     * @param conversionTime   {@code loadTest.conversionTime} and {@code loadTest.conversionSpread}:
+     *                         the median and spread of the time, in milliseconds, a process works on
+     *                         a document, 200 and 0.5 by default.
+     * @param outputSize       {@code loadTest.outputSize} and {@code loadTest.outputSpread}: the median
+     *                         and spread of the size of the converted documents, 128KB and 1 by
+     *                         default.
+     * @param taskQueueTimeout {@code loadTest.taskQueueTimeout}: the time a conversion waits for a
+     *                         process before failing, 60s by default.
+     * @param failureRate      {@code loadTest.failureRate}: the share of conversions failing, 0 by
+     *                         default.
+     * @param minThroughput    {@code loadTest.minThroughput}: the successful requests per second
+     *                         below which the test fails, 0 (the default) not to check it.
+     * @param maxP99           {@code loadTest.maxP99}: the 99th percentile of the latency above which
+     *                         the test fails, none by default.
+     * @param output           {@code loadTest.output}: the file the results are written to as JSON,
+     *                         none by default.
+     */
+    /* default */ record Settings(
+            int concurrency,
+            double rate,
+            Duration warmup,
+            Duration duration,
+            Duration requestTimeout,
+            DataSize documentSize,
+            String sourceFormat,
+            String targetFormat,
+            int processes,
+            SimulatedOfficeManager.Distribution conversionTime,
+            SimulatedOfficeManager.Distribution outputSize,
+            Duration taskQueueTimeout,
+            double failureRate,
+            double minThroughput,
+            Duration maxP99,
+            Path output) {
+
+        private static Settings fromSystemProperties() {
+            final String maxP99 = System.getProperty("loadTest.maxP99");
+            final String output = System.getProperty("loadTest.output");
+            return new Settings(
+                    Integer.parseInt(property("concurrency", "16")),
+                    Double.parseDouble(property("rate", "0")),
+                    duration("warmup", "10s"),
+                    duration("duration", "30s"),
+                    duration("requestTimeout", "2m"),
+                    DataSize.parse(property("documentSize", "256KB")),
+                    property("sourceFormat", "docx"),
+                    property("targetFormat", "pdf"),
+                    Integer.parseInt(property("processes", "2")),
+                    new SimulatedOfficeManager.Distribution(
+                            Double.parseDouble(property("conversionTime", "200")),
+                            Double.parseDouble(property("conversionSpread", "0.5"))),
+                    new SimulatedOfficeManager.Distribution(
+                            DataSize.parse(property("outputSize", "128KB")).toBytes(),
+                            Double.parseDouble(property("outputSpread", "1"))),
+                    duration("taskQueueTimeout", "60s"),
+                    Double.parseDouble(property("failureRate", "0")),
+                    Double.parseDouble(property("minThroughput", "0")),
+                    maxP99 == null ? null : DurationStyle.detectAndParse(maxP99),
+                    output == null ? null : Path.of(output));
+        }
+
+        private static String property(final String name, final String defaultValue) {
+            return System.getProperty("loadTest." + name, defaultValue);
+        }
+
+        private static Duration duration(final String name, final String defaultValue) {
+            return DurationStyle.detectAndParse(property(name, defaultValue));
+        }
+    }
+
+    /** The responses received by a client. */
+    private static final class Results {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long rejected;
+        private long errors;
+        // Successful responses received during the measurement, whenever their request was due.
+        private long completed;
+
+        private void add(final int status, final long latencyNanos) {
+            if (status == 429) {
+                rejected++;
+            } else if (!isSuccess(status)) {
+                errors++;
+            } else {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latencyNanos;
+            }
+        }
+
+        private void addAll(final Results results) {
+            for (int i = 0; i < results.count; i++) {
+                add(200, results.latencies[i]);
+            }
+            rejected += results.rejected;
+            errors += results.errors;
+            completed += results.completed;
+        }
+
+        private Report report(final long durationNanos, final long peakHeapUsed) {
+            final long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Report(count, rejected, errors, completed * 1e9 / durationNanos,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1], peakHeapUsed);
+        }
+
+        private static long percentile(final long[] sorted, final double percentile) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+    }
+
+    /**
+     * The results of a load test: the requests due during the measurement, the latencies of the
+     * successful ones, and the successful responses received per second during the measurement.
+     */
+    private record Report(long succeeded, long rejected, long errors, double throughput,
+                          long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos, long peakHeapUsed) {
+
+        private long total() {
+            return succeeded + rejected + errors;
+        }
+
+        private double share(final long requests) {
+            return total() == 0 ? 0 : 100.0 * requests / total();
+        }
+
+        private String format(final Settings settings) {
+            return String.format(Locale.ROOT, """
+
+                            Load test: %d clients, %s requests/s for %ds, %d KB %s to %s, %d simulated office processes
+                            Requests     %d: %d succeeded, %d rejected with 429 (%.1f%%), %d failed (%.1f%%)
+                            Throughput   %.1f requests/s
+                            Latency      p50 %d ms, p95 %d ms, p99 %d ms, max %d ms
+                            Heap         %d MB at most
+                            """,
+                    settings.concurrency, settings.rate > 0 ? settings.rate : "max", settings.duration.toSeconds(),
+                    settings.documentSize.toKilobytes(), settings.sourceFormat, settings.targetFormat, settings.processes,
+                    total(), succeeded, rejected, share(rejected), errors, share(errors),
+                    throughput,
+                    millis(p50Nanos), millis(p95Nanos), millis(p99Nanos), millis(maxNanos),
+                    peakHeapUsed / (1024 * 1024));
+        }
+
+        private String toJson(final Settings settings) {
+            return String.format(Locale.ROOT, """
+                            {
+                              "concurrency": %d,
+                              "rate": %s,
+                              "durationSeconds": %d,
+                              "documentBytes": %d,
+                              "processes": %d,
+                              "requests": %d,
+                              "succeeded": %d,
+                              "rejected": %d,
+                              "errors": %d,
+                              "throughput": %.3f,
+                              "latencyMillis": {"p50": %d, "p95": %d, "p99": %d, "max": %d},
+                              "peakHeapBytes": %d
+                            }
+                            """,
+                    settings.concurrency, settings.rate, settings.duration.toSeconds(),
+                    settings.documentSize.toBytes(), settings.processes,
+                    total(), succeeded, rejected, errors, throughput,
+                    millis(p50Nanos), millis(p95Nanos), millis(p99Nanos), millis(maxNanos), peakHeapUsed);
+        }
+
+        /** Checks the thresholds of the settings, to catch regressions. */
+        private List<String> check(final Settings settings) {
+            final List<String> failures = new ArrayList<>();
+            if (throughput < settings.minThroughput) {
+                failures.add(String.format(Locale.ROOT, "Throughput %.1f requests/s is below %.1f",
+                        throughput, settings.minThroughput));
+            }
+            if (settings.maxP99 != null && p99Nanos > settings.maxP99.toNanos()) {
+                failures.add("p99 latency " + millis(p99Nanos) + " ms is above " + settings.maxP99.toMillis() + " ms");
+            }
+            return failures;
+        }
+
+        private static long millis(final long nanos) {
+            return Duration.ofNanos(nanos).toMillis();
+        }
+    }
+}
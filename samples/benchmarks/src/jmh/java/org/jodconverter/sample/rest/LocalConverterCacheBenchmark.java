@@ -0,0 +1,58 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.DocumentConverter;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.local.LocalConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the converter setup of a request: "perRequest" builds a converter and its filters for
+ * every request, as requests used to, while "prebuilt" takes one from the
+ * {@link LocalConverterCache}. Decoding the parameters costs the same either way, so it is left
+ * out. Run it with the gc profiler to compare the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalConverterCacheBenchmark {
+
+    @Param({"false", "true"})
+    public boolean customProperties;
+
+    private EchoOfficeManager officeManager;
+    private LocalConverterCache cache;
+    private ConversionRequest request;
+
+    @Setup
+    public void setUp() {
+        officeManager = new EchoOfficeManager();
+        cache = new LocalConverterCache(officeManager, 64, new ExcelSinglePageFilter(), new WordFrameFilter());
+        final Map<String, String> parameters =
+                customProperties ? Map.of("sPageRange", "1-2", "lPassword", "secret") : Map.of();
+        request = ConversionRequest.decode(
+                new File("report.docx"), DefaultDocumentFormatRegistry.PDF, parameters, new ParameterDecoder());
+    }
+
+    @Benchmark
+    public DocumentConverter perRequest() {
+        return LocalConverter.builder()
+                .officeManager(officeManager)
+                .filterChain(new ExcelSinglePageFilter(), new WordFrameFilter(), new PptPageResizeFilter())
+                .loadProperties(new HashMap<>(request.getLoadProperties()))
+                .storeProperties(new HashMap<>(request.getStoreProperties()))
+                .build();
+    }
+
+    @Benchmark
+    public DocumentConverter prebuilt() {
+        return cache.get(request);
+    }
+}
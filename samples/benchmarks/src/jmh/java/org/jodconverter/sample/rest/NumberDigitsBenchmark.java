@@ -0,0 +1,47 @@
+package org.jodconverter.sample.rest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the digit counting helpers of {@link ExcelNumberFormatFilter} and the classification
+ * it runs for every numeric cell of a spreadsheet in a General format. Run it with {@code -prof gc}
+ * to see that the classification doesn't allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumberDigitsBenchmark {
+
+    @Param({"42", "1234.5", "0.000012345678901", "123456789012345.678"})
+    public String value;
+
+    private BigDecimal cellValue;
+    private double doubleValue;
+
+    @Setup
+    public void setUp() {
+        cellValue = new BigDecimal(value);
+        doubleValue = cellValue.doubleValue();
+    }
+
+    @Benchmark
+    public int totalDigits() {
+        return ExcelNumberFormatFilter.getTotalDigits(cellValue);
+    }
+
+    @Benchmark
+    public int digitsBeforeDecimal() {
+        return ExcelNumberFormatFilter.getDigitsBeforeDecimal(cellValue);
+    }
+
+    @Benchmark
+    public String newFormat() {
+        return ExcelNumberFormatFilter.getNewFormat(doubleValue);
+    }
+}
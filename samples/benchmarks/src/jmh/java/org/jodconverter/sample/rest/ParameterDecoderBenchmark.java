@@ -0,0 +1,46 @@
+package org.jodconverter.sample.rest;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the decoding of the custom load/store properties of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterDecoderBenchmark {
+
+    /** The number of FilterData options sent besides a few plain properties. */
+    @Param({"0", "32"})
+    public int filterDataOptions;
+
+    private final ParameterDecoder decoder = new ParameterDecoder();
+    private Map<String, String> parameters;
+
+    @Setup
+    public void setUp() {
+        parameters = new LinkedHashMap<>();
+        parameters.put("lPassword", "secret");
+        parameters.put("sPageRange", "1-2");
+        parameters.put("sOverwrite", "true");
+        for (int i = 0; i < filterDataOptions; i++) {
+            parameters.put("sfdOption" + i, i % 3 == 0 ? "value" + i : i % 3 == 1 ? "false" : String.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> decode() {
+        final Map<String, Object> loadProperties = new HashMap<>();
+        final Map<String, Object> storeProperties = new HashMap<>();
+        decoder.decodeParameters(parameters, loadProperties, storeProperties);
+        return storeProperties;
+    }
+}
@@ -0,0 +1,50 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.awt.Size;
+import com.sun.star.table.CellRangeAddress;
+import com.sun.star.table.XTableColumns;
+import com.sun.star.table.XTableRows;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ExcelSinglePageFilter} gets the size of the used area of a large synthetic
+ * sheet: "range" reads the size of the whole range, "perIndex" reads each column and row. The
+ * sheet is in-process, so the UNO calls cost far less than the socket round trips they are with
+ * an office process: "range" makes 2 calls whatever the size of the sheet, "perIndex" makes 2 per
+ * column and per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsedAreaSizeBenchmark {
+
+    @Param({"1000", "200000"})
+    public int rows;
+
+    @Param({"range", "perIndex"})
+    public String read;
+
+    private FakeSheet sheet;
+    private CellRangeAddress usedArea;
+    private XTableColumns sheetColumns;
+    private XTableRows sheetRows;
+
+    @Setup
+    public void setUp() {
+        sheet = new FakeSheet(50, rows);
+        sheet.setRangeSizeSupported("range".equals(read));
+        usedArea = sheet.getUsedArea();
+        sheetColumns = sheet.getColumns();
+        sheetRows = sheet.getRows();
+    }
+
+    @Benchmark
+    public Size usedAreaSize() throws Exception {
+        return ExcelSinglePageFilter.getUsedAreaSize(sheet.getSheet(), usedArea, sheetColumns, sheetRows);
+    }
+}
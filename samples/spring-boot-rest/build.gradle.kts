@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("war")
     id("idea")
+    id("java-test-fixtures")
     id("org.springframework.boot") version Versions.springBoot
 }
 
@@ -25,6 +26,8 @@ dependencies {
     implementation("org.jodconverter:jodconverter-spring-boot-starter:${Versions.Dependencies.jodConverter}")
 
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     implementation("commons-io:commons-io:${Versions.Dependencies.commonsIo}")
     implementation("org.glassfish.jaxb:jaxb-runtime")
@@ -32,6 +35,9 @@ dependencies {
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:${Versions.Dependencies.openApi}")
     implementation("io.swagger.core.v3:swagger-annotations:${Versions.Dependencies.swagger}")
 
+    testFixturesImplementation(platform("org.springframework.boot:spring-boot-dependencies:${Versions.springBoot}"))
+    testFixturesImplementation("org.jodconverter:jodconverter-local-lo:${Versions.Dependencies.jodConverter}")
+
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.junit.jupiter:junit-jupiter-api")
 
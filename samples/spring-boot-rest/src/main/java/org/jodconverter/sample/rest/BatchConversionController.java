@@ -0,0 +1,150 @@
+package org.jodconverter.sample.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.*;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller converting many documents in one request, either uploaded as several {@code data}
+ * parts or as a zip archive. The converted documents are streamed back in a zip archive as they
+ * are ready, followed by a manifest telling which documents could be converted.
+ */
+@Controller
+@RequestMapping("/lool/convert-to/batch")
+public class BatchConversionController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchConversionController.class);
+
+    private final BatchConversionService batchService;
+
+    /**
+     * Creates a new controller.
+     *
+     * @param batchService The service converting the batches.
+     */
+    public BatchConversionController(final BatchConversionService batchService) {
+        super();
+
+        this.batchService = batchService;
+    }
+
+    @Operation(
+            summary =
+                    "Converts the incoming documents, or the documents of the incoming zip archives, to the"
+                            + " specified format (provided as path param) and returns a zip archive of the"
+                            + " converted documents.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Documents converted, see the manifest.json entry for each status."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input documents or output format are missing or unknown, or the"
+                                    + " batch is too large."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(
+            value = "/{format}",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = "application/zip")
+    /* default */ ResponseEntity<StreamingResponseBody> convertUsingPath(
+            @Parameter(description = "The input documents or zip archives to convert.", required = true)
+            @RequestParam("data") final List<MultipartFile> inputFiles,
+            @Parameter(
+                    description = "The document format to convert the input documents to.",
+                    required = true)
+            @PathVariable(name = "format") final String convertToFormat,
+            @Parameter(description = "The custom options to apply to every conversion.")
+            @RequestParam(required = true) final Map<String, String> parameters) {
+
+        LOGGER.debug("convertUsingPathVariable > Converting batch to {}", convertToFormat);
+        return convert(inputFiles, convertToFormat, parameters);
+    }
+
+    @Operation(
+            summary =
+                    "Converts the incoming documents, or the documents of the incoming zip archives, to the"
+                            + " specified format (provided as request param) and returns a zip archive of the"
+                            + " converted documents.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Documents converted, see the manifest.json entry for each status."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input documents or output format are missing or unknown, or the"
+                                    + " batch is too large."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "application/zip")
+    /* default */ ResponseEntity<StreamingResponseBody> convertUsingParam(
+            @Parameter(description = "The input documents or zip archives to convert.", required = true)
+            @RequestParam("data") final List<MultipartFile> inputFiles,
+            @Parameter(
+                    description = "The document format to convert the input documents to.",
+                    required = true)
+            @RequestParam(name = "format") final String convertToFormat,
+            @Parameter(description = "The custom options to apply to every conversion.")
+            @RequestParam(required = true) final Map<String, String> parameters) {
+
+        LOGGER.debug("convertUsingRequestParam > Converting batch to {}", convertToFormat);
+        return convert(inputFiles, convertToFormat, parameters);
+    }
+
+    private ResponseEntity<StreamingResponseBody> convert(
+            final List<MultipartFile> inputFiles,
+            final String outputFormat,
+            final Map<String, String> parameters) {
+
+        if (StringUtils.isBlank(outputFormat)) {
+            return ResponseEntity.badRequest().build();
+        }
+        final DocumentFormat targetFormat = DefaultDocumentFormatRegistry.getFormatByExtension(outputFormat);
+        if (targetFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // The uploads are spilled before returning: the multipart files are gone once the
+        // response body starts streaming.
+        final List<BatchConversionService.Entry> entries;
+        try {
+            entries = batchService.readEntries(inputFiles);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        if (entries.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("converted-" + targetFormat.getExtension() + ".zip")
+                .build());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> batchService.convert(entries, targetFormat, parameters, out));
+    }
+}
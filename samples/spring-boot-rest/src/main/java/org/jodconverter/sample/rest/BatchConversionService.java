@@ -0,0 +1,361 @@
+package org.jodconverter.sample.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.jodconverter.core.document.DocumentFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Converts many documents in one request. The entries of a batch are dispatched to a pool sized
+ * after the number of office processes, so they are converted in parallel, and each converted
+ * document is written to the resulting archive as soon as it is ready. The archive ends with a
+ * {@code manifest.json} entry telling, for every input document, whether it was converted. The
+ * entries are converted in the bulk lane, behind the interactive conversions, see
+ * {@link PriorityLanes}.
+ */
+@Service
+public class BatchConversionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchConversionService.class);
+
+    /** Name of the archive entry listing the result of every input document. */
+    public static final String MANIFEST_NAME = "manifest.json";
+
+    /** An input document of a batch, spilled to the work directory. */
+    public record Entry(String name, File inputFile) {
+    }
+
+    /** What happened to an input document. */
+    public enum EntryStatus {
+        /** The document was converted and is in the archive. */
+        CONVERTED,
+        /** The conversion failed. */
+        FAILED
+    }
+
+    /**
+     * The result of an input document, as listed in the manifest.
+     *
+     * @param source         The name of the input document.
+     * @param output         The name of the converted document in the archive, null if it failed.
+     * @param status         What happened to the document.
+     * @param error          Why the conversion failed, null unless it failed.
+     * @param durationMillis How long the conversion took.
+     */
+    public record EntryResult(
+            String source, String output, EntryStatus status, String error, long durationMillis) {
+    }
+
+    private final DocumentConversionService conversionService;
+    private final ParameterDecoder parameterDecoder;
+    private final ConversionWorkspace workspace;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long maxExpandedSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new service.
+     *
+     * @param conversionService The service executing the conversions.
+     * @param parameterDecoder  The decoder of the custom load/store properties.
+     * @param workspace         The directory where documents are spilled.
+     * @param objectMapper      The mapper writing the manifest.
+     * @param properties        The settings of the batches.
+     * @param portNumbers       The ports of the office processes, one entry is converted per process.
+     */
+    public BatchConversionService(
+            final DocumentConversionService conversionService,
+            final ParameterDecoder parameterDecoder,
+            final ConversionWorkspace workspace,
+            final ObjectMapper objectMapper,
+            final ConverterProperties properties,
+            @Value("${jodconverter.local.port-numbers:2002}") final int[] portNumbers) {
+        super();
+
+        this.conversionService = conversionService;
+        this.parameterDecoder = parameterDecoder;
+        this.workspace = workspace;
+        this.objectMapper = objectMapper;
+        this.maxEntries = properties.getBatch().getMaxEntries();
+        this.maxExpandedSize = properties.getBatch().getMaxExpandedSize().toBytes();
+        this.parallelism = properties.getBatch().getParallelism() > 0
+                ? properties.getBatch().getParallelism()
+                : Math.max(1, portNumbers.length);
+        this.executor =
+                Executors.newFixedThreadPool(parallelism, new NamedThreadFactory("batch-conversion-"));
+    }
+
+    /**
+     * Spills the documents of a batch to the work directory. Zip archives are expanded, each of
+     * their files becoming an entry of the batch.
+     *
+     * @param parts The uploaded documents and archives.
+     * @return The entries of the batch, in upload order.
+     * @throws IOException              If a document cannot be read or written.
+     * @throws IllegalArgumentException If the batch has more entries than allowed, or if its
+     *                                  archives expand to more bytes than allowed.
+     */
+    public List<Entry> readEntries(final List<MultipartFile> parts) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        try {
+            for (final MultipartFile part : parts) {
+                if (part.isEmpty()) {
+                    continue;
+                }
+                if (isArchive(part)) {
+                    readArchive(part, entries);
+                } else {
+                    final String name = toEntryName(part.getOriginalFilename());
+                    addEntry(entries, new Entry(name, workspace.createInputFile(part)));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            delete(entries);
+            throw ex;
+        }
+        return entries;
+    }
+
+    /**
+     * Converts the entries of a batch and writes the converted documents, then the manifest, to a
+     * zip archive. The input documents are deleted once converted.
+     *
+     * @param entries      The entries to convert.
+     * @param targetFormat The format to convert the entries to.
+     * @param parameters   The custom options applied to every conversion.
+     * @param out          The stream receiving the archive, not closed.
+     * @throws IOException If the archive cannot be written.
+     */
+    public void convert(
+            final List<Entry> entries,
+            final DocumentFormat targetFormat,
+            final Map<String, String> parameters,
+            final OutputStream out) throws IOException {
+
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final CompletionService<Converted> completion = new ExecutorCompletionService<>(executor);
+        final Set<String> outputNames = new HashSet<>(Set.of(MANIFEST_NAME));
+        for (int i = 0; i < entries.size(); i++) {
+            final int index = i;
+            final Entry entry = entries.get(i);
+            final String outputName = getOutputName(entry.name(), targetFormat, outputNames);
+            completion.submit(() -> convert(index, entry, outputName, targetFormat, parameters, aborted));
+        }
+
+        final EntryResult[] results = new EntryResult[entries.size()];
+        int pending = entries.size();
+        try {
+            final ZipOutputStream zip = new ZipOutputStream(out);
+            while (pending > 0) {
+                final Converted converted = take(completion);
+                pending--;
+                results[converted.index] = converted.result;
+                if (converted.outputFile != null) {
+                    try {
+                        zip.putNextEntry(new ZipEntry(converted.result.output()));
+                        Files.copy(converted.outputFile.toPath(), zip);
+                        zip.closeEntry();
+                    } finally {
+                        workspace.delete(converted.outputFile);
+                    }
+                }
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST_NAME));
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValue(zip, Arrays.asList(results));
+            zip.closeEntry();
+            zip.finish();
+        } finally {
+            if (pending > 0) {
+                // The client is gone: skip the entries not started yet and clean up the others.
+                aborted.set(true);
+                while (pending > 0) {
+                    pending--;
+                    workspace.delete(take(completion).outputFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the input documents of entries that will not be converted.
+     *
+     * @param entries The entries to delete.
+     */
+    public void delete(final List<Entry> entries) {
+        entries.forEach(entry -> workspace.delete(entry.inputFile()));
+    }
+
+    /* default */ int getParallelism() {
+        return parallelism;
+    }
+
+    /** Stops the conversion threads. */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Converted convert(
+            final int index,
+            final Entry entry,
+            final String outputName,
+            final DocumentFormat targetFormat,
+            final Map<String, String> parameters,
+            final AtomicBoolean aborted) {
+
+        final long start = System.nanoTime();
+        File output = null;
+        try {
+            if (aborted.get()) {
+                return new Converted(index, null, null);
+            }
+            output = workspace.createOutputFile(targetFormat);
+            // Nobody waits for a single entry of a batch.
+            final ConversionRequest request = ConversionRequest
+                    .decode(entry.inputFile(), targetFormat, parameters, parameterDecoder)
+                    .withLane(PriorityLanes.Lane.BULK);
+            conversionService.convert(request, output);
+            final EntryResult result = new EntryResult(
+                    entry.name(), outputName, EntryStatus.CONVERTED, null, elapsedMillis(start));
+            final Converted converted = new Converted(index, result, output);
+            output = null; // Now owned by the archive writer.
+            return converted;
+        } catch (Exception ex) {
+            LOGGER.warn("Batch entry {} could not be converted", entry.name(), ex);
+            final EntryResult result = new EntryResult(
+                    entry.name(), null, EntryStatus.FAILED, ex.getMessage(), elapsedMillis(start));
+            return new Converted(index, result, null);
+        } finally {
+            workspace.delete(entry.inputFile());
+            workspace.delete(output);
+        }
+    }
+
+    private void readArchive(final MultipartFile part, final List<Entry> entries) throws IOException {
+        final File archive = workspace.createInputFile(part);
+        // Counted while copying, the sizes the entries claim can't be trusted.
+        final long[] expanded = {0};
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry zipEntry = zipEntries.nextElement();
+                final String name = getEntryName(zipEntry);
+                if (name != null) {
+                    final InputStream content = new ProxyInputStream(zipFile.getInputStream(zipEntry)) {
+                        @Override
+                        protected void afterRead(final int read) {
+                            if (read > 0 && (expanded[0] += read) > maxExpandedSize) {
+                                throw new IllegalArgumentException(
+                                        "A batch archive cannot expand to more than " + maxExpandedSize + " bytes");
+                            }
+                        }
+                    };
+                    final File inputFile = workspace.createInputFile(name, content);
+                    addEntry(entries, new Entry(name, inputFile));
+                }
+            }
+        } finally {
+            workspace.delete(archive);
+        }
+    }
+
+    private void addEntry(final List<Entry> entries, final Entry entry) {
+        entries.add(entry);
+        if (entries.size() > maxEntries) {
+            throw new IllegalArgumentException("A batch cannot have more than " + maxEntries + " entries");
+        }
+    }
+
+    private static boolean isArchive(final MultipartFile part) {
+        return "zip".equalsIgnoreCase(FilenameUtils.getExtension(part.getOriginalFilename()))
+                || "application/zip".equals(part.getContentType());
+    }
+
+    private static String getEntryName(final ZipEntry zipEntry) {
+        if (zipEntry.isDirectory()
+                || zipEntry.getName().startsWith("__MACOSX/")
+                || FilenameUtils.getName(zipEntry.getName()).startsWith(".")) {
+            return null;
+        }
+        final String name = toEntryName(zipEntry.getName());
+        return name.isEmpty() ? null : name;
+    }
+
+    private static String toEntryName(final String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        // Never let a name escape the archive the converted document is written to.
+        final String name = FilenameUtils.normalize(fileName, true);
+        if (name == null) {
+            return FilenameUtils.getName(fileName);
+        }
+        return name.substring(FilenameUtils.getPrefixLength(name));
+    }
+
+    private static String getOutputName(
+            final String sourceName, final DocumentFormat targetFormat, final Set<String> outputNames) {
+
+        final String baseName =
+                sourceName.isEmpty() ? "document" : FilenameUtils.removeExtension(sourceName);
+        final String extension = "." + targetFormat.getExtension();
+        String outputName = baseName + extension;
+        for (int i = 1; !outputNames.add(outputName.toLowerCase(Locale.ROOT)); i++) {
+            outputName = baseName + "-" + i + extension;
+        }
+        return outputName;
+    }
+
+    private static Converted take(final CompletionService<Converted> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a batch entry", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Batch entry failed", ex.getCause());
+        }
+    }
+
+    private static long elapsedMillis(final long start) {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    private record Converted(int index, EntryResult result, File outputFile) {
+    }
+}
@@ -0,0 +1,56 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.local.filter.Filter;
+
+/**
+ * A filter that only matters for some target formats, and that clients can switch on or off by
+ * its name with the "f" prefixed parameters of a request, see {@link ParameterDecoder}. Converters
+ * leave a filter out of their chain when it doesn't apply, so a conversion doesn't pay for filters
+ * whose work its output discards.
+ */
+public interface ConditionalFilter extends Filter {
+
+    /**
+     * Gets the name clients switch the filter with.
+     *
+     * @return The name, the simple name of the class of the filter by default.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Tells whether the filter changes the document converted to a format.
+     *
+     * @param targetFormat The format the document is converted to.
+     * @return true if the filter applies, which it does to every format by default.
+     */
+    default boolean appliesTo(final DocumentFormat targetFormat) {
+        return true;
+    }
+
+    /**
+     * Gets the name clients switch a filter with.
+     *
+     * @param filter The filter.
+     * @return The name of the filter if it is a conditional one, the simple name of its class
+     * otherwise.
+     */
+    static String getName(final Filter filter) {
+        return filter instanceof ConditionalFilter conditional
+                ? conditional.getName()
+                : filter.getClass().getSimpleName();
+    }
+
+    /**
+     * Tells whether a filter changes the document converted to a format.
+     *
+     * @param filter       The filter.
+     * @param targetFormat The format the document is converted to.
+     * @return true if the filter applies, as any filter that isn't a conditional one does.
+     */
+    static boolean appliesTo(final Filter filter, final DocumentFormat targetFormat) {
+        return !(filter instanceof ConditionalFilter conditional) || conditional.appliesTo(targetFormat);
+    }
+}
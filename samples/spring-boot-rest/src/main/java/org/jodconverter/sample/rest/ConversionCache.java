@@ -0,0 +1,271 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed store of converted documents, addressed by {@link ConversionKey}. Entries are
+ * evicted in least-recently-used order once the store exceeds its maximum size, and regardless of
+ * use once they are older than the maximum age.
+ *
+ * <p>Documents are moved between the store and the work directory with hard links when both live on
+ * the same file system, so neither a hit nor a put copies the document.
+ *
+ * <p>The counters of {@link #getStats()} are also published, the cache being a {@link MeterBinder}
+ * bound by Spring Boot: {@value #GETS} tagged with the result, hit or miss, {@value #EVICTIONS},
+ * and the {@value #ENTRIES} and {@value #SIZE} gauges.
+ */
+@Component
+public class ConversionCache implements MeterBinder {
+
+    /** The name of the counter of the lookups, tagged with their result. */
+    public static final String GETS = "converter.cache.gets";
+
+    /** The name of the counter of the evicted entries. */
+    public static final String EVICTIONS = "converter.cache.evictions";
+
+    /** The name of the gauge of the cached entries. */
+    public static final String ENTRIES = "converter.cache.entries";
+
+    /** The name of the gauge of the size of the cached documents. */
+    public static final String SIZE = "converter.cache.size";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionCache.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSize;
+    private final long maxAge;
+    private final Clock clock;
+
+    // Access ordered, so iteration starts with the least recently used entry.
+    private final LinkedHashMap<ConversionKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a new cache. Documents left over by a previous run are discarded, since the index
+     * only lives in memory.
+     *
+     * @param properties The settings of the cache.
+     * @throws IOException If the cache directory cannot be prepared.
+     */
+    @Autowired
+    public ConversionCache(final ConverterProperties properties) throws IOException {
+        this(properties, Clock.systemUTC());
+    }
+
+    /* default */ ConversionCache(final ConverterProperties properties, final Clock clock) throws IOException {
+        super();
+
+        final ConverterProperties.Cache cache = properties.getCache();
+        this.enabled = cache.isEnabled();
+        this.directory = cache.getDir() == null
+                ? properties.getWorkDir().toPath().resolve("cache")
+                : cache.getDir().toPath();
+        this.maxSize = cache.getMaxSize().toBytes();
+        this.maxAge = cache.getMaxAge().toMillis();
+        this.clock = clock;
+
+        if (enabled) {
+            Files.createDirectories(directory);
+            try (Stream<Path> leftovers = Files.list(directory)) {
+                leftovers.forEach(this::deleteQuietly);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Copies the cached document of a conversion to a file.
+     *
+     * @param key        The key of the conversion.
+     * @param outputFile The file receiving the cached document, replaced if it exists.
+     * @return {@code true} on a hit, {@code false} if the conversion must be executed.
+     * @throws IOException If the cached document cannot be copied.
+     */
+    public boolean get(final ConversionKey key, final File outputFile) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                evict(key, entry);
+                misses.incrementAndGet();
+                return false;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        try {
+            linkOrCopy(entry.path, outputFile.toPath());
+        } catch (NoSuchFileException ex) {
+            // Evicted between the lookup and the copy.
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        LOGGER.debug("Conversion cache hit for {}", key);
+        return true;
+    }
+
+    /**
+     * Stores the converted document of a conversion, evicting older entries if needed.
+     *
+     * @param key        The key of the conversion.
+     * @param outputFile The converted document. The file itself is left untouched.
+     * @throws IOException If the document cannot be stored.
+     */
+    public void put(final ConversionKey key, final File outputFile) throws IOException {
+        final long length = outputFile.length();
+        if (!enabled || length > maxSize) {
+            return;
+        }
+        final Path path = directory.resolve(key + "." + FilenameUtils.getExtension(outputFile.getName()));
+        linkOrCopy(outputFile.toPath(), path);
+
+        synchronized (this) {
+            final Entry previous = entries.put(key, new Entry(path, length, clock.millis()));
+            if (previous != null) {
+                size -= previous.size;
+                if (!previous.path.equals(path)) {
+                    deleteQuietly(previous.path);
+                }
+            }
+            size += length;
+            evictExpiredAndOversized();
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        FunctionCounter.builder(GETS, hits, AtomicLong::get)
+                .description("Conversions looked up in the cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(GETS, misses, AtomicLong::get)
+                .description("Conversions looked up in the cache")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(EVICTIONS, evictions, AtomicLong::get)
+                .description("Converted documents evicted from the cache")
+                .register(registry);
+        Gauge.builder(ENTRIES, this, cache -> cache.getStats().entries())
+                .description("Converted documents in the cache")
+                .register(registry);
+        Gauge.builder(SIZE, this, cache -> cache.getStats().size())
+                .description("Size of the converted documents in the cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Gets the counters of the cache.
+     *
+     * @return A snapshot of the counters.
+     */
+    public Stats getStats() {
+        synchronized (this) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), entries.size(), size);
+        }
+    }
+
+    private void evictExpiredAndOversized() {
+        final Iterator<Map.Entry<ConversionKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<ConversionKey, Entry> eldest = iterator.next();
+            if (size > maxSize || isExpired(eldest.getValue())) {
+                iterator.remove();
+                size -= eldest.getValue().size;
+                deleteQuietly(eldest.getValue().path);
+                evictions.incrementAndGet();
+                LOGGER.debug("Evicted {} from the conversion cache", eldest.getKey());
+            }
+        }
+    }
+
+    private void evict(final ConversionKey key, final Entry entry) {
+        entries.remove(key);
+        size -= entry.size;
+        deleteQuietly(entry.path);
+        evictions.incrementAndGet();
+    }
+
+    private boolean isExpired(final Entry entry) {
+        return clock.millis() - entry.createdAt > maxAge;
+    }
+
+    private static void linkOrCopy(final Path source, final Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (NoSuchFileException ex) {
+            throw ex;
+        } catch (UnsupportedOperationException | IOException ex) {
+            // Not the same file system, no hard links at all, or a concurrent put of the same key.
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not delete cached document {}", path, ex);
+        }
+    }
+
+    private static final class Entry {
+        private final Path path;
+        private final long size;
+        private final long createdAt;
+
+        private Entry(final Path path, final long size, final long createdAt) {
+            this.path = path;
+            this.size = size;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Counters of the cache.
+     *
+     * @param hits      The number of lookups served from the cache.
+     * @param misses    The number of lookups that required a conversion.
+     * @param evictions The number of entries removed because of size or age.
+     * @param entries   The number of cached documents.
+     * @param size      The total size of the cached documents, in bytes.
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long size) {
+    }
+}
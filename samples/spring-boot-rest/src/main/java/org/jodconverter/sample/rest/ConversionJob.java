@@ -0,0 +1,140 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.document.DocumentFormat;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A conversion submitted to the {@link ConversionJobService}, from the moment it is queued until
+ * its converted document is discarded.
+ */
+public final class ConversionJob {
+
+    /** The states a job goes through. */
+    public enum Status {
+        /** Waiting for a worker. */
+        QUEUED,
+        /** Being converted. */
+        RUNNING,
+        /** Converted, the document can be downloaded. */
+        SUCCEEDED,
+        /** The conversion failed. */
+        FAILED
+    }
+
+    /**
+     * The state of a job as sent to the clients.
+     *
+     * @param id         The job identifier.
+     * @param status     The state of the job.
+     * @param fileName   The name of the converted document.
+     * @param error      Why the conversion failed, null unless it failed.
+     * @param createdAt  When the job was submitted.
+     * @param finishedAt When the job succeeded or failed, null until then.
+     */
+    public record Snapshot(
+            String id,
+            Status status,
+            String fileName,
+            String error,
+            Instant createdAt,
+            Instant finishedAt) {
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String fileName;
+    private final DocumentFormat targetFormat;
+    private final Instant createdAt;
+    private final CompletableFuture<ConversionJob> finished = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile File outputFile;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    /**
+     * Creates a new, queued job.
+     *
+     * @param fileName     The name of the converted document.
+     * @param targetFormat The format of the converted document.
+     * @param createdAt    When the job is submitted.
+     */
+    /* default */ ConversionJob(
+            final String fileName, final DocumentFormat targetFormat, final Instant createdAt) {
+        this.fileName = fileName;
+        this.targetFormat = targetFormat;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public DocumentFormat getTargetFormat() {
+        return targetFormat;
+    }
+
+    /**
+     * Gets the converted document.
+     *
+     * @return The converted document, null unless the job succeeded.
+     */
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return finished.isDone();
+    }
+
+    /**
+     * Gets a future completed with this job once it succeeds or fails.
+     *
+     * @return The future.
+     */
+    public CompletableFuture<ConversionJob> whenFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the state of this job.
+     *
+     * @return A snapshot of the state.
+     */
+    public Snapshot toSnapshot() {
+        return new Snapshot(id, status, fileName, error, createdAt, finishedAt);
+    }
+
+    /* default */ void start() {
+        status = Status.RUNNING;
+    }
+
+    /* default */ void succeed(final File outputFile, final Instant finishedAt) {
+        this.outputFile = outputFile;
+        this.finishedAt = finishedAt;
+        status = Status.SUCCEEDED;
+        finished.complete(this);
+    }
+
+    /* default */ void fail(final Exception failure, final Instant finishedAt) {
+        this.error = failure.getMessage();
+        this.finishedAt = finishedAt;
+        status = Status.FAILED;
+        finished.complete(this);
+    }
+}
@@ -0,0 +1,287 @@
+package org.jodconverter.sample.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.*;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Controller for asynchronous conversions. Unlike {@link ConverterController}, submitting a
+ * conversion returns as soon as the document is uploaded, with the location of a job the client
+ * then polls (or long-polls) before downloading the converted document. No servlet thread waits for
+ * the office process, and once the job queue is full submissions are answered with 429 and a
+ * {@code Retry-After} header instead of blocking. Since nobody waits for their response, jobs are
+ * bulk conversions unless the {@value ConversionRequest#PRIORITY_HEADER} header or the
+ * {@value ConversionRequest#PRIORITY} parameter tell otherwise, see {@link PriorityLanes}.
+ */
+@Controller
+@RequestMapping("/lool/jobs")
+public class ConversionJobController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionJobController.class);
+
+    private final ConversionJobService jobService;
+    private final ParameterDecoder parameterDecoder;
+    private final ConversionWorkspace workspace;
+    private final Duration retryAfter;
+    private final Duration maxWait;
+
+    /**
+     * Creates a new controller.
+     *
+     * @param jobService       The service running the jobs.
+     * @param parameterDecoder The decoder of the custom load/store properties.
+     * @param workspace        The directory where uploaded documents are spilled.
+     * @param properties       The settings of the jobs.
+     */
+    public ConversionJobController(
+            final ConversionJobService jobService,
+            final ParameterDecoder parameterDecoder,
+            final ConversionWorkspace workspace,
+            final ConverterProperties properties) {
+        super();
+
+        this.jobService = jobService;
+        this.parameterDecoder = parameterDecoder;
+        this.workspace = workspace;
+        this.retryAfter = properties.getJobs().getRetryAfter();
+        this.maxWait = properties.getJobs().getMaxWait();
+    }
+
+    @Operation(
+            summary =
+                    "Queues the conversion of the incoming document to the specified format (provided as"
+                            + " path param) and returns the job converting it.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "202", description = "Conversion queued."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input document or output format is missing or unknown."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The job queue is full, retry after the delay of the Retry-After header."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(
+            value = "/convert-to/{format}",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    /* default */ ResponseEntity<Object> submitUsingPath(
+            @Parameter(description = "The input document to convert.", required = true)
+            @RequestParam("data") final MultipartFile inputFile,
+            @Parameter(
+                    description = "The document format to convert the input document to.",
+                    required = true)
+            @PathVariable(name = "format") final String convertToFormat,
+            @Parameter(description = "The custom options to apply to the conversion.")
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk (the default).")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
+
+        LOGGER.debug("submitUsingPathVariable > Queuing conversion to {}", convertToFormat);
+        return submit(inputFile, convertToFormat, parameters, priority);
+    }
+
+    @Operation(
+            summary =
+                    "Queues the conversion of the incoming document to the specified format (provided as"
+                            + " request param) and returns the job converting it.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "202", description = "Conversion queued."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input document or output format is missing or unknown."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The job queue is full, retry after the delay of the Retry-After header."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(
+            value = "/convert-to",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    /* default */ ResponseEntity<Object> submitUsingParam(
+            @Parameter(description = "The input document to convert.", required = true)
+            @RequestParam("data") final MultipartFile inputFile,
+            @Parameter(
+                    description = "The document format to convert the input document to.",
+                    required = true)
+            @RequestParam(name = "format") final String convertToFormat,
+            @Parameter(description = "The custom options to apply to the conversion.")
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk (the default).")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
+
+        LOGGER.debug("submitUsingRequestParam > Queuing conversion to {}", convertToFormat);
+        return submit(inputFile, convertToFormat, parameters, priority);
+    }
+
+    @Operation(
+            summary =
+                    "Returns the status of a job, optionally waiting up to the given number of seconds"
+                            + " for it to finish.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "The status of the job."),
+                    @ApiResponse(responseCode = "404", description = "The job is unknown or expired.")
+            })
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    /* default */ DeferredResult<ResponseEntity<Object>> getStatus(
+            @Parameter(description = "The job identifier.", required = true)
+            @PathVariable(name = "id") final String id,
+            @Parameter(description = "The number of seconds to wait for the job to finish.")
+            @RequestParam(name = "wait", defaultValue = "0") final long waitSeconds) {
+
+        final ConversionJob job = jobService.get(id);
+        final long timeout = Math.min(Math.max(waitSeconds, 0L), maxWait.toSeconds()) * 1000L;
+        final DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>(timeout);
+        if (job == null) {
+            result.setResult(ResponseEntity.notFound().build());
+        } else if (timeout == 0L || job.isFinished()) {
+            result.setResult(toStatus(job));
+        } else {
+            // Long poll: the response is sent when the job finishes, without holding this thread.
+            result.onTimeout(() -> result.setResult(toStatus(job)));
+            job.whenFinished().thenAccept(finished -> result.setResult(toStatus(finished)));
+        }
+        return result;
+    }
+
+    @Operation(summary = "Returns the converted document of a job.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "The converted document."),
+                    @ApiResponse(responseCode = "404", description = "The job is unknown or expired."),
+                    @ApiResponse(responseCode = "409", description = "The job is not finished yet."),
+                    @ApiResponse(responseCode = "500", description = "The conversion failed.")
+            })
+    @GetMapping(value = "/{id}/result", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    /* default */ ResponseEntity<Object> getResult(
+            @Parameter(description = "The job identifier.", required = true)
+            @PathVariable(name = "id") final String id) {
+
+        final ConversionJob job = jobService.get(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        switch (job.getStatus()) {
+            case SUCCEEDED:
+                // Opened before answering, so that a job purged or deleted meanwhile doesn't cut
+                // the download: the document is only unlinked while the stream is open.
+                final InputStream document;
+                final long length;
+                try {
+                    document = Files.newInputStream(job.getOutputFile().toPath());
+                    length = job.getOutputFile().length();
+                } catch (NoSuchFileException ex) {
+                    return ResponseEntity.notFound().build();
+                } catch (IOException ex) {
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex);
+                }
+                final HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.parseMediaType(job.getTargetFormat().getMediaType()));
+                headers.setContentLength(length);
+                headers.setContentDisposition(ContentDisposition.attachment()
+                        .filename(job.getFileName(), UTF_8)
+                        .build());
+                return ResponseEntity.ok().headers(headers).body(new InputStreamResource(document));
+            case FAILED:
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(job.toSnapshot());
+            default:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(job.toSnapshot());
+        }
+    }
+
+    @Operation(summary = "Discards a finished job and its converted document.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "204", description = "The job is discarded."),
+                    @ApiResponse(responseCode = "404", description = "The job is unknown or not finished yet.")
+            })
+    @DeleteMapping("/{id}")
+    /* default */ ResponseEntity<Void> delete(
+            @Parameter(description = "The job identifier.", required = true)
+            @PathVariable(name = "id") final String id) {
+
+        return jobService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<Object> submit(
+            final MultipartFile inputFile,
+            final String outputFormat,
+            final Map<String, String> parameters,
+            final String priority) {
+
+        if (inputFile.isEmpty() || StringUtils.isBlank(outputFormat)) {
+            return ResponseEntity.badRequest().build();
+        }
+        final DocumentFormat targetFormat = DefaultDocumentFormatRegistry.getFormatByExtension(outputFormat);
+        if (targetFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final File input;
+        try {
+            input = workspace.createInputFile(inputFile);
+        } catch (IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex);
+        }
+
+        final ConversionJob job;
+        try {
+            final ConversionRequest request =
+                    ConversionRequest.decode(input, targetFormat, parameters, parameterDecoder, priority);
+            job = jobService.submit(
+                    request.getLane() == null ? request.withLane(PriorityLanes.Lane.BULK) : request,
+                    ConverterController.getFileName(inputFile, targetFormat));
+        } catch (RejectedExecutionException ex) {
+            LOGGER.debug("Job queue full, rejecting conversion to {}", outputFormat);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())))
+                    .build();
+        } catch (RuntimeException ex) {
+            workspace.delete(input);
+            throw ex;
+        }
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/lool/jobs/{id}")
+                        .buildAndExpand(job.getId())
+                        .toUri())
+                .body(job.toSnapshot());
+    }
+
+    private static ResponseEntity<Object> toStatus(final ConversionJob job) {
+        return ResponseEntity.ok(job.toSnapshot());
+    }
+}
@@ -0,0 +1,188 @@
+package org.jodconverter.sample.rest;
+
+import jakarta.annotation.PreDestroy;
+import org.jodconverter.core.office.OfficeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs conversions in the background so no servlet thread waits for the office process. Jobs are
+ * queued in a bounded queue and converted by a fixed number of workers; once the queue is full new
+ * jobs are rejected rather than piling up. Finished jobs are kept for the configured retention so
+ * the clients can download the converted documents, then they are discarded.
+ */
+@Service
+public class ConversionJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionJobService.class);
+
+    private final DocumentConversionService conversionService;
+    private final ConversionWorkspace workspace;
+    private final Duration retention;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new service.
+     *
+     * @param conversionService The service executing the conversions.
+     * @param workspace         The directory holding the documents of the jobs.
+     * @param properties        The settings of the workers, queue and retention.
+     */
+    @Autowired
+    public ConversionJobService(
+            final DocumentConversionService conversionService,
+            final ConversionWorkspace workspace,
+            final ConverterProperties properties) {
+        this(conversionService, workspace, properties, Clock.systemUTC());
+    }
+
+    /* default */ ConversionJobService(
+            final DocumentConversionService conversionService,
+            final ConversionWorkspace workspace,
+            final ConverterProperties properties,
+            final Clock clock) {
+        super();
+
+        this.conversionService = conversionService;
+        this.workspace = workspace;
+        this.retention = properties.getJobs().getRetention();
+        this.clock = clock;
+
+        final int workers = properties.getJobs().getWorkers();
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getJobs().getQueueCapacity()),
+                new NamedThreadFactory("conversion-job-"));
+    }
+
+    /**
+     * Queues a conversion. The input document of the request is owned by the job from now on, and
+     * deleted once converted or if the job is rejected.
+     *
+     * @param request  The conversion to execute.
+     * @param fileName The name of the converted document.
+     * @return The queued job.
+     * @throws RejectedExecutionException If the queue is full.
+     */
+    public ConversionJob submit(final ConversionRequest request, final String fileName) {
+        purgeExpiredJobs();
+
+        final ConversionJob job = new ConversionJob(fileName, request.getTargetFormat(), clock.instant());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            workspace.delete(request.getInputFile());
+            throw ex;
+        }
+        return job;
+    }
+
+    /**
+     * Gets a job.
+     *
+     * @param id The job identifier.
+     * @return The job, null if it is unknown or has been discarded.
+     */
+    public ConversionJob get(final String id) {
+        final ConversionJob job = jobs.get(id);
+        if (job != null && isExpired(job, clock.instant())) {
+            discard(job);
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * Discards a finished job and its converted document.
+     *
+     * @param id The job identifier.
+     * @return false if the job is unknown or not finished yet.
+     */
+    public boolean delete(final String id) {
+        final ConversionJob job = jobs.get(id);
+        if (job == null || !job.isFinished()) {
+            return false;
+        }
+        discard(job);
+        return true;
+    }
+
+    /**
+     * Gets the number of jobs waiting for a worker.
+     *
+     * @return The queue length.
+     */
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops the workers, dropping the jobs still in the queue, and gives the running ones a few
+     * seconds to clean their work files up.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("Conversion jobs still running after shutdown");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(final ConversionJob job, final ConversionRequest request) {
+        job.start();
+        File output = null;
+        try {
+            output = workspace.createOutputFile(request.getTargetFormat());
+            conversionService.convert(request, output);
+            job.succeed(output, clock.instant());
+            output = null; // Now owned by the job.
+        } catch (OfficeException | IOException | RuntimeException ex) {
+            LOGGER.warn("Conversion job {} failed", job.getId(), ex);
+            job.fail(ex, clock.instant());
+        } finally {
+            workspace.delete(request.getInputFile());
+            workspace.delete(output);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        final Instant now = clock.instant();
+        jobs.values().stream().filter(job -> isExpired(job, now)).forEach(this::discard);
+    }
+
+    private boolean isExpired(final ConversionJob job, final Instant now) {
+        final Instant finishedAt = job.getFinishedAt();
+        return finishedAt != null && finishedAt.plus(retention).isBefore(now);
+    }
+
+    private void discard(final ConversionJob job) {
+        if (jobs.remove(job.getId(), job)) {
+            workspace.delete(job.getOutputFile());
+        }
+    }
+}
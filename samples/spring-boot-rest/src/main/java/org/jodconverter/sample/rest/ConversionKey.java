@@ -0,0 +1,153 @@
+package org.jodconverter.sample.rest;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Identity of a conversion: a SHA-256 of the input document bytes and format, the target format,
+ * the load/store properties and the filter switches. Two requests with the same key produce the
+ * same converted document.
+ */
+public final class ConversionKey {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String hash;
+
+    private ConversionKey(final String hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Computes the key of a conversion request. The input document is read once, in chunks.
+     *
+     * @param request The request.
+     * @return The key of the request.
+     * @throws IOException If the input document cannot be read.
+     */
+    public static ConversionKey of(final ConversionRequest request) throws IOException {
+        final MessageDigest digest = newDigest();
+        digest(digest, request.getInputFile());
+        return finish(digest, request);
+    }
+
+    /**
+     * Computes the keys of conversion requests sharing the same input document, such as the
+     * requests of several formats for one upload. The input document is read only once.
+     *
+     * @param requests The requests, all with the same input document.
+     * @return The keys of the requests, in the same order.
+     * @throws IOException If the input document cannot be read.
+     */
+    public static List<ConversionKey> of(final List<ConversionRequest> requests) throws IOException {
+        final MessageDigest input = newDigest();
+        digest(input, requests.get(0).getInputFile());
+
+        final List<ConversionKey> keys = new ArrayList<>(requests.size());
+        for (final ConversionRequest request : requests) {
+            try {
+                keys.add(finish((MessageDigest) input.clone(), request));
+            } catch (CloneNotSupportedException ex) {
+                keys.add(of(request));
+            }
+        }
+        return keys;
+    }
+
+    private static ConversionKey finish(final MessageDigest digest, final ConversionRequest request) {
+        // The same bytes are a different document as a .csv or a .txt, for instance.
+        digest.update((byte) 0);
+        digest.update(FilenameUtils.getExtension(request.getInputFile().getName())
+                .toLowerCase(Locale.ROOT).getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(request.getTargetFormat().getExtension().getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(canonical(request.getLoadProperties()).getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(canonical(request.getStoreProperties()).getBytes(UTF_8));
+        digest.update((byte) 0);
+        digest.update(canonical(request.getFilters()).getBytes(UTF_8));
+        return new ConversionKey(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Renders properties in a form that doesn't depend on map ordering, nested maps (such as
+     * FilterData) included. Values are prefixed by their type so that, for instance, the integer 1
+     * and the string "1" don't collide, and names and values are prefixed by their length so that
+     * a value containing separators cannot pass for several properties.
+     */
+    static String canonical(final Map<String, ?> properties) {
+        final StringBuilder builder = new StringBuilder();
+        appendCanonical(builder, properties);
+        return builder.toString();
+    }
+
+    private static void appendCanonical(final StringBuilder builder, final Map<String, ?> properties) {
+        builder.append('{');
+        new TreeMap<>(properties).forEach((name, value) -> {
+            appendLengthPrefixed(builder, name).append('=');
+            if (value instanceof Map) {
+                @SuppressWarnings("unchecked") final Map<String, ?> map = (Map<String, ?>) value;
+                appendCanonical(builder, map);
+            } else if (value == null) {
+                builder.append("null");
+            } else {
+                builder.append(value.getClass().getSimpleName()).append(':');
+                appendLengthPrefixed(builder, String.valueOf(value));
+            }
+            builder.append(';');
+        });
+        builder.append('}');
+    }
+
+    private static StringBuilder appendLengthPrefixed(final StringBuilder builder, final String text) {
+        return builder.append(text.length()).append('#').append(text);
+    }
+
+    private static void digest(final MessageDigest digest, final File file) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof ConversionKey && hash.equals(((ConversionKey) other).hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return hash;
+    }
+}
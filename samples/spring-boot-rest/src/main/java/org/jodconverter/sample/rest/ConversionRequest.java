@@ -0,0 +1,259 @@
+package org.jodconverter.sample.rest;
+
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.filter.Filter;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A document to convert, the format to convert it to, and the load/store properties, filter
+ * switches and priority decoded from the request parameters.
+ */
+public final class ConversionRequest {
+
+    /** The parameter telling the priority of a conversion: "interactive" or "bulk". */
+    public static final String PRIORITY = "priority";
+
+    /**
+     * The header telling the priority of a conversion, like the {@value #PRIORITY} parameter; the
+     * standard {@code Priority} header browsers send is about something else.
+     */
+    public static final String PRIORITY_HEADER = "X-Conversion-Priority";
+
+    /**
+     * The load properties of the requests without custom load properties: the defaults of
+     * {@link LocalConverter}, documents being opened for writing so that filters can modify them.
+     */
+    public static final Map<String, Object> DEFAULT_LOAD_PROPERTIES;
+
+    static {
+        final Map<String, Object> loadProperties = new HashMap<>(LocalConverter.DEFAULT_LOAD_PROPERTIES);
+        loadProperties.put("ReadOnly", false);
+        DEFAULT_LOAD_PROPERTIES = Collections.unmodifiableMap(loadProperties);
+    }
+
+    private final File inputFile;
+    private final DocumentFamily sourceFamily;
+    private final DocumentFormat targetFormat;
+    private final Map<String, Object> loadProperties;
+    private final Map<String, Object> storeProperties;
+    private final Map<String, Boolean> filters;
+    private final boolean defaultProperties;
+    private final PriorityLanes.Lane lane;
+
+    /**
+     * Creates a new request applying the filters to the formats they apply to.
+     *
+     * @param inputFile       The document to convert.
+     * @param targetFormat    The format to convert the document to.
+     * @param loadProperties  The properties to apply when loading the document.
+     * @param storeProperties The properties to apply when storing the converted document.
+     */
+    public ConversionRequest(
+            final File inputFile,
+            final DocumentFormat targetFormat,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties) {
+        this(inputFile, targetFormat, loadProperties, storeProperties, Map.of());
+    }
+
+    /**
+     * Creates a new request.
+     *
+     * @param inputFile       The document to convert.
+     * @param targetFormat    The format to convert the document to.
+     * @param loadProperties  The properties to apply when loading the document.
+     * @param storeProperties The properties to apply when storing the converted document.
+     * @param filters         Whether the filters switched by the client are on, by lower case name.
+     */
+    public ConversionRequest(
+            final File inputFile,
+            final DocumentFormat targetFormat,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties,
+            final Map<String, Boolean> filters) {
+        this(inputFile, targetFormat, loadProperties, storeProperties, filters, null);
+    }
+
+    private ConversionRequest(
+            final File inputFile,
+            final DocumentFormat targetFormat,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties,
+            final Map<String, Boolean> filters,
+            final PriorityLanes.Lane lane) {
+        this.inputFile = inputFile;
+        final DocumentFormat sourceFormat =
+                DefaultDocumentFormatRegistry.getFormatByExtension(FilenameUtils.getExtension(inputFile.getName()));
+        this.sourceFamily = sourceFormat == null ? null : sourceFormat.getInputFamily();
+        this.targetFormat = targetFormat;
+        this.loadProperties = Collections.unmodifiableMap(loadProperties);
+        this.storeProperties = Collections.unmodifiableMap(storeProperties);
+        this.filters = Collections.unmodifiableMap(filters);
+        this.defaultProperties =
+                storeProperties.isEmpty() && DEFAULT_LOAD_PROPERTIES.equals(loadProperties);
+        this.lane = lane;
+    }
+
+    /**
+     * Creates a request from the parameters of an HTTP request, decoding the custom load/store
+     * properties, the filter switches and the {@value #PRIORITY} they carry.
+     *
+     * @param inputFile        The document to convert.
+     * @param targetFormat     The format to convert the document to.
+     * @param parameters       The parameters of the HTTP request.
+     * @param parameterDecoder The decoder of the custom load/store properties and filter switches.
+     * @return The conversion request.
+     */
+    public static ConversionRequest decode(
+            final File inputFile,
+            final DocumentFormat targetFormat,
+            final Map<String, String> parameters,
+            final ParameterDecoder parameterDecoder) {
+        return decode(inputFile, targetFormat, parameters, parameterDecoder, null);
+    }
+
+    /**
+     * Creates a request from an HTTP request, decoding the custom load/store properties and the
+     * filter switches its parameters carry, and its priority.
+     *
+     * @param inputFile        The document to convert.
+     * @param targetFormat     The format to convert the document to.
+     * @param parameters       The parameters of the HTTP request.
+     * @param parameterDecoder The decoder of the custom load/store properties and filter switches.
+     * @param priority         The {@value #PRIORITY_HEADER} header of the HTTP request, null if not
+     *                         sent; the {@value #PRIORITY} parameter is used if the header doesn't
+     *                         name a lane.
+     * @return The conversion request.
+     */
+    public static ConversionRequest decode(
+            final File inputFile,
+            final DocumentFormat targetFormat,
+            final Map<String, String> parameters,
+            final ParameterDecoder parameterDecoder,
+            final String priority) {
+
+        PriorityLanes.Lane lane = PriorityLanes.Lane.parse(priority);
+        if (lane == null && parameters != null) {
+            lane = PriorityLanes.Lane.parse(parameters.get(PRIORITY));
+        }
+
+        final Map<String, Object> customLoadProperties = new HashMap<>();
+        final Map<String, Object> storeProperties = new HashMap<>();
+        final Map<String, Boolean> filters = new HashMap<>();
+        parameterDecoder.decodeParameters(parameters, customLoadProperties, storeProperties, filters);
+        if (customLoadProperties.isEmpty()) {
+            return new ConversionRequest(
+                    inputFile,
+                    targetFormat,
+                    DEFAULT_LOAD_PROPERTIES,
+                    storeProperties.isEmpty() ? Map.of() : storeProperties,
+                    filters.isEmpty() ? Map.of() : filters,
+                    lane);
+        }
+
+        final Map<String, Object> loadProperties = new HashMap<>(DEFAULT_LOAD_PROPERTIES);
+        loadProperties.putAll(customLoadProperties);
+        return new ConversionRequest(inputFile, targetFormat, loadProperties, storeProperties,
+                filters.isEmpty() ? Map.of() : filters, lane);
+    }
+
+    /**
+     * Gets the same request in another priority lane.
+     *
+     * @param lane The lane of the conversion, null for the default one.
+     * @return The request in the lane.
+     */
+    public ConversionRequest withLane(final PriorityLanes.Lane lane) {
+        return new ConversionRequest(inputFile, targetFormat, loadProperties, storeProperties, filters, lane);
+    }
+
+    public File getInputFile() {
+        return inputFile;
+    }
+
+    /**
+     * Gets the family of the document to convert, as told by the extension of its file.
+     *
+     * @return The family, or null if the extension is not the one of a known format.
+     */
+    public DocumentFamily getSourceFamily() {
+        return sourceFamily;
+    }
+
+    public DocumentFormat getTargetFormat() {
+        return targetFormat;
+    }
+
+    public Map<String, Object> getLoadProperties() {
+        return loadProperties;
+    }
+
+    public Map<String, Object> getStoreProperties() {
+        return storeProperties;
+    }
+
+    /**
+     * Gets the filters switched on or off by the client.
+     *
+     * @return Whether each switched filter is on, by lower case name.
+     */
+    public Map<String, Boolean> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Tells whether a filter applies to this request: as switched by the client if it is, to the
+     * target formats it declares otherwise, see {@link ConditionalFilter}.
+     *
+     * @param filter The filter.
+     * @return true if the conversion goes through the filter.
+     */
+    public boolean appliesFilter(final Filter filter) {
+        if (!filters.isEmpty()) {
+            final Boolean on = filters.get(ConditionalFilter.getName(filter).toLowerCase(Locale.ROOT));
+            if (on != null) {
+                return on;
+            }
+        }
+        return ConditionalFilter.appliesTo(filter, targetFormat);
+    }
+
+    /**
+     * Selects the filters applying to this request, see {@link #appliesFilter(Filter)}.
+     *
+     * @param filters The filters.
+     * @return The filters applying to this request, in the same order.
+     */
+    public Filter[] selectFilters(final Filter... filters) {
+        return Arrays.stream(filters).filter(this::appliesFilter).toArray(Filter[]::new);
+    }
+
+    /**
+     * Tells whether this request applies the default load properties and no store property, as do
+     * the requests without custom options.
+     *
+     * @return true if the request has the default properties.
+     */
+    public boolean hasDefaultProperties() {
+        return defaultProperties;
+    }
+
+    /**
+     * Gets the priority of the conversion, see {@link PriorityLanes}.
+     *
+     * @return The lane of the conversion, or null if the client didn't tell it.
+     */
+    public PriorityLanes.Lane getLane() {
+        return lane;
+    }
+}
@@ -0,0 +1,178 @@
+package org.jodconverter.sample.rest;
+
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.document.DocumentFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Directory where the documents of the running conversions live. Input documents are spilled
+ * here before being handed to the office process and converted documents are written here, so a
+ * conversion never holds a whole document in heap: only converted documents below the configured
+ * in-memory threshold are read back into memory, the others are streamed from disk and deleted
+ * once sent, or once the request is done if they are never read. The work files left over by a
+ * previous run, which may have stopped in the middle of conversions, are deleted at startup, the
+ * shared results of {@link SingleFlight} included.
+ */
+@Component
+public class ConversionWorkspace {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversionWorkspace.class);
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[A-Za-z0-9]{1,10}");
+    private static final String DEFAULT_EXTENSION = "tmp";
+    private static final String INPUT_PREFIX = "in-";
+    private static final String OUTPUT_PREFIX = "out-";
+
+    private final Path workDir;
+    private final long inMemoryThreshold;
+
+    /**
+     * Creates a new workspace.
+     *
+     * @param properties The settings providing the work directory and the in-memory threshold.
+     * @throws IOException If the work directory cannot be created.
+     */
+    public ConversionWorkspace(final ConverterProperties properties) throws IOException {
+        super();
+
+        this.workDir = Files.createDirectories(properties.getWorkDir().toPath());
+        this.inMemoryThreshold = properties.getStreaming().getInMemoryThreshold().toBytes();
+
+        try (Stream<Path> leftovers = Files.list(workDir)) {
+            leftovers.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().startsWith(INPUT_PREFIX)
+                            || file.getFileName().toString().startsWith(OUTPUT_PREFIX)
+                            || file.getFileName().toString().startsWith(SingleFlight.RESULT_PREFIX))
+                    .forEach(file -> delete(file.toFile()));
+        }
+    }
+
+    /**
+     * Spills an uploaded document to a new file of the workspace. The file keeps the extension of
+     * the uploaded document so its format can still be detected.
+     *
+     * @param inputFile The uploaded document.
+     * @return The file holding the document.
+     * @throws IOException If the document cannot be written.
+     */
+    public File createInputFile(final MultipartFile inputFile) throws IOException {
+        final File file = createFile(INPUT_PREFIX, FilenameUtils.getExtension(inputFile.getOriginalFilename()));
+        try {
+            inputFile.transferTo(file);
+        } catch (IOException | RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+        return file;
+    }
+
+    /**
+     * Spills a document read from a stream, such as an archive entry, to a new file of the
+     * workspace. The file keeps the extension of the document name so its format can still be
+     * detected.
+     *
+     * @param fileName The name of the document.
+     * @param content  The content of the document, not closed.
+     * @return The file holding the document.
+     * @throws IOException If the document cannot be read or written.
+     */
+    public File createInputFile(final String fileName, final InputStream content) throws IOException {
+        final File file = createFile(INPUT_PREFIX, FilenameUtils.getExtension(fileName));
+        try {
+            Files.copy(content, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+        return file;
+    }
+
+    /**
+     * Creates a new, empty file of the workspace that will receive a converted document.
+     *
+     * @param targetFormat The format of the converted document.
+     * @return The created file.
+     * @throws IOException If the file cannot be created.
+     */
+    public File createOutputFile(final DocumentFormat targetFormat) throws IOException {
+        return createFile(OUTPUT_PREFIX, targetFormat.getExtension());
+    }
+
+    /**
+     * Turns a converted document into a response body. The document is read into memory if it is
+     * not bigger than the in-memory threshold, otherwise it is sent from disk. Either way, the file
+     * is deleted once it is not needed anymore: a document sent from disk is deleted once read, and
+     * in any case when the current request is done, since it may never be read, for instance if the
+     * client goes away first.
+     *
+     * @param outputFile The converted document.
+     * @return The response body, either a {@code byte[]} or a {@link org.springframework.core.io.Resource}.
+     * @throws IOException If the document cannot be read.
+     */
+    public Object toResponseBody(final File outputFile) throws IOException {
+        if (outputFile.length() > inMemoryThreshold) {
+            final RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request != null) {
+                request.registerDestructionCallback(
+                        outputFile.getName(), () -> delete(outputFile), RequestAttributes.SCOPE_REQUEST);
+            }
+            return new DeleteOnCloseResource(outputFile);
+        }
+        try {
+            return Files.readAllBytes(outputFile.toPath());
+        } finally {
+            delete(outputFile);
+        }
+    }
+
+    /**
+     * Deletes a file of the workspace, logging instead of failing if it cannot be deleted.
+     *
+     * @param file The file to delete, may be null.
+     */
+    public void delete(final File file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ex) {
+            LOGGER.warn("Could not delete work file {}", file, ex);
+        }
+    }
+
+    private File createFile(final String prefix, final String extension) throws IOException {
+        final String suffix =
+                "." + (extension != null && SAFE_EXTENSION.matcher(extension).matches() ? extension : DEFAULT_EXTENSION);
+        return Files.createTempFile(workDir, prefix, suffix).toFile();
+    }
+
+    /** A file resource whose file is deleted once its content has been read. */
+    private static final class DeleteOnCloseResource extends FileSystemResource {
+
+        private DeleteOnCloseResource(final File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(getFile().toPath(), StandardOpenOption.DELETE_ON_CLOSE);
+        }
+    }
+}
@@ -5,29 +5,27 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.apache.commons.io.FilenameUtils;
-import org.jodconverter.core.DocumentConverter;
 import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
 import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.office.OfficeException;
-import org.jodconverter.core.office.OfficeManager;
 import org.jodconverter.core.util.StringUtils;
-import org.jodconverter.local.LocalConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -35,7 +33,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * Controller that will process conversion requests. The mapping is the same as LibreOffice Online
  * (/lool/convert-to) so we can use the jodconverter-remote module to send request to this
  * controller. This controller does the same as LibreOffice Online, and also support custom
- * conversions through filters and custom load/store properties.
+ * conversions through filters and custom load/store properties. Clients tell whether a user waits
+ * for the conversion with the {@value ConversionRequest#PRIORITY_HEADER} header or the
+ * {@value ConversionRequest#PRIORITY} parameter, see {@link PriorityLanes}.
  */
 @Controller
 @RequestMapping("/lool/convert-to")
@@ -43,20 +43,30 @@ public class ConverterController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConverterController.class);
 
-    private final OfficeManager officeManager;
-
-    @Autowired
-    private ParameterDecoder parameterDecoder;
+    private final DocumentConversionService conversionService;
+    private final ParameterDecoder parameterDecoder;
+    private final ConversionWorkspace workspace;
+    private final Duration retryAfter;
 
     /**
      * Creates a new controller.
      *
-     * @param officeManager The manager used to execute conversions.
+     * @param conversionService The service executing the conversions.
+     * @param parameterDecoder  The decoder of the custom load/store properties.
+     * @param workspace         The directory where documents are spilled during conversions.
+     * @param properties        The settings telling how long rejected clients should wait.
      */
-    public ConverterController(final OfficeManager officeManager) {
+    public ConverterController(
+            final DocumentConversionService conversionService,
+            final ParameterDecoder parameterDecoder,
+            final ConversionWorkspace workspace,
+            final ConverterProperties properties) {
         super();
 
-        this.officeManager = officeManager;
+        this.conversionService = conversionService;
+        this.parameterDecoder = parameterDecoder;
+        this.workspace = workspace;
+        this.retryAfter = properties.getLanes().getRetryAfter();
     }
 
     @Operation(
@@ -69,6 +79,9 @@ public class ConverterController {
                     @ApiResponse(
                             responseCode = "400",
                             description = "The input document or output format is missing."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The priority lane is full, retry after the delay of the Retry-After header."),
                     @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
             })
     @PostMapping(
@@ -82,10 +95,12 @@ public class ConverterController {
                     required = true)
             @RequestParam(name = "format") final String convertToFormat,
             @Parameter(description = "The custom options to apply to the conversion.")
-            @RequestParam(required = true) final Map<String, String> parameters) {
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk.")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
 
         LOGGER.debug("convertUsingRequestParam > Converting file to {}", convertToFormat);
-        return convert(inputFile, convertToFormat, parameters);
+        return convert(inputFile, convertToFormat, parameters, priority);
     }
 
     @Operation(
@@ -98,6 +113,9 @@ public class ConverterController {
                     @ApiResponse(
                             responseCode = "400",
                             description = "The input document or output format is missing."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The priority lane is full, retry after the delay of the Retry-After header."),
                     @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
             })
     @PostMapping(
@@ -112,16 +130,19 @@ public class ConverterController {
                     required = true)
             @PathVariable(name = "format") final String convertToFormat,
             @Parameter(description = "The custom options to apply to the conversion.")
-            @RequestParam(required = true) final Map<String, String> parameters) {
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk.")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
 
         LOGGER.debug("convertUsingPathVariable > Converting file to {}", convertToFormat);
-        return convert(inputFile, convertToFormat, parameters);
+        return convert(inputFile, convertToFormat, parameters, priority);
     }
 
     private ResponseEntity<Object> convert(
             final MultipartFile inputFile,
             final String outputFormat,
-            final Map<String, String> parameters) {
+            final Map<String, String> parameters,
+            final String priority) {
 
         if (inputFile.isEmpty()) {
             return ResponseEntity.badRequest().build();
@@ -131,35 +152,19 @@ public class ConverterController {
             return ResponseEntity.badRequest().build();
         }
 
-        // Here, we could have a dedicated service that would convert document
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        File input = null;
+        File output = null;
+        try {
 
             final DocumentFormat targetFormat =
                     DefaultDocumentFormatRegistry.getFormatByExtension(outputFormat);
             Assert.notNull(targetFormat, "targetFormat must not be null");
 
-            // Decode the parameters to load and store properties.
-            final Map<String, Object> loadProperties =
-                    new HashMap<>(LocalConverter.DEFAULT_LOAD_PROPERTIES);
-            loadProperties.put("ReadOnly", false);
-            final Map<String, Object> storeProperties = new HashMap<>();
-            parameterDecoder.decodeParameters(parameters, loadProperties, storeProperties);
-
-            // Create a converter with the properties.
-            final DocumentConverter converter =
-                    LocalConverter.builder()
-                            .officeManager(officeManager)
-                            .filterChain(
-                                    // new ExcelNumberFormatFilter(),  废弃
-                                    new ExcelSinglePageFilter(),
-                                    new WordFrameFilter(),
-                                    new PptPageResizeFilter())
-                            .loadProperties(loadProperties)
-                            .storeProperties(storeProperties)
-                            .build();
-
-            // Convert...
-            converter.convert(inputFile.getInputStream()).to(baos).as(targetFormat).execute();
+            // Convert from disk to disk so the documents never have to fit in heap.
+            input = workspace.createInputFile(inputFile);
+            output = workspace.createOutputFile(targetFormat);
+            conversionService.convert(
+                    ConversionRequest.decode(input, targetFormat, parameters, parameterDecoder, priority), output);
 
             final HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType(targetFormat.getMediaType()));
@@ -167,14 +172,24 @@ public class ConverterController {
             headers.setContentDisposition(ContentDisposition.attachment()
                     .filename(getFileName(inputFile, targetFormat), UTF_8)
                     .build());
-            return ResponseEntity.ok().headers(headers).body(baos.toByteArray());
-
+            final Object body = workspace.toResponseBody(output);
+            output = null; // Now owned by the response body.
+            return ResponseEntity.ok().headers(headers).body(body);
+
+        } catch (RejectedExecutionException ex) {
+            LOGGER.debug("Priority lane full, rejecting conversion to {}", outputFormat);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())))
+                    .build();
         } catch (OfficeException | IOException ex) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex);
+        } finally {
+            workspace.delete(input);
+            workspace.delete(output);
         }
     }
 
-    private static String getFileName(MultipartFile inputFile, DocumentFormat targetFormat) {
+    /* default */ static String getFileName(MultipartFile inputFile, DocumentFormat targetFormat) {
         return FilenameUtils.removeExtension(inputFile.getOriginalFilename())
                 + "." + targetFormat.getExtension();
     }
@@ -0,0 +1,462 @@
+package org.jodconverter.sample.rest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the sample REST service that are not covered by the JODConverter starter, bound
+ * from the {@code converter} prefix.
+ */
+@ConfigurationProperties(prefix = "converter")
+public class ConverterProperties {
+
+    /** Directory where the input and output documents of the conversions are spilled. */
+    private File workDir = new File(System.getProperty("java.io.tmpdir"), "jodconverter-rest");
+
+    /**
+     * Whether identical conversions running at the same time share a single office task, see
+     * {@link SingleFlight}.
+     */
+    private boolean coalesceConversions = true;
+
+    /**
+     * Maximum number of prebuilt converters kept, one per distinct set of load/store properties,
+     * see {@link LocalConverterCache}.
+     */
+    private int prebuiltConverters = 64;
+
+    private final Streaming streaming = new Streaming();
+    private final Cache cache = new Cache();
+    private final Jobs jobs = new Jobs();
+    private final Batch batch = new Batch();
+    private final Sheets sheets = new Sheets();
+    private final Pools pools = new Pools();
+    private final Lanes lanes = new Lanes();
+
+    public File getWorkDir() {
+        return workDir;
+    }
+
+    public void setWorkDir(final File workDir) {
+        this.workDir = workDir;
+    }
+
+    public boolean isCoalesceConversions() {
+        return coalesceConversions;
+    }
+
+    public void setCoalesceConversions(final boolean coalesceConversions) {
+        this.coalesceConversions = coalesceConversions;
+    }
+
+    public int getPrebuiltConverters() {
+        return prebuiltConverters;
+    }
+
+    public void setPrebuiltConverters(final int prebuiltConverters) {
+        this.prebuiltConverters = prebuiltConverters;
+    }
+
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Sheets getSheets() {
+        return sheets;
+    }
+
+    public Pools getPools() {
+        return pools;
+    }
+
+    public Lanes getLanes() {
+        return lanes;
+    }
+
+    /** How converted documents are sent back to the client. */
+    public static class Streaming {
+
+        /**
+         * Converted documents up to this size are sent from memory, bigger ones are streamed from
+         * the work directory.
+         */
+        private DataSize inMemoryThreshold = DataSize.ofMegabytes(1);
+
+        public DataSize getInMemoryThreshold() {
+            return inMemoryThreshold;
+        }
+
+        public void setInMemoryThreshold(final DataSize inMemoryThreshold) {
+            this.inMemoryThreshold = inMemoryThreshold;
+        }
+    }
+
+    /** The store of converted documents, see {@link ConversionCache}. */
+    public static class Cache {
+
+        /** Whether identical conversions are served from the cache instead of the office process. */
+        private boolean enabled = true;
+
+        /** Directory of the cached documents, a {@code cache} subdirectory of the work directory if not set. */
+        private File dir;
+
+        /** Total size of the cached documents above which the least recently used ones are evicted. */
+        private DataSize maxSize = DataSize.ofGigabytes(1);
+
+        /** Time after which a cached document is evicted, whether it is used or not. */
+        private Duration maxAge = Duration.ofHours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public File getDir() {
+            return dir;
+        }
+
+        public void setDir(final File dir) {
+            this.dir = dir;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(final Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    /** The asynchronous conversion jobs, see {@link ConversionJobService}. */
+    public static class Jobs {
+
+        /** Number of jobs converted at the same time, usually the number of office processes. */
+        private int workers = 2;
+
+        /** Number of jobs waiting for a worker above which new jobs are rejected. */
+        private int queueCapacity = 100;
+
+        /** Delay suggested to the clients whose job is rejected before they submit it again. */
+        private Duration retryAfter = Duration.ofSeconds(5);
+
+        /** Time a finished job, and its converted document, is kept for the client to download it. */
+        private Duration retention = Duration.ofMinutes(10);
+
+        /** Longest time a status request waits for the job to finish. */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(final int workers) {
+            this.workers = workers;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(final Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(final Duration retention) {
+            this.retention = retention;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(final Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    /** The batch conversions, see {@link BatchConversionService}. */
+    public static class Batch {
+
+        /**
+         * Number of entries of the batches converted at the same time, one per office process
+         * ({@code jodconverter.local.port-numbers}) if not set.
+         */
+        private int parallelism;
+
+        /** Maximum number of entries of a batch. */
+        private int maxEntries = 10_000;
+
+        /** Maximum total size of the documents of the archives of a batch, once expanded. */
+        private DataSize maxExpandedSize = DataSize.ofGigabytes(1);
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(final int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxExpandedSize() {
+            return maxExpandedSize;
+        }
+
+        public void setMaxExpandedSize(final DataSize maxExpandedSize) {
+            this.maxExpandedSize = maxExpandedSize;
+        }
+    }
+
+    /** The processing of the sheets of spreadsheets by the filters, see {@link SheetExecutor}. */
+    public static class Sheets {
+
+        /** Whether the sheets of a document are processed serially, in parallel, or depending on their count. */
+        private SheetExecutor.Mode mode = SheetExecutor.Mode.AUTO;
+
+        /** Number of sheets, of all documents, processed at the same time. */
+        private int threads = 4;
+
+        /** Number of sheets waiting for a thread above which filters process their sheets themselves. */
+        private int queueCapacity = 256;
+
+        /** Minimum number of sheets of a document processed in parallel in {@code AUTO} mode. */
+        private int parallelThreshold = 8;
+
+        public SheetExecutor.Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(final SheetExecutor.Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getParallelThreshold() {
+            return parallelThreshold;
+        }
+
+        public void setParallelThreshold(final int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+        }
+    }
+
+    /**
+     * The office processes converting the large documents, apart from the ones of
+     * {@code jodconverter.local} that convert the small ones, see {@link OfficePools}.
+     */
+    public static class Pools {
+
+        /** Size of the input documents from which they are converted by the large pool. */
+        private DataSize largeThreshold = DataSize.ofMegabytes(5);
+
+        /** Extensions of the input documents converted by the large pool whatever their size. */
+        private List<String> largeFormats = new ArrayList<>();
+
+        /**
+         * Whether small documents are converted by an idle process of the large pool when all the
+         * processes of the small pool are busy. Large documents never use the small pool.
+         */
+        private boolean overflow = true;
+
+        /** Ports of the office processes of the large pool, no large pool if empty. */
+        private int[] portNumbers = new int[0];
+
+        /** Number of tasks a process of the large pool executes before restarting. */
+        private int maxTasksPerProcess = 5;
+
+        /** Longest time a process of the large pool may work on a task. */
+        private Duration taskExecutionTimeout = Duration.ofMinutes(10);
+
+        /** Longest time a task waits for a process of the large pool. */
+        private Duration taskQueueTimeout = Duration.ofMinutes(10);
+
+        public DataSize getLargeThreshold() {
+            return largeThreshold;
+        }
+
+        public void setLargeThreshold(final DataSize largeThreshold) {
+            this.largeThreshold = largeThreshold;
+        }
+
+        public List<String> getLargeFormats() {
+            return largeFormats;
+        }
+
+        public void setLargeFormats(final List<String> largeFormats) {
+            this.largeFormats = largeFormats;
+        }
+
+        public boolean isOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(final boolean overflow) {
+            this.overflow = overflow;
+        }
+
+        public int[] getPortNumbers() {
+            return portNumbers;
+        }
+
+        public void setPortNumbers(final int[] portNumbers) {
+            this.portNumbers = portNumbers;
+        }
+
+        public int getMaxTasksPerProcess() {
+            return maxTasksPerProcess;
+        }
+
+        public void setMaxTasksPerProcess(final int maxTasksPerProcess) {
+            this.maxTasksPerProcess = maxTasksPerProcess;
+        }
+
+        public Duration getTaskExecutionTimeout() {
+            return taskExecutionTimeout;
+        }
+
+        public void setTaskExecutionTimeout(final Duration taskExecutionTimeout) {
+            this.taskExecutionTimeout = taskExecutionTimeout;
+        }
+
+        public Duration getTaskQueueTimeout() {
+            return taskQueueTimeout;
+        }
+
+        public void setTaskQueueTimeout(final Duration taskQueueTimeout) {
+            this.taskQueueTimeout = taskQueueTimeout;
+        }
+    }
+
+    /** The priority lanes in front of the office processes, see {@link PriorityLanes}. */
+    public static class Lanes {
+
+        /** Whether tasks wait in their lane for an office process, instead of in the office manager queue. */
+        private boolean enabled;
+
+        /** Lane of the conversions that don't tell their priority. */
+        private PriorityLanes.Lane defaultLane = PriorityLanes.Lane.INTERACTIVE;
+
+        /** Number of interactive tasks started in a row while bulk tasks wait, after which a bulk task starts. */
+        private int interactiveStreak = 4;
+
+        /** Number of interactive tasks waiting for an office process above which new ones are rejected. */
+        private int interactiveQueueCapacity = 100;
+
+        /** Number of bulk tasks waiting for an office process above which new ones are rejected. */
+        private int bulkQueueCapacity = 100;
+
+        /** Delay suggested to the clients whose conversion is rejected before they send it again. */
+        private Duration retryAfter = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public PriorityLanes.Lane getDefaultLane() {
+            return defaultLane;
+        }
+
+        public void setDefaultLane(final PriorityLanes.Lane defaultLane) {
+            this.defaultLane = defaultLane;
+        }
+
+        public int getInteractiveStreak() {
+            return interactiveStreak;
+        }
+
+        public void setInteractiveStreak(final int interactiveStreak) {
+            this.interactiveStreak = interactiveStreak;
+        }
+
+        public int getInteractiveQueueCapacity() {
+            return interactiveQueueCapacity;
+        }
+
+        public void setInteractiveQueueCapacity(final int interactiveQueueCapacity) {
+            this.interactiveQueueCapacity = interactiveQueueCapacity;
+        }
+
+        public int getBulkQueueCapacity() {
+            return bulkQueueCapacity;
+        }
+
+        public void setBulkQueueCapacity(final int bulkQueueCapacity) {
+            this.bulkQueueCapacity = bulkQueueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(final Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+}
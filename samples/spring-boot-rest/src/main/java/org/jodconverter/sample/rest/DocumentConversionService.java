@@ -0,0 +1,325 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts documents of the work directory. Conversions already done are served from the
+ * {@link ConversionCache} without involving the office manager; the others are executed by an
+ * office process, through the custom filters of this sample: the ones of the family of the
+ * document that apply to the target format, see {@link DocumentFamilyFilter} and
+ * {@link ConditionalFilter}. Identical conversions requested at the same time share a single
+ * office task, and so do the conversions of one document to several formats. Each filter of the
+ * chain is measured, see {@link MeteredFilter}, and what they read from the document is shared
+ * between them, see {@link DocumentProfile}. Large documents are converted by their own office
+ * processes, see {@link OfficePools}.
+ */
+@Service
+public class DocumentConversionService {
+
+    private static final Filter PROFILE_FILTER = new DocumentProfileFilter();
+
+    private final OfficePools officePools;
+    private final SheetExecutor sheetExecutor;
+    private final DocumentFamilyFilter filters;
+    private final ConversionCache cache;
+    private final SingleFlight<ConversionKey> flights;
+    private final LocalConverterCache converters;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates a new service.
+     *
+     * @param officeManager The manager used to execute the conversions of small documents.
+     * @param cache         The store of converted documents.
+     * @param properties    The settings telling whether identical conversions are coalesced, how
+     *                      many prebuilt converters are kept, how sheets are processed, which
+     *                      documents are converted by the large pool and in which order.
+     * @param meterRegistry The registry of the metrics of the filters and of the document sizes.
+     * @param environment   The environment holding the settings of the office manager, which the
+     *                      large pool shares.
+     */
+    @Autowired
+    public DocumentConversionService(
+            final OfficeManager officeManager,
+            final ConversionCache cache,
+            final ConverterProperties properties,
+            final MeterRegistry meterRegistry,
+            final Environment environment) {
+        this(OfficePools.create(officeManager, environment, properties, meterRegistry),
+                cache, properties, meterRegistry);
+    }
+
+    /**
+     * Creates a new service executing the conversions with a single office process, unless the
+     * properties configure a large pool.
+     *
+     * @param officeManager The manager used to execute the conversions of small documents.
+     * @param cache         The store of converted documents.
+     * @param properties    The settings of the service.
+     * @param meterRegistry The registry of the metrics of the filters and of the document sizes.
+     */
+    public DocumentConversionService(
+            final OfficeManager officeManager,
+            final ConversionCache cache,
+            final ConverterProperties properties,
+            final MeterRegistry meterRegistry) {
+        this(OfficePools.create(officeManager, 1, AbstractOfficeManagerPool.DEFAULT_TASK_QUEUE_TIMEOUT,
+                        LocalOfficeManager.builder(), properties, meterRegistry),
+                cache, properties, meterRegistry);
+    }
+
+    /* default */ DocumentConversionService(
+            final OfficePools officePools,
+            final ConversionCache cache,
+            final ConverterProperties properties,
+            final MeterRegistry meterRegistry) {
+        super();
+
+        this.officePools = officePools;
+        this.cache = cache;
+        this.flights = properties.isCoalesceConversions() ? new SingleFlight<>() : null;
+        this.sheetExecutor = new SheetExecutor(properties.getSheets());
+        sheetExecutor.bindTo(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.filters = new DocumentFamilyFilter(createFilters(meterRegistry, sheetExecutor));
+        this.converters = new LocalConverterCache(
+                officePools,
+                properties.getPrebuiltConverters(),
+                request -> profiled(filters.getFilters(request.getSourceFamily(), request::appliesFilter)));
+    }
+
+    /**
+     * Creates the filters of each family of documents, stateless so they are shared by all the
+     * converters.
+     */
+    private static Map<DocumentFamily, Filter[]> createFilters(
+            final MeterRegistry meterRegistry, final SheetExecutor sheetExecutor) {
+        return Map.of(
+                DocumentFamily.SPREADSHEET, MeteredFilter.meter(meterRegistry, DocumentFamily.SPREADSHEET,
+                        new ExcelNumberFormatFilter(), new ExcelSinglePageFilter(sheetExecutor)),
+                DocumentFamily.TEXT, MeteredFilter.meter(meterRegistry, DocumentFamily.TEXT,
+                        new WordFrameFilter()),
+                DocumentFamily.PRESENTATION, MeteredFilter.meter(meterRegistry, DocumentFamily.PRESENTATION,
+                        new PptPageResizeFilter()));
+    }
+
+    /**
+     * Puts a {@link DocumentProfileFilter} in front of filters, so that they share what they read
+     * from the document and it is logged once per conversion.
+     */
+    private static Filter[] profiled(final Filter[] filters) {
+        if (filters.length == 0) {
+            return filters;
+        }
+        final Filter[] profiled = new Filter[filters.length + 1];
+        profiled[0] = PROFILE_FILTER;
+        System.arraycopy(filters, 0, profiled, 1, filters.length);
+        return profiled;
+    }
+
+    /**
+     * Converts a document.
+     *
+     * @param request    The conversion to execute.
+     * @param outputFile The file receiving the converted document.
+     * @throws OfficeException If the conversion fails.
+     * @throws IOException     If a document cannot be read or written.
+     */
+    public void convert(final ConversionRequest request, final File outputFile)
+            throws OfficeException, IOException {
+
+        if (!cache.isEnabled() && flights == null) {
+            execute(request, outputFile);
+            return;
+        }
+
+        final ConversionKey key = ConversionKey.of(request);
+        if (cache.get(key, outputFile)) {
+            return;
+        }
+        if (flights == null) {
+            executeAndCache(key, request, outputFile);
+        } else {
+            flights.execute(key, outputFile, file -> executeAndCache(key, request, file));
+        }
+    }
+
+    /**
+     * Converts a document to several formats. The formats not found in the cache are converted by
+     * a single office task per set of filters applying to them, so the document is loaded and
+     * filtered once whatever the number of formats sharing the same filters.
+     *
+     * @param requests    The conversions to execute, all with the same input document and
+     *                    properties but a different target format.
+     * @param outputFiles The files receiving the converted documents, in the order of the requests.
+     * @throws OfficeException If a conversion fails.
+     * @throws IOException     If a document cannot be read or written.
+     */
+    public void convertAll(final List<ConversionRequest> requests, final List<File> outputFiles)
+            throws OfficeException, IOException {
+
+        Assert.isTrue(requests.size() == outputFiles.size(), "Each request must have an output file");
+        Assert.isTrue(
+                requests.stream().map(ConversionRequest::getInputFile).distinct().count() == 1,
+                "The requests must share the same input document");
+
+        final List<ConversionKey> keys = cache.isEnabled() ? ConversionKey.of(requests) : null;
+        final List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (keys == null || !cache.get(keys.get(i), outputFiles.get(i))) {
+                missing.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // The formats applying different filters are converted by separate tasks, so that each
+        // converted document, cached under its single format key, went through its own filters.
+        final DocumentFamily family = requests.get(0).getSourceFamily();
+        final Map<List<Filter>, List<Integer>> groups = new LinkedHashMap<>();
+        for (final int i : missing) {
+            groups.computeIfAbsent(List.of(filters.getFilters(family, requests.get(i)::appliesFilter)),
+                    selection -> new ArrayList<>()).add(i);
+        }
+        for (final Map.Entry<List<Filter>, List<Integer>> group : groups.entrySet()) {
+            executeAll(requests, outputFiles, group.getValue(), group.getKey().toArray(new Filter[0]));
+        }
+
+        if (keys != null) {
+            for (final int i : missing) {
+                cache.put(keys.get(i), outputFiles.get(i));
+            }
+        }
+    }
+
+    private void executeAll(
+            final List<ConversionRequest> requests,
+            final List<File> outputFiles,
+            final List<Integer> missing,
+            final Filter[] selectedFilters) throws OfficeException {
+
+        final ConversionRequest first = requests.get(missing.get(0));
+        final List<TargetDocumentSpecs> targets = new ArrayList<>(missing.size());
+        for (final int i : missing) {
+            targets.add(
+                    MultiFormatConversionTask.target(outputFiles.get(i), requests.get(i).getTargetFormat()));
+        }
+        final String source = getExtension(first.getInputFile());
+        final String target = missing.size() == 1
+                ? first.getTargetFormat().getExtension()
+                : InstrumentedOfficeManager.MULTI;
+        inScope(first, source, target, () -> officePools.execute(new MultiFormatConversionTask(
+                MultiFormatConversionTask.source(first.getInputFile()),
+                targets,
+                first.getLoadProperties(),
+                first.getStoreProperties(),
+                new DefaultFilterChain(profiled(selectedFilters)))));
+        InstrumentedOfficeManager.recordSizes(meterRegistry, source, target, first.getInputFile().length(),
+                missing.stream().mapToLong(i -> outputFiles.get(i).length()).sum());
+    }
+
+    /**
+     * Gets the time the filters spent processing the sheets of spreadsheets, serially and in
+     * parallel.
+     *
+     * @return The statistics.
+     */
+    public SheetExecutor.Stats getSheetStats() {
+        return sheetExecutor.getStats();
+    }
+
+    /**
+     * Starts the office processes of the large pool, if any.
+     *
+     * @throws OfficeException If they cannot be started.
+     */
+    @PostConstruct
+    public void start() throws OfficeException {
+        officePools.start();
+    }
+
+    /**
+     * Stops the threads processing the sheets of spreadsheets and the office processes of the
+     * large pool.
+     *
+     * @throws OfficeException If the office processes cannot be stopped.
+     */
+    @PreDestroy
+    public void shutdown() throws OfficeException {
+        sheetExecutor.shutdown();
+        officePools.stop();
+    }
+
+    /* default */ SingleFlight<ConversionKey> getFlights() {
+        return flights;
+    }
+
+    private void executeAndCache(final ConversionKey key, final ConversionRequest request, final File outputFile)
+            throws OfficeException, IOException {
+        execute(request, outputFile);
+        cache.put(key, outputFile);
+    }
+
+    private void execute(final ConversionRequest request, final File outputFile) throws OfficeException {
+        final String source = getExtension(request.getInputFile());
+        final String target = request.getTargetFormat().getExtension();
+        inScope(request, source, target, () -> converters.get(request)
+                .convert(request.getInputFile())
+                .to(outputFile)
+                .as(request.getTargetFormat())
+                .execute());
+        InstrumentedOfficeManager.recordSizes(
+                meterRegistry, source, target, request.getInputFile().length(), outputFile.length());
+    }
+
+    /**
+     * Runs a conversion with its office tasks tagged with its formats and routed by its input
+     * document, see {@link InstrumentedOfficeManager#formats(String, String)} and
+     * {@link OfficePools#route(long, String, PriorityLanes.Lane)}.
+     */
+    private static void inScope(
+            final ConversionRequest request,
+            final String source,
+            final String target,
+            final Conversion conversion) throws OfficeException {
+        final InstrumentedOfficeManager.Scope formats = InstrumentedOfficeManager.formats(source, target);
+        final OfficePools.Scope route = OfficePools.route(request.getInputFile().length(), source, request.getLane());
+        try (formats; route) {
+            conversion.run();
+        }
+    }
+
+    private static String getExtension(final File file) {
+        return FilenameUtils.getExtension(file.getName()).toLowerCase(Locale.ROOT);
+    }
+
+    /** A conversion executing office tasks. */
+    @FunctionalInterface
+    private interface Conversion {
+        void run() throws OfficeException;
+    }
+}
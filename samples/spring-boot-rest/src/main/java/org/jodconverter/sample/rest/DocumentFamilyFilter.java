@@ -0,0 +1,193 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.filter.FilterChain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static com.sun.star.uno.UnoRuntime.queryInterface;
+
+/**
+ * Routes documents to the filters of their family. Each filter of this sample applies to a single
+ * family of documents and checks the family itself, a UNO round trip per filter and per document
+ * even though the other filters don't apply; this filter finds the family once, in a single UNO
+ * call, and only runs the filters registered for it before handing the document over to the rest
+ * of the chain.
+ *
+ * <p>Often the family is known before the document is even loaded, from the format of the input
+ * file: {@link #getFilters(DocumentFamily)} then gives the filters of that family alone, so that
+ * converters apply them without detecting anything. The filters still check the document they
+ * get, so a document whose content doesn't match its extension only misses the filters of its
+ * actual family.
+ *
+ * <p>Filters that don't apply to a conversion, for its target format or because the client
+ * switched them off, are left out of the routes given to its converter, see
+ * {@link #getFilters(DocumentFamily, Predicate)}.
+ */
+public class DocumentFamilyFilter implements Filter {
+
+    private static final Filter[] NO_FILTERS = {};
+
+    /** The families of the documents being filtered, found once for all the filters of a chain. */
+    private static final Map<XComponent, DocumentFamily> FAMILIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** The services telling the family of a document, in the order they are checked. */
+    private static final List<Map.Entry<String, DocumentFamily>> SERVICES = List.of(
+            Map.entry("com.sun.star.sheet.SpreadsheetDocument", DocumentFamily.SPREADSHEET),
+            Map.entry("com.sun.star.text.GenericTextDocument", DocumentFamily.TEXT),
+            Map.entry("com.sun.star.presentation.PresentationDocument", DocumentFamily.PRESENTATION),
+            Map.entry("com.sun.star.drawing.DrawingDocument", DocumentFamily.DRAWING));
+
+    private final Map<DocumentFamily, Filter[]> routes = new EnumMap<>(DocumentFamily.class);
+
+    /** The copies of this filter leaving some filters out, by the filters they leave out. */
+    private final Map<List<Filter>, DocumentFamilyFilter> selections = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new filter.
+     *
+     * @param routes The filters of each family of documents, in the order they are applied.
+     *               Documents of other families only go through the rest of the chain.
+     */
+    public DocumentFamilyFilter(final Map<DocumentFamily, Filter[]> routes) {
+        routes.forEach((family, filters) -> this.routes.put(family, filters.clone()));
+    }
+
+    /**
+     * Gets the filters to apply to documents of a family.
+     *
+     * @param family The family of the documents, known from their format, or null if it is unknown
+     *               until they are loaded.
+     * @return The filters of the family, or this filter if the family is unknown.
+     */
+    public Filter[] getFilters(final DocumentFamily family) {
+        if (family == null) {
+            return new Filter[]{this};
+        }
+        return routes.getOrDefault(family, NO_FILTERS).clone();
+    }
+
+    /**
+     * Gets the filters to apply to documents of a family, leaving out the filters that don't apply
+     * to a conversion.
+     *
+     * @param family  The family of the documents, known from their format, or null if it is unknown
+     *                until they are loaded.
+     * @param applies Tells whether a filter applies to the conversion.
+     * @return The filters of the family that apply, or a filter routing documents to them if the
+     * family is unknown.
+     */
+    public Filter[] getFilters(final DocumentFamily family, final Predicate<Filter> applies) {
+        if (family != null) {
+            return Arrays.stream(getFilters(family)).filter(applies).toArray(Filter[]::new);
+        }
+        final List<Filter> excluded = new ArrayList<>();
+        routes.values().forEach(filters -> Arrays.stream(filters).filter(applies.negate()).forEach(excluded::add));
+        if (excluded.isEmpty()) {
+            return new Filter[]{this};
+        }
+        // Bounded by the number of subsets of the filters; in practice a handful of them.
+        return new Filter[]{selections.computeIfAbsent(excluded, filters -> {
+            final Map<DocumentFamily, Filter[]> selected = new EnumMap<>(DocumentFamily.class);
+            routes.forEach((routeFamily, route) -> selected.put(routeFamily,
+                    Arrays.stream(route).filter(filter -> !filters.contains(filter)).toArray(Filter[]::new)));
+            return new DocumentFamilyFilter(selected);
+        })};
+    }
+
+    /**
+     * Gets the family of a loaded document, reading it from the office process the first time
+     * only.
+     *
+     * @param document The document.
+     * @return The family, or null if the document belongs to none of the families of documents.
+     */
+    public static DocumentFamily getFamily(final XComponent document) {
+        final DocumentFamily known = FAMILIES.get(document);
+        if (known != null) {
+            return known;
+        }
+        final DocumentFamily family = readFamily(document);
+        if (family != null) {
+            FAMILIES.put(document, family);
+        }
+        return family;
+    }
+
+    private static DocumentFamily readFamily(final XComponent document) {
+        final XServiceInfo serviceInfo = queryInterface(XServiceInfo.class, document);
+        if (serviceInfo == null) {
+            return null;
+        }
+        final List<String> names = Arrays.asList(serviceInfo.getSupportedServiceNames());
+        for (final Map.Entry<String, DocumentFamily> service : SERVICES) {
+            if (names.contains(service.getKey())) {
+                return service.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void doFilter(final OfficeContext context, final XComponent document, final FilterChain chain)
+            throws Exception {
+        final Filter[] filters = routes.get(getFamily(document));
+        if (filters == null || filters.length == 0) {
+            chain.doFilter(context, document);
+        } else {
+            new Route(filters, chain).doFilter(context, document);
+        }
+    }
+
+    /** The filters of a family a document goes through, followed by the rest of the chain. */
+    private static final class Route implements FilterChain {
+
+        private final Filter[] filters;
+        private final FilterChain chain;
+        private int position;
+
+        private Route(final Filter[] filters, final FilterChain chain) {
+            this.filters = filters;
+            this.chain = chain;
+        }
+
+        @Override
+        public void doFilter(final OfficeContext context, final XComponent document) throws OfficeException {
+            if (position == filters.length) {
+                chain.doFilter(context, document);
+                return;
+            }
+            final Filter filter = filters[position++];
+            try {
+                filter.doFilter(context, document, this);
+            } catch (OfficeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new OfficeException("Could not apply filter " + filter.getClass().getName(), e);
+            }
+        }
+
+        @Override
+        public void addFilter(final Filter filter) {
+            chain.addFilter(filter);
+        }
+
+        @Override
+        public FilterChain copy() {
+            return new Route(filters, chain.copy());
+        }
+    }
+}
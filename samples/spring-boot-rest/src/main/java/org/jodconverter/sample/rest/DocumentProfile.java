@@ -0,0 +1,232 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.awt.Size;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.lang.XComponent;
+import com.sun.star.sheet.XSpreadsheets;
+import com.sun.star.table.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sun.star.uno.UnoRuntime.queryInterface;
+
+/**
+ * What the filters of a conversion know about its document: the names and visibility of its
+ * sheets, the used area and the extent of the shapes of each sheet, its number of slides and of
+ * text frames. Each part is read from the office process once, by the first filter needing it;
+ * the next filters of the conversion get it from here instead of making the same UNO calls again.
+ *
+ * <p>A profile lives as long as its conversion, see {@link DocumentProfileFilter}, which logs it
+ * as a single record once the filters are done. A filter applied outside of a conversion, such as
+ * in tests, gets a new profile every time.
+ */
+public final class DocumentProfile {
+
+    /** The profiles of the documents being converted, by document. */
+    private static final Map<Object, DocumentProfile> PROFILES = new ConcurrentHashMap<>();
+
+    private final Map<String, CellRangeAddress> usedAreas = new ConcurrentHashMap<>();
+    private final Map<String, Size> shapeExtents = new ConcurrentHashMap<>();
+    private List<Sheet> sheets; // Guarded by this.
+    private volatile int slideCount = -1;
+    private volatile int frameCount = -1;
+
+    /**
+     * Gets the profile of a document.
+     *
+     * @param document The document, as filters receive it.
+     * @return The profile of the conversion of the document, or a new profile if the document is
+     * not being converted by a chain starting with a {@link DocumentProfileFilter}.
+     */
+    public static DocumentProfile of(final XComponent document) {
+        final DocumentProfile profile = PROFILES.get(UnoCallCounter.unwrap(document));
+        return profile == null ? new DocumentProfile() : profile;
+    }
+
+    /* default */ static DocumentProfile open(final XComponent document) {
+        final DocumentProfile profile = new DocumentProfile();
+        PROFILES.put(UnoCallCounter.unwrap(document), profile);
+        return profile;
+    }
+
+    /* default */ static void close(final XComponent document) {
+        PROFILES.remove(UnoCallCounter.unwrap(document));
+    }
+
+    /**
+     * Gets the sheets of a spreadsheet, reading their names and visibility the first time only.
+     *
+     * @param spreadsheets The sheets of the document.
+     * @return The sheets, in the order of the document.
+     * @throws com.sun.star.uno.Exception If the sheets cannot be read.
+     */
+    public synchronized List<Sheet> getSheets(final XSpreadsheets spreadsheets) throws com.sun.star.uno.Exception {
+        if (sheets == null) {
+            final String[] names = spreadsheets.getElementNames();
+            final List<Sheet> read = new ArrayList<>(names.length);
+            for (final String name : names) {
+                final XPropertySet sheetProps = queryInterface(XPropertySet.class, spreadsheets.getByName(name));
+                read.add(new Sheet(name, (boolean) sheetProps.getPropertyValue("IsVisible")));
+            }
+            sheets = Collections.unmodifiableList(read);
+        }
+        return sheets;
+    }
+
+    /**
+     * Gets the used area of a sheet, reading it the first time only.
+     *
+     * @param sheetName The name of the sheet.
+     * @param reader    Reads the used area from the office process.
+     * @return The address of the range from the first cell of the sheet to its last used one, a
+     * copy the caller may change.
+     * @throws com.sun.star.uno.Exception If the used area cannot be read.
+     */
+    public CellRangeAddress getUsedArea(final String sheetName, final Reader<CellRangeAddress> reader)
+            throws com.sun.star.uno.Exception {
+        CellRangeAddress usedArea = usedAreas.get(sheetName);
+        if (usedArea == null) {
+            usedArea = reader.read();
+            usedAreas.put(sheetName, copy(usedArea));
+        }
+        return copy(usedArea);
+    }
+
+    /**
+     * Records how far the shapes of a page reach, from its top left corner.
+     *
+     * @param pageName The name of the sheet or page.
+     * @param extent   The extent of the shapes.
+     */
+    public void setShapeExtent(final String pageName, final Size extent) {
+        shapeExtents.put(pageName, new Size(extent.Width, extent.Height));
+    }
+
+    /**
+     * Gets how far the shapes of a page reach, if a filter measured them.
+     *
+     * @param pageName The name of the sheet or page.
+     * @return The extent of the shapes, or null if they were not measured.
+     */
+    public Size getShapeExtent(final String pageName) {
+        final Size extent = shapeExtents.get(pageName);
+        return extent == null ? null : new Size(extent.Width, extent.Height);
+    }
+
+    /**
+     * Records the number of slides of a presentation.
+     *
+     * @param slideCount The number of slides.
+     */
+    public void setSlideCount(final int slideCount) {
+        this.slideCount = slideCount;
+    }
+
+    /**
+     * Gets the number of slides of a presentation, if a filter counted them.
+     *
+     * @return The number of slides, or -1 if they were not counted.
+     */
+    public int getSlideCount() {
+        return slideCount;
+    }
+
+    /**
+     * Records the number of text frames of a text document.
+     *
+     * @param frameCount The number of frames.
+     */
+    public void setFrameCount(final int frameCount) {
+        this.frameCount = frameCount;
+    }
+
+    /**
+     * Gets the number of text frames of a text document, if a filter counted them.
+     *
+     * @return The number of frames, or -1 if they were not counted.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Renders the known parts of the profile as "key=value" pairs, sheets in the order of the
+     * document and pages by name, for instance
+     * {@code sheets=[Data, Notes(hidden)] usedAreas={Data=A1:AE99001} shapeExtents={Data=30000x12000}}.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        final List<Sheet> knownSheets;
+        synchronized (this) {
+            knownSheets = sheets;
+        }
+        if (knownSheets != null) {
+            builder.append(" sheets=").append(knownSheets);
+        }
+        if (!usedAreas.isEmpty()) {
+            final Map<String, String> areas = new TreeMap<>();
+            usedAreas.forEach((name, area) -> areas.put(name, toA1(area)));
+            builder.append(" usedAreas=").append(areas);
+        }
+        if (!shapeExtents.isEmpty()) {
+            final Map<String, String> extents = new TreeMap<>();
+            shapeExtents.forEach((name, extent) -> extents.put(name, extent.Width + "x" + extent.Height));
+            builder.append(" shapeExtents=").append(extents);
+        }
+        if (slideCount >= 0) {
+            builder.append(" slides=").append(slideCount);
+        }
+        if (frameCount >= 0) {
+            builder.append(" frames=").append(frameCount);
+        }
+        return builder.length() == 0 ? "empty" : builder.substring(1);
+    }
+
+    private static CellRangeAddress copy(final CellRangeAddress address) {
+        return new CellRangeAddress(
+                address.Sheet, address.StartColumn, address.StartRow, address.EndColumn, address.EndRow);
+    }
+
+    private static String toA1(final CellRangeAddress address) {
+        return toColumnName(address.StartColumn) + (address.StartRow + 1)
+                + ':' + toColumnName(address.EndColumn) + (address.EndRow + 1);
+    }
+
+    private static String toColumnName(final int column) {
+        final StringBuilder name = new StringBuilder();
+        for (int remaining = column + 1; remaining > 0; remaining = (remaining - 1) / 26) {
+            name.insert(0, (char) ('A' + (remaining - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    /**
+     * A sheet of a spreadsheet.
+     *
+     * @param name    The name of the sheet.
+     * @param visible Whether the sheet is visible; hidden sheets are not printed.
+     */
+    public record Sheet(String name, boolean visible) {
+
+        @Override
+        public String toString() {
+            return visible ? name : name + "(hidden)";
+        }
+    }
+
+    /**
+     * Reads a part of a profile from the office process.
+     *
+     * @param <T> The type of the part.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read() throws com.sun.star.uno.Exception;
+    }
+}
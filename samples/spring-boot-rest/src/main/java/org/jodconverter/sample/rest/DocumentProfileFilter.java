@@ -0,0 +1,28 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XComponent;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.filter.FilterChain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens the {@link DocumentProfile} of each document for the filters after it in the chain, and
+ * logs it as a single record once they are all done. It must come first in the chain, and is
+ * stateless so a single instance serves all the conversions.
+ */
+public class DocumentProfileFilter implements Filter {
+    private static final Logger log = LoggerFactory.getLogger(DocumentProfileFilter.class);
+
+    @Override
+    public void doFilter(OfficeContext context, XComponent document, FilterChain chain) throws Exception {
+        DocumentProfile profile = DocumentProfile.open(document);
+        try {
+            chain.doFilter(context, document);
+        } finally {
+            DocumentProfile.close(document);
+            log.info("Document profile: {}", profile);
+        }
+    }
+}
@@ -1,19 +1,19 @@
 package org.jodconverter.sample.rest;
 
-import com.sun.star.beans.PropertyVetoException;
-import com.sun.star.beans.UnknownPropertyException;
 import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XIndexAccess;
 import com.sun.star.lang.Locale;
-import com.sun.star.lang.WrappedTargetException;
 import com.sun.star.lang.XComponent;
-import com.sun.star.sheet.XCellRangeAddressable;
-import com.sun.star.sheet.XSheetCellCursor;
+import com.sun.star.sheet.CellFlags;
+import com.sun.star.sheet.XCellRangeData;
+import com.sun.star.sheet.XCellRangesQuery;
+import com.sun.star.sheet.XSheetCellRanges;
 import com.sun.star.sheet.XSpreadsheet;
 import com.sun.star.sheet.XSpreadsheetDocument;
-import com.sun.star.sheet.XUsedAreaCursor;
-import com.sun.star.table.CellContentType;
+import com.sun.star.sheet.XSpreadsheets;
+import com.sun.star.sheet.XUniqueCellFormatRangesSupplier;
 import com.sun.star.table.CellRangeAddress;
-import com.sun.star.table.XCell;
+import com.sun.star.table.XCellRange;
 import com.sun.star.uno.AnyConverter;
 import com.sun.star.util.MalformedNumberFormatException;
 import com.sun.star.util.XNumberFormats;
@@ -25,15 +25,39 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
-import static com.sun.star.table.CellContentType.FORMULA;
-import static com.sun.star.table.CellContentType.VALUE;
 import static com.sun.star.uno.UnoRuntime.queryInterface;
-import static java.math.BigDecimal.valueOf;
 
+/**
+ * Changes the "General" number format of the numeric cells of spreadsheets whose values would be
+ * displayed with too many digits, see {@link #getNewFormat(double)}.
+ *
+ * <p>Visiting every cell of the used area took several UNO calls per cell, so the filter works on
+ * cell ranges instead: the cells of a sheet are grouped by format (the unique cell format ranges),
+ * only the groups in a General format are kept and, in those, only the value and formula cells.
+ * Their values are read one range at a time and the new formats are set on runs of adjacent cells.
+ * Number formats and the keys of the new formats are looked up once per document.
+ */
 public class ExcelNumberFormatFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(ExcelNumberFormatFilter.class);
 
+    private static final String GENERAL_FORMAT = "General";
+    private static final String SCIENTIFIC_FORMAT = "0.#####E+00";
+    private static final short NUMERIC_CELLS = CellFlags.VALUE | CellFlags.FORMULA;
+    private static final double[] POWERS_OF_TEN = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11};
+
+    /** The formats of decimals keeping 10 digits, by number of fraction digits kept. */
+    private static final String[] DECIMAL_FORMATS = new String[10];
+
+    static {
+        for (int i = 0; i < DECIMAL_FORMATS.length; i++) {
+            DECIMAL_FORMATS[i] = "0." + "#".repeat(i);
+        }
+    }
+
     @Override
     public void doFilter(OfficeContext context, XComponent document, FilterChain chain) throws Exception {
         XSpreadsheetDocument xSpreadsheetDocument = queryInterface(XSpreadsheetDocument.class, document);
@@ -42,52 +66,90 @@ public class ExcelNumberFormatFilter implements Filter {
             return;
         }
 
-        String[] sheetNames = xSpreadsheetDocument.getSheets().getElementNames();
+        XSpreadsheets sheets = xSpreadsheetDocument.getSheets();
         XNumberFormatsSupplier xNumberFormatsSupplier = queryInterface(XNumberFormatsSupplier.class, xSpreadsheetDocument);
-        XNumberFormats xNumberFormats = xNumberFormatsSupplier.getNumberFormats();
-        for (String sheetName : sheetNames) {
-            XSpreadsheet sheet = queryInterface(XSpreadsheet.class, xSpreadsheetDocument.getSheets().getByName(sheetName));
-            if (isSheetVisible(sheet)) {
-                processSheet(sheet, xNumberFormats);
+        NumberFormats numberFormats = new NumberFormats(xNumberFormatsSupplier.getNumberFormats());
+        for (DocumentProfile.Sheet sheetProfile : DocumentProfile.of(document).getSheets(sheets)) {
+            if (!sheetProfile.visible()) {
+                continue;
+            }
+            String sheetName = sheetProfile.name();
+            try {
+                XSpreadsheet sheet = queryInterface(XSpreadsheet.class, sheets.getByName(sheetName));
+                int changedCells = processSheet(sheet, numberFormats);
+                log.debug("Sheet: {} number format changed for {} cells", sheetName, changedCells);
+            } catch (Exception e) {
+                log.error("Error processing sheet: {}", sheetName, e);
             }
         }
 
         chain.doFilter(context, document);
     }
 
-    private void processSheet(XSpreadsheet sheet, XNumberFormats xNumberFormats) throws Exception {
-        XSheetCellCursor cursor = sheet.createCursor();
-        XUsedAreaCursor usedAreaCursor = queryInterface(XUsedAreaCursor.class, cursor);
-        usedAreaCursor.gotoEndOfUsedArea(true);
+    private int processSheet(XSpreadsheet sheet, NumberFormats numberFormats) throws Exception {
+        XUniqueCellFormatRangesSupplier formatRangesSupplier =
+                queryInterface(XUniqueCellFormatRangesSupplier.class, sheet);
+        XIndexAccess formatGroups = formatRangesSupplier.getUniqueCellFormatRanges();
 
-        CellRangeAddress rangeAddress = getCellRangeAddress(usedAreaCursor);
+        int changedCells = 0;
+        for (int i = 0; i < formatGroups.getCount(); i++) {
+            XSheetCellRanges group = queryInterface(XSheetCellRanges.class, formatGroups.getByIndex(i));
+            int key = AnyConverter.toInt(queryInterface(XPropertySet.class, group).getPropertyValue("NumberFormat"));
+            NumberFormat numberFormat = numberFormats.get(key);
+            if (!GENERAL_FORMAT.equals(numberFormat.formatString())) {
+                continue;
+            }
 
-        for (int col = 0; col <= rangeAddress.EndColumn; col++) {
-            for (int row = 0; row <= rangeAddress.EndRow; row++) {
-                XCell cell = sheet.getCellByPosition(col, row);
-                processCell(cell, xNumberFormats);
+            XSheetCellRanges numericCells = queryInterface(XCellRangesQuery.class, group).queryContentCells(NUMERIC_CELLS);
+            for (CellRangeAddress address : numericCells.getRangeAddresses()) {
+                changedCells += processRange(sheet, address, numberFormat.locale(), numberFormats);
             }
         }
+        return changedCells;
     }
 
-    private void processCell(XCell cell, XNumberFormats xNumberFormats) {
-        try {
-            CellContentType cellType = cell.getType();
-            if (cellType == VALUE || cellType == FORMULA) {
-                XPropertySet cellProps = queryInterface(XPropertySet.class, cell);
-                int key = AnyConverter.toInt(cellProps.getPropertyValue("NumberFormat"));
-                XPropertySet numberFormat = xNumberFormats.getByKey(key);
-                Locale locale = (Locale) numberFormat.getPropertyValue("Locale");
-                String formatString = numberFormat.getPropertyValue("FormatString").toString();
+    /**
+     * Changes the format of the cells of a range in a General format, one row of the range at a
+     * time: adjacent cells needing the same format are changed at once.
+     */
+    private int processRange(XSpreadsheet sheet, CellRangeAddress address, Locale locale, NumberFormats numberFormats)
+            throws Exception {
+        XCellRange range = sheet.getCellRangeByPosition(
+                address.StartColumn, address.StartRow, address.EndColumn, address.EndRow);
+        Object[][] rows = queryInterface(XCellRangeData.class, range).getDataArray();
 
-                if (formatString.equals("General")) {
-                    BigDecimal cellValue = new BigDecimal(valueOf(cell.getValue()).stripTrailingZeros().toPlainString());
-                    handleGeneralFormat(cellProps, xNumberFormats, locale, cellValue);
+        int changedCells = 0;
+        for (int row = 0; row < rows.length; row++) {
+            int runStart = 0;
+            String runFormat = null;
+            for (int column = 0; column <= rows[row].length; column++) {
+                String newFormat = column < rows[row].length ? getNewFormat(rows[row][column]) : null;
+                if (Objects.equals(newFormat, runFormat)) {
+                    continue;
+                }
+                if (runFormat != null) {
+                    XPropertySet runProps = queryInterface(XPropertySet.class,
+                            range.getCellRangeByPosition(runStart, row, column - 1, row));
+                    runProps.setPropertyValue("NumberFormat", numberFormats.getKey(runFormat, locale));
+                    changedCells += column - runStart;
+                    log.debug("Changed format to {} for {} cells from column {}, row {}",
+                            runFormat, column - runStart, address.StartColumn + runStart, address.StartRow + row);
                 }
+                runStart = column;
+                runFormat = newFormat;
             }
-        } catch (Exception e) {
-            log.error("Error processing cell", e);
         }
+        return changedCells;
+    }
+
+    /**
+     * Gets the format a cell in a General format should have instead.
+     *
+     * @param value The value of the cell: a Double for numbers, a String for text.
+     * @return The new format, null to keep the current one.
+     */
+    /* default */ static String getNewFormat(Object value) {
+        return value instanceof Double ? getNewFormat((double) (Double) value) : null;
     }
 
     /**
@@ -99,70 +161,67 @@ public class ExcelNumberFormatFilter implements Filter {
      * <p>
      * else if 有小数点的，并且总位数>=11，则四舍五入
      * then 如果四舍五入后最后一位是0，则忽略0
+     * <p>
+     * The digits are those of the shortest decimal representing the value, as printed by
+     * {@link Double#toString(double)}. They are never materialized: every rule boils down to the
+     * integer digits of the value, which comparisons with powers of ten give, and to whether the
+     * value has a representation with at most a given number of fraction digits, which a multiply,
+     * a round and a divide tell. Nothing is allocated, where building a BigDecimal from the printed
+     * value and counting its digits took several strings and BigDecimals per cell.
+     *
+     * @param value The value of the cell.
+     * @return The new format, null to keep the current one.
      */
-    private void handleGeneralFormat(XPropertySet cellProps, XNumberFormats xNumberFormats, Locale locale, BigDecimal cellValue)
-            throws PropertyVetoException, WrappedTargetException, MalformedNumberFormatException, UnknownPropertyException {
-        boolean isInteger = isInteger(cellValue);
-        int totalDigits = getTotalDigits(cellValue);
-        int digitsBeforeDecimal = getDigitsBeforeDecimal(cellValue);
-        int digitsAfterDecimal = getDigitsAfterDecimal(cellValue);
-
-        if (digitsBeforeDecimal >= 12) {
-            applyScientificNotationFormat(cellProps, xNumberFormats, locale, cellValue);
-        } else if (cellValue.abs().compareTo(new BigDecimal("0.0001")) < 0 && totalDigits >= 11) {
-            applyScientificNotationFormat(cellProps, xNumberFormats, locale, cellValue);
-        } else if (!isInteger && totalDigits >= 11) {
-            applyDecimalFormat(cellProps, xNumberFormats, locale, cellValue, digitsAfterDecimal, totalDigits);
-        } else {
-            log.info("Not going to change format for: value={}, isInteger={}, total digits={}, digitsBeforeDecimal={}, digitsAfterDecimal={}",
-                    cellValue, isInteger, totalDigits, digitsBeforeDecimal, digitsAfterDecimal);
+    /* default */ static String getNewFormat(double value) {
+        double abs = Math.abs(value);
+        if (!Double.isFinite(abs) || abs == 0) {
+            return null;
         }
-    }
-
-    private void applyScientificNotationFormat(XPropertySet cellProps, XNumberFormats xNumberFormats, Locale locale,
-                                               BigDecimal cellValue)
-            throws PropertyVetoException, WrappedTargetException, UnknownPropertyException, MalformedNumberFormatException {
-        String newFormat = "0.#####E+00";
-        int newFormatID = addOrQueryFormat(xNumberFormats, newFormat, locale);
-        changeNumberFormat(cellProps, newFormatID);
-        log.info("Integer value with total digits >= 12. Changed format to {} for value={}", newFormat, cellValue);
-    }
-
-    private void applyDecimalFormat(XPropertySet cellProps, XNumberFormats xNumberFormats, Locale locale,
-                                    BigDecimal cellValue, int digitsAfterDecimal, int totalDigits)
-            throws MalformedNumberFormatException, PropertyVetoException, WrappedTargetException, UnknownPropertyException {
-        int zerosAfterDecimal = digitsAfterDecimal - (totalDigits - 10);
-        String newFormat = "0." + "#".repeat(Math.max(0, zerosAfterDecimal));
-        int newFormatID = addOrQueryFormat(xNumberFormats, newFormat, locale);
-        changeNumberFormat(cellProps, newFormatID);
-        log.info("Decimal value with total digits >= 11. Changed format to {} for value={}", newFormat, cellValue);
-    }
-
-    private int addOrQueryFormat(XNumberFormats xNumberFormats, String format, Locale locale)
-            throws MalformedNumberFormatException {
-        int formatID = xNumberFormats.queryKey(format, locale, false);
-        if (formatID == -1) {
-            formatID = xNumberFormats.addNew(format, locale);
+        if (abs >= 1e11) {
+            // At least 12 digits before the decimal point.
+            return SCIENTIFIC_FORMAT;
         }
-        return formatID;
-    }
-
-    private void changeNumberFormat(XPropertySet cellProps, int newNumFormat) throws
-            WrappedTargetException, UnknownPropertyException, PropertyVetoException {
-        log.info("before set:{}, new id: {}", cellProps.getPropertyValue("NumberFormat"), newNumFormat);
-        cellProps.setPropertyValue("NumberFormat", Integer.valueOf(newNumFormat));
-        log.info("after set format id:{}", cellProps.getPropertyValue("NumberFormat"));
+        if (abs < 1e-4) {
+            // 0.000...: the total digits are the fraction digits plus the leading 0.
+            return hasFractionDigitsAtMost(abs, 9) ? null : SCIENTIFIC_FORMAT;
+        }
+        if (abs == Math.rint(abs)) {
+            // An integer of at most 11 digits.
+            return null;
+        }
+        // Below 1 the leading 0 counts as the one integer digit. With 11 integer digits, any
+        // fraction digit makes too many digits, and the fraction is rounded away.
+        int maxFractionDigits = 10 - (abs < 1 ? 1 : integerDigits(abs));
+        if (maxFractionDigits >= 0 && hasFractionDigitsAtMost(abs, maxFractionDigits)) {
+            return null;
+        }
+        return DECIMAL_FORMATS[Math.max(0, maxFractionDigits)];
     }
 
-    private CellRangeAddress getCellRangeAddress(XUsedAreaCursor xUsedAreaCursor) {
-        XCellRangeAddressable rangeAddressable = queryInterface(XCellRangeAddressable.class, xUsedAreaCursor);
-        return rangeAddressable.getRangeAddress();
+    /** Gets the number of digits of the integer part of a value from 1 to 1e11. */
+    private static int integerDigits(double abs) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && abs >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
     }
 
-    private boolean isSheetVisible(XSpreadsheet sheet)
-            throws com.sun.star.uno.Exception {
-        XPropertySet xSheetProps = queryInterface(XPropertySet.class, sheet);
-        return (boolean) xSheetProps.getPropertyValue("IsVisible");
+    /**
+     * Tells whether a value below 1e11 is the closest double to a decimal with at most
+     * {@code fractionDigits} fraction digits, so that its shortest representation has no more.
+     * The decimal is found by scaling the value; the division by an exact power of ten below 2^53
+     * is correctly rounded, so comparing it to the value is exact.
+     */
+    private static boolean hasFractionDigitsAtMost(double abs, int fractionDigits) {
+        double scale = POWERS_OF_TEN[fractionDigits];
+        double scaled = Math.rint(abs * scale);
+        for (double candidate = scaled - 1; candidate <= scaled + 1; candidate++) {
+            if (candidate / scale == abs) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public static boolean isInteger(BigDecimal bd) {
@@ -187,4 +246,44 @@ public class ExcelNumberFormatFilter implements Filter {
     public static int getDigitsAfterDecimal(BigDecimal bd) {
         return Math.max(bd.scale(), 0);
     }
+
+    /** The format string and locale of a number format. */
+    private record NumberFormat(String formatString, Locale locale) {
+    }
+
+    /** The number formats of a document, each one read once. */
+    private static final class NumberFormats {
+        private final XNumberFormats xNumberFormats;
+        private final Map<Integer, NumberFormat> formats = new HashMap<>();
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        private NumberFormats(XNumberFormats xNumberFormats) {
+            this.xNumberFormats = xNumberFormats;
+        }
+
+        private NumberFormat get(int key) throws com.sun.star.uno.Exception {
+            NumberFormat format = formats.get(key);
+            if (format == null) {
+                XPropertySet numberFormat = xNumberFormats.getByKey(key);
+                format = new NumberFormat(numberFormat.getPropertyValue("FormatString").toString(),
+                        (Locale) numberFormat.getPropertyValue("Locale"));
+                formats.put(key, format);
+            }
+            return format;
+        }
+
+        /** Gets the key of a format, adding the format to the document if it is not there yet. */
+        private int getKey(String formatString, Locale locale) throws MalformedNumberFormatException {
+            String id = formatString + '\0' + locale.Language + '_' + locale.Country + '_' + locale.Variant;
+            Integer key = keys.get(id);
+            if (key == null) {
+                key = xNumberFormats.queryKey(formatString, locale, false);
+                if (key == -1) {
+                    key = xNumberFormats.addNew(formatString, locale);
+                }
+                keys.put(id, key);
+            }
+            return key;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.jodconverter.sample.rest;
 
 import com.sun.star.awt.Point;
 import com.sun.star.awt.Size;
+import com.sun.star.beans.UnknownPropertyException;
 import com.sun.star.beans.XPropertySet;
 import com.sun.star.container.XNameAccess;
 import com.sun.star.drawing.XDrawPage;
@@ -14,6 +15,7 @@ import com.sun.star.sheet.XPrintAreas;
 import com.sun.star.sheet.XSheetCellCursor;
 import com.sun.star.sheet.XSpreadsheet;
 import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.sheet.XSpreadsheets;
 import com.sun.star.sheet.XUsedAreaCursor;
 import com.sun.star.style.XStyleFamiliesSupplier;
 import com.sun.star.table.CellRangeAddress;
@@ -21,21 +23,60 @@ import com.sun.star.table.XCellRange;
 import com.sun.star.table.XColumnRowRange;
 import com.sun.star.table.XTableColumns;
 import com.sun.star.table.XTableRows;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
 import org.jodconverter.core.office.OfficeContext;
-import org.jodconverter.local.filter.Filter;
 import org.jodconverter.local.filter.FilterChain;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 
 import static com.sun.star.uno.UnoRuntime.queryInterface;
 
-public class ExcelSinglePageFilter implements Filter {
+public class ExcelSinglePageFilter implements ConditionalFilter {
     private static final Logger log = LoggerFactory.getLogger(ExcelSinglePageFilter.class);
 
+    private static final Set<DocumentFormat> PAGINATED_FORMATS = Set.of(
+            DefaultDocumentFormatRegistry.PDF,
+            DefaultDocumentFormatRegistry.PNG,
+            DefaultDocumentFormatRegistry.JPEG,
+            DefaultDocumentFormatRegistry.GIF,
+            DefaultDocumentFormatRegistry.BMP,
+            DefaultDocumentFormatRegistry.TIFF,
+            DefaultDocumentFormatRegistry.SVG);
+
+    private final SheetExecutor sheetExecutor;
+
+    /**
+     * Creates a new filter processing the sheets of a document one after the other.
+     */
+    public ExcelSinglePageFilter() {
+        this(SheetExecutor.SERIAL);
+    }
+
+    /**
+     * Creates a new filter.
+     *
+     * @param sheetExecutor The executor processing the sheets of a document.
+     */
+    public ExcelSinglePageFilter(SheetExecutor sheetExecutor) {
+        this.sheetExecutor = sheetExecutor;
+    }
+
+    /**
+     * Page styles, footers and print areas only matter to paginated outputs, PDF and the image
+     * formats, which render the first page: converting to a spreadsheet, text or web format skips
+     * the filter altogether.
+     */
+    @Override
+    public boolean appliesTo(DocumentFormat targetFormat) {
+        return PAGINATED_FORMATS.stream()
+                .anyMatch(format -> format.getExtension().equalsIgnoreCase(targetFormat.getExtension()));
+    }
+
     @Override
     public void doFilter(OfficeContext context, XComponent document, FilterChain chain) throws Exception {
         XSpreadsheetDocument xSpreadsheetDocument = queryInterface(XSpreadsheetDocument.class, document);
@@ -47,74 +88,66 @@ public class ExcelSinglePageFilter implements Filter {
         log.info("Adjusting Excel document to fit on single page.");
         XNameAccess xPageStyles = getPageStyles(xSpreadsheetDocument);
 
-        String[] sheetNames = xSpreadsheetDocument.getSheets().getElementNames();
-        CompletableFuture[] futures = Arrays.stream(sheetNames).map(sheetName -> CompletableFuture.runAsync(() -> {
+        DocumentProfile profile = DocumentProfile.of(document);
+        XSpreadsheets sheets = xSpreadsheetDocument.getSheets();
+        List<Runnable> sheetTasks = profile.getSheets(sheets).stream().<Runnable>map(sheetProfile -> () -> {
+            String sheetName = sheetProfile.name();
             try {
-                log.info("Processing sheet: {}", sheetName);
+                log.debug("Processing sheet: {}", sheetName);
 
-                XSpreadsheet sheet = queryInterface(XSpreadsheet.class, xSpreadsheetDocument.getSheets().getByName(sheetName));
+                XSpreadsheet sheet = queryInterface(XSpreadsheet.class, sheets.getByName(sheetName));
 
-                if (isSheetVisible(sheet)) {
-                    adjustSheetForSinglePage(sheetName, sheet, xPageStyles);
+                if (sheetProfile.visible()) {
+                    adjustSheetForSinglePage(profile, sheetName, sheet, xPageStyles);
                 } else {
-                    log.info("Clearing print area of hidden sheet: {}", sheetName);
+                    log.debug("Clearing print area of hidden sheet: {}", sheetName);
                     clearPrintArea(sheet);
-                    log.info("Skipping other processing of hidden sheet: {}", sheetName);
+                    log.debug("Skipping other processing of hidden sheet: {}", sheetName);
                 }
             } catch (Exception e) {
                 log.error("Error processing sheet: {}", sheetName, e);
             }
-        })).toList().toArray(new CompletableFuture[0]);
+        }).toList();
 
-        CompletableFuture.allOf(futures).join();
+        sheetExecutor.runAll(sheetTasks);
 
         chain.doFilter(context, document);
     }
 
-    private boolean isSheetVisible(XSpreadsheet sheet)
-            throws com.sun.star.uno.Exception {
-        XPropertySet xSheetProps = queryInterface(XPropertySet.class, sheet);
-        return (boolean) xSheetProps.getPropertyValue("IsVisible");
-    }
-
-    private void adjustSheetForSinglePage(String sheetName, XSpreadsheet sheet, XNameAccess xPageStyles)
+    private void adjustSheetForSinglePage(DocumentProfile profile, String sheetName, XSpreadsheet sheet,
+                                          XNameAccess xPageStyles)
             throws Exception {
-        XUsedAreaCursor xUsedAreaCursor = goToEnd(sheet);
+        CellRangeAddress rangeAddress = profile.getUsedArea(sheetName, () -> getCellRangeAddress(goToEnd(sheet)));
         clearPrintArea(sheet);
 
-        CellRangeAddress rangeAddress = getCellRangeAddress(xUsedAreaCursor);
         XColumnRowRange columnRowRange = getxColumnRowRange(sheet);
         XPropertySet xPageStyleProps = getPageStyleProps(sheet, xPageStyles);
 
         enableFooter(xPageStyleProps);
         setFooterText(xPageStyleProps, sheetName, "RightPageFooterContent");
 
-        log.info("Sheet: {} used area column: {}, row: {}", sheetName, rangeAddress.EndColumn, rangeAddress.EndRow);
+        log.debug("Sheet: {} used area column: {}, row: {}", sheetName, rangeAddress.EndColumn, rangeAddress.EndRow);
 
         XTableColumns columns = columnRowRange.getColumns();
         XTableRows rows = columnRowRange.getRows();
         triggerReLayout(rows, columns);
 
-        int totalWidth = getTotalWidth(rangeAddress.EndColumn, columns);
-        int totalHeight = getTotalHeight(rangeAddress.EndRow, rows);
-        log.info("Sheet: {} used area total width: {}, total height: {}", sheetName, totalWidth, totalHeight);
+        Size usedAreaSize = getUsedAreaSize(sheet, rangeAddress, columns, rows);
+        int totalWidth = usedAreaSize.Width;
+        int totalHeight = usedAreaSize.Height;
+        log.debug("Sheet: {} used area total width: {}, total height: {}", sheetName, totalWidth, totalHeight);
 
         Size graphicalSize = getGraphicalObjectsSize(sheet);
+        profile.setShapeExtent(sheetName, graphicalSize);
 
         // Adjust totalWidth and totalHeight to accommodate graphical objects
-        while (totalWidth < graphicalSize.Width || totalHeight < graphicalSize.Height) {
-            if (totalWidth < graphicalSize.Width) {
-                int newColumnWidth = getColumnWidth(rangeAddress.EndColumn + 1, columns);
-                totalWidth += newColumnWidth;
-                rangeAddress.EndColumn++;
-            }
-            if (totalHeight < graphicalSize.Height) {
-                int newRowHeight = getRowHeight(rangeAddress.EndRow + 1, rows);
-                totalHeight += newRowHeight;
-                rangeAddress.EndRow++;
-            }
-        }
-        log.info("Sheet: {} adjusted total width: {}, adjusted total height: {}", sheetName, totalWidth, totalHeight);
+        Extent width = extendColumns(sheet, columns, rangeAddress.EndColumn, totalWidth, graphicalSize.Width);
+        Extent height = extendRows(sheet, rows, rangeAddress.EndRow, totalHeight, graphicalSize.Height);
+        rangeAddress.EndColumn = width.end();
+        rangeAddress.EndRow = height.end();
+        totalWidth = width.size();
+        totalHeight = height.size();
+        log.debug("Sheet: {} adjusted total width: {}, adjusted total height: {}", sheetName, totalWidth, totalHeight);
 
         totalHeight += 4000;
         totalWidth += 2000;
@@ -135,14 +168,14 @@ public class ExcelSinglePageFilter implements Filter {
         rows.removeByIndex(0, 1);
     }
 
-    private int getColumnWidth(int columnIndex, XTableColumns columns)
+    private static int getColumnWidth(int columnIndex, XTableColumns columns)
             throws com.sun.star.uno.Exception {
         Object column = columns.getByIndex(columnIndex);
         XPropertySet columnProps = queryInterface(XPropertySet.class, column);
         return (int) columnProps.getPropertyValue("Width");
     }
 
-    private int getRowHeight(int rowIndex, XTableRows rows)
+    private static int getRowHeight(int rowIndex, XTableRows rows)
             throws com.sun.star.uno.Exception {
         Object row = rows.getByIndex(rowIndex);
         XPropertySet rowProps = queryInterface(XPropertySet.class, row);
@@ -166,7 +199,120 @@ public class ExcelSinglePageFilter implements Filter {
         return queryInterface(XColumnRowRange.class, cellRange);
     }
 
-    private int getTotalWidth(int endColumn, XTableColumns columns)
+    /**
+     * Gets the total width of the columns and the total height of the rows from the first cell of
+     * the sheet to the end of its used area. The range covering them reports its size at once, in
+     * a couple of UNO calls, where reading each column and row takes two calls per column and per
+     * row: 400k round trips for a 200k rows sheet. Hidden columns and rows, which are not printed,
+     * don't count in the range size. Ranges not reporting their size fall back to reading each
+     * column and row.
+     */
+    /* default */ static Size getUsedAreaSize(XSpreadsheet sheet, CellRangeAddress rangeAddress,
+                                              XTableColumns columns, XTableRows rows)
+            throws com.sun.star.uno.Exception {
+        try {
+            return getRangeSize(sheet, 0, 0, rangeAddress.EndColumn, rangeAddress.EndRow);
+        } catch (UnknownPropertyException e) {
+            log.debug("Cell range has no Size property, reading each column and row instead");
+        }
+        return new Size(getTotalWidth(rangeAddress.EndColumn, columns), getTotalHeight(rangeAddress.EndRow, rows));
+    }
+
+    /**
+     * Extends the columns after {@code endColumn} until their total width reaches {@code minWidth},
+     * see {@link #extend}.
+     */
+    /* default */ static Extent extendColumns(XSpreadsheet sheet, XTableColumns columns, int endColumn,
+                                              int totalWidth, int minWidth)
+            throws com.sun.star.uno.Exception {
+        if (totalWidth >= minWidth) {
+            return new Extent(endColumn, totalWidth);
+        }
+        return extend(endColumn, totalWidth, minWidth, columns.getCount() - 1,
+                (first, last) -> getRangeSize(sheet, first, 0, last, 0).Width,
+                index -> getColumnWidth(index, columns));
+    }
+
+    /**
+     * Extends the rows after {@code endRow} until their total height reaches {@code minHeight}, see
+     * {@link #extend}.
+     */
+    /* default */ static Extent extendRows(XSpreadsheet sheet, XTableRows rows, int endRow,
+                                           int totalHeight, int minHeight)
+            throws com.sun.star.uno.Exception {
+        if (totalHeight >= minHeight) {
+            return new Extent(endRow, totalHeight);
+        }
+        return extend(endRow, totalHeight, minHeight, rows.getCount() - 1,
+                (first, last) -> getRangeSize(sheet, 0, first, 0, last).Height,
+                index -> getRowHeight(index, rows));
+    }
+
+    /**
+     * Finds the fewest columns (or rows) after {@code end} whose sizes, added to {@code size}, reach
+     * {@code minSize}. Graphical objects can be anchored far away from the used area, so the
+     * cumulative size of the next 1, 2, 4, 8... columns is read, each time at once from a cell
+     * range, until it is enough; a binary search between the last two counts then finds the exact
+     * one. That is a logarithmic number of UNO calls where reading each column is a linear one,
+     * which is only done when cell ranges don't report their size. The sheet ends at
+     * {@code lastIndex}, whatever the size of the objects.
+     */
+    private static Extent extend(int end, int size, int minSize, int lastIndex,
+                                 RangeSize rangeSize, IndexSize indexSize)
+            throws com.sun.star.uno.Exception {
+        if (end >= lastIndex) {
+            return new Extent(end, size);
+        }
+        try {
+            // Counts of columns after end known to be too few (low) and enough (high).
+            int low = 0;
+            int high = 1;
+            int highSize;
+            while (true) {
+                high = Math.min(high, lastIndex - end);
+                highSize = rangeSize.of(end + 1, end + high);
+                if (size + highSize >= minSize) {
+                    break;
+                }
+                if (end + high == lastIndex) {
+                    return new Extent(lastIndex, size + highSize);
+                }
+                low = high;
+                high *= 2;
+            }
+            while (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                int middleSize = rangeSize.of(end + 1, end + middle);
+                if (size + middleSize >= minSize) {
+                    high = middle;
+                    highSize = middleSize;
+                } else {
+                    low = middle;
+                }
+            }
+            return new Extent(end + high, size + highSize);
+        } catch (UnknownPropertyException e) {
+            log.debug("Cell range has no Size property, reading each column or row instead");
+        }
+        while (size < minSize && end < lastIndex) {
+            end++;
+            size += indexSize.of(end);
+        }
+        return new Extent(end, size);
+    }
+
+    private static Size getRangeSize(XSpreadsheet sheet, int left, int top, int right, int bottom)
+            throws com.sun.star.uno.Exception {
+        XCellRange range = sheet.getCellRangeByPosition(left, top, right, bottom);
+        XPropertySet rangeProps = queryInterface(XPropertySet.class, range);
+        Object size = rangeProps == null ? null : rangeProps.getPropertyValue("Size");
+        if (size instanceof Size) {
+            return (Size) size;
+        }
+        throw new UnknownPropertyException("Size");
+    }
+
+    private static int getTotalWidth(int endColumn, XTableColumns columns)
             throws com.sun.star.uno.Exception {
         int totalWidth = 0;
         for (int j = 0; j <= endColumn; j++) {
@@ -177,7 +323,7 @@ public class ExcelSinglePageFilter implements Filter {
         return totalWidth;
     }
 
-    private int getTotalHeight(int endRow, XTableRows rows)
+    private static int getTotalHeight(int endRow, XTableRows rows)
             throws com.sun.star.uno.Exception {
         int totalHeight = 0;
         for (int i = 0; i <= endRow; i++) {
@@ -200,7 +346,7 @@ public class ExcelSinglePageFilter implements Filter {
     private XPropertySet getPageStyleProps(XSpreadsheet sheet, XNameAccess xPageStyles)
             throws com.sun.star.uno.Exception {
         String pageStyleName = queryInterface(XPropertySet.class, sheet).getPropertyValue("PageStyle").toString();
-        log.info("page style name is: {}", pageStyleName);
+        log.debug("page style name is: {}", pageStyleName);
         return queryInterface(XPropertySet.class, xPageStyles.getByName(pageStyleName));
     }
 
@@ -225,7 +371,9 @@ public class ExcelSinglePageFilter implements Filter {
             throws com.sun.star.uno.Exception {
         XHeaderFooterContent footerContent = queryInterface(XHeaderFooterContent.class, xPageStyleProps.getPropertyValue(pageFooterContent));
         if (footerContent != null) {
-            log.info("Sheet {} {} has footer: {}, will change it to sheet name", sheetName, pageFooterContent, footerContent.getLeftText().getString());
+            if (log.isDebugEnabled()) {
+                log.debug("Sheet {} {} has footer: {}, will change it to sheet name", sheetName, pageFooterContent, footerContent.getLeftText().getString());
+            }
             footerContent.getLeftText().setString(sheetName);
             xPageStyleProps.setPropertyValue(pageFooterContent, footerContent);
         }
@@ -297,6 +445,22 @@ public class ExcelSinglePageFilter implements Filter {
         xPageStyleProps.setPropertyValue("ScaleToPages", (short) 1);
     }
 
+    /**
+     * The last column (or row) of a range and the total width (or height) of its columns.
+     */
+    /* default */ record Extent(int end, int size) {
+    }
+
+    /** Reads the total size of the columns (or rows) from first to last, at once. */
+    private interface RangeSize {
+        int of(int first, int last) throws com.sun.star.uno.Exception;
+    }
+
+    /** Reads the size of one column (or row). */
+    private interface IndexSize {
+        int of(int index) throws com.sun.star.uno.Exception;
+    }
+
     //
 //    private int minMargin() {
 //        return 1000;
@@ -0,0 +1,267 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the tasks executed by an office manager, for capacity planning. Each task records how
+ * long it waited for an office process ({@value #QUEUE_WAIT}) and how long the office process
+ * worked on it ({@value #EXECUTION}), as histograms tagged with the source and target formats of
+ * the conversion; the gauges {@value #PENDING} and {@value #BUSY} tell how many tasks are waiting
+ * and how many processes are working. These meters are also tagged with the pool of the office
+ * manager, see {@link OfficePools}. Conversions record the size of their documents with
+ * {@link #recordSizes(MeterRegistry, String, String, long, long)}.
+ *
+ * <p>The tasks don't tell their formats: conversions give them for the tasks they execute with
+ * {@link #formats(String, String)}. Tasks executed outside such a scope are tagged "unknown".
+ * Only the extensions of the formats of the {@link DefaultDocumentFormatRegistry} make tags, any
+ * other is tagged "other", so that uploaded file names cannot grow the number of time series;
+ * conversions to several formats at once are tagged with the {@value #MULTI} target.
+ *
+ * <p>An office process restarts once it has executed {@code max-tasks-per-process} tasks
+ * successfully. The office manager doesn't publish its restarts, so {@value #RESTARTS} counts the
+ * successful tasks of each process the same way; restarts after a crash or a timeout reset the
+ * count of a process without being seen here.
+ */
+public class InstrumentedOfficeManager implements OfficeManager {
+
+    /** The name of the timer of the time tasks wait for an office process. */
+    public static final String QUEUE_WAIT = "office.task.queue.wait";
+
+    /** The name of the timer of the time office processes work on tasks. */
+    public static final String EXECUTION = "office.task.execution";
+
+    /** The name of the gauge of the tasks waiting for an office process. */
+    public static final String PENDING = "office.tasks.pending";
+
+    /** The name of the gauge of the office processes working on a task. */
+    public static final String BUSY = "office.processes.busy";
+
+    /** The name of the counter of the office processes restarted after their maximum number of tasks. */
+    public static final String RESTARTS = "office.process.restarts";
+
+    /** The name of the distribution summary of the size of the converted documents. */
+    public static final String INPUT_SIZE = "conversion.input.size";
+
+    /** The name of the distribution summary of the size of the documents they are converted to. */
+    public static final String OUTPUT_SIZE = "conversion.output.size";
+
+    /** The target of conversions to several formats at once. */
+    public static final String MULTI = "multi";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+    private static final ThreadLocal<String[]> FORMATS = new ThreadLocal<>();
+
+    private final OfficeManager officeManager;
+    private final MeterRegistry registry;
+    private final String pool;
+    private final int maxTasksPerProcess;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger busy = new AtomicInteger();
+    private final Counter restarts;
+    private final Map<OfficeContext, AtomicInteger> processTasks = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Creates a new office manager measuring another one.
+     *
+     * @param officeManager      The office manager executing the tasks.
+     * @param registry           The registry of the meters.
+     * @param maxTasksPerProcess The number of tasks after which an office process restarts, 0 if
+     *                           processes don't restart.
+     * @param pool               The name of the pool of the office manager, such as "small".
+     */
+    public InstrumentedOfficeManager(
+            final OfficeManager officeManager,
+            final MeterRegistry registry,
+            final int maxTasksPerProcess,
+            final String pool) {
+        this.officeManager = officeManager;
+        this.registry = registry;
+        this.pool = pool;
+        this.maxTasksPerProcess = maxTasksPerProcess;
+
+        Gauge.builder(PENDING, pending, AtomicInteger::get)
+                .description("Tasks waiting for an office process")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder(BUSY, busy, AtomicInteger::get)
+                .description("Office processes working on a task")
+                .tag("pool", pool)
+                .register(registry);
+        this.restarts = Counter.builder(RESTARTS)
+                .description("Office processes restarted after executing their maximum number of tasks")
+                .tag("pool", pool)
+                .tag("reason", "max-tasks-per-process")
+                .register(registry);
+    }
+
+    /**
+     * Tags the tasks executed by the current thread with the formats of a conversion, until the
+     * returned scope is closed.
+     *
+     * @param source The extension of the source format.
+     * @param target The extension of the target format.
+     * @return The scope, to close once the conversion is done.
+     */
+    public static Scope formats(final String source, final String target) {
+        final String[] previous = FORMATS.get();
+        FORMATS.set(new String[]{tag(source), tag(target)});
+        return () -> {
+            if (previous == null) {
+                FORMATS.remove();
+            } else {
+                FORMATS.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Records the size of the documents of a conversion in the {@value #INPUT_SIZE} and
+     * {@value #OUTPUT_SIZE} histograms.
+     *
+     * @param registry    The registry of the meters.
+     * @param source      The extension of the source format.
+     * @param target      The extension of the target format.
+     * @param inputBytes  The size of the converted document.
+     * @param outputBytes The size of the document it was converted to.
+     */
+    public static void recordSizes(
+            final MeterRegistry registry,
+            final String source,
+            final String target,
+            final long inputBytes,
+            final long outputBytes) {
+        size(INPUT_SIZE, "Size of the converted documents", source, target).register(registry).record(inputBytes);
+        size(OUTPUT_SIZE, "Size of the documents they are converted to", source, target)
+                .register(registry)
+                .record(outputBytes);
+    }
+
+    private static DistributionSummary.Builder size(
+            final String name, final String description, final String source, final String target) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("source", tag(source))
+                .tag("target", tag(target))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1024.0)
+                .maximumExpectedValue(1024.0 * 1024 * 1024);
+    }
+
+    private static String tag(final String extension) {
+        if (extension == null) {
+            return UNKNOWN;
+        }
+        if (MULTI.equals(extension)) {
+            return MULTI;
+        }
+        final DocumentFormat format =
+                DefaultDocumentFormatRegistry.getFormatByExtension(extension.toLowerCase(Locale.ROOT));
+        return format == null ? OTHER : format.getExtension();
+    }
+
+    @Override
+    public void execute(final OfficeTask task) throws OfficeException {
+        final String[] formats = FORMATS.get();
+        final String source = formats == null ? UNKNOWN : formats[0];
+        final String target = formats == null ? UNKNOWN : formats[1];
+        final AtomicBoolean started = new AtomicBoolean();
+        final long submitted = System.nanoTime();
+
+        pending.incrementAndGet();
+        try {
+            officeManager.execute(context -> {
+                final long start = System.nanoTime();
+                if (started.compareAndSet(false, true)) {
+                    pending.decrementAndGet();
+                }
+                timer(QUEUE_WAIT, "Time a task waited for an office process", source, target)
+                        .register(registry)
+                        .record(start - submitted, TimeUnit.NANOSECONDS);
+
+                busy.incrementAndGet();
+                boolean failed = true;
+                try {
+                    task.execute(context);
+                    failed = false;
+                    countTask(context);
+                } finally {
+                    busy.decrementAndGet();
+                    timer(EXECUTION, "Time an office process worked on a task", source, target)
+                            .tag("outcome", failed ? "error" : "success")
+                            .register(registry)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } finally {
+            // A task timing out in the queue never starts.
+            if (started.compareAndSet(false, true)) {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private Timer.Builder timer(
+            final String name, final String description, final String source, final String target) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("pool", pool)
+                .tag("source", source)
+                .tag("target", target)
+                .publishPercentileHistogram();
+    }
+
+    private void countTask(final OfficeContext context) {
+        if (maxTasksPerProcess <= 0) {
+            return;
+        }
+        final AtomicInteger tasks = processTasks.computeIfAbsent(context, ctx -> new AtomicInteger());
+        if (tasks.incrementAndGet() >= maxTasksPerProcess) {
+            tasks.set(0);
+            restarts.increment();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return officeManager.isRunning();
+    }
+
+    @Override
+    public void start() throws OfficeException {
+        officeManager.start();
+    }
+
+    @Override
+    public void stop() throws OfficeException {
+        officeManager.stop();
+    }
+
+    /** The formats of the conversion the tasks of a thread belong to. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        /** Stops tagging the tasks of the thread with the formats. */
+        @Override
+        void close();
+    }
+}
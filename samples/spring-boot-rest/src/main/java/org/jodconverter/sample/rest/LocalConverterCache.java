@@ -0,0 +1,123 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of ready-to-use converters, one per distinct set of load/store properties. A
+ * {@link LocalConverter} is immutable and its filter chain is copied by every task, so a converter
+ * and its (stateless) filters can serve any number of concurrent requests with the same
+ * properties: most requests then skip building a converter and its filter chain altogether.
+ *
+ * <p>Converters are keyed by their properties, compared by value, and by the filters applying to
+ * the requests they serve, which depend on the family of the document, the target format and the
+ * filter switches of the request; the least recently used one is dropped once the cache is full.
+ * Requests with the default properties, by far the most common ones, don't even look the cache up:
+ * their converters are kept for each set of filters, of which there are only a few.
+ */
+/* default */ final class LocalConverterCache {
+
+    private final OfficeManager officeManager;
+    private final Function<ConversionRequest, Filter[]> filters;
+    private final Map<List<Filter>, LocalConverter> defaultConverters = new ConcurrentHashMap<>();
+    private final Map<Signature, LocalConverter> converters; // Guarded by this.
+
+    /**
+     * Creates a new cache of converters applying the same filters to every document, those that
+     * apply to each request.
+     *
+     * @param officeManager The manager used by the converters.
+     * @param maxSize       The maximum number of converters kept, besides the default ones.
+     * @param filters       The filters shared by all converters, they must be stateless.
+     */
+    /* default */ LocalConverterCache(
+            final OfficeManager officeManager, final int maxSize, final Filter... filters) {
+        this(officeManager, maxSize, request -> request.selectFilters(filters));
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param officeManager The manager used by the converters.
+     * @param maxSize       The maximum number of converters kept, besides the default ones.
+     * @param filters       The filters applying to a request, shared by the converters; they must
+     *                      be stateless.
+     */
+    /* default */ LocalConverterCache(
+            final OfficeManager officeManager,
+            final int maxSize,
+            final Function<ConversionRequest, Filter[]> filters) {
+        this.officeManager = officeManager;
+        this.filters = filters;
+        this.converters = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Signature, LocalConverter> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the converter applying the filters and the load/store properties of a request, building
+     * it if it is not cached.
+     *
+     * @param request The request.
+     * @return The converter.
+     */
+    /* default */ LocalConverter get(final ConversionRequest request) {
+        final List<Filter> selected = Arrays.asList(filters.apply(request));
+        if (request.hasDefaultProperties()) {
+            return defaultConverters.computeIfAbsent(selected,
+                    filterList -> build(filterList, ConversionRequest.DEFAULT_LOAD_PROPERTIES, Map.of()));
+        }
+
+        final Signature key = new Signature(selected, request.getLoadProperties(), request.getStoreProperties());
+        synchronized (this) {
+            final LocalConverter cached = converters.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Built outside the lock: two threads may build the same converter, which is harmless.
+        final LocalConverter converter = build(selected, key.loadProperties(), key.storeProperties());
+        synchronized (this) {
+            converters.putIfAbsent(key, converter);
+        }
+        return converter;
+    }
+
+    /* default */ synchronized int size() {
+        return converters.size();
+    }
+
+    private LocalConverter build(
+            final List<Filter> filters,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties) {
+        return LocalConverter.builder()
+                .officeManager(officeManager)
+                .filterChain(new DefaultFilterChain(filters.toArray(Filter[]::new)))
+                .loadProperties(loadProperties)
+                .storeProperties(storeProperties)
+                .build();
+    }
+
+    /**
+     * The filters a converter applies and its properties. Filters are compared by identity; map
+     * equality doesn't depend on ordering, nested maps (such as FilterData) included, and tells
+     * the integer 1 from the string "1", so it is already canonical: the properties themselves are
+     * the key, without rendering them.
+     */
+    private record Signature(
+            List<Filter> filters, Map<String, Object> loadProperties, Map<String, Object> storeProperties) {
+    }
+}
@@ -0,0 +1,185 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XComponent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.filter.FilterChain;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a filter of the conversion filter chain. For each document it filters, the time the
+ * filter spends, excluding the filters after it in the chain, is recorded by the
+ * {@value #TIMER} timer, and the number of UNO calls it makes, each of them a round trip to the
+ * office process, by the {@value #UNO_CALLS} distribution summary. Both are tagged with the
+ * filter, the family of the document and whether the filter failed.
+ *
+ * <p>The filter is given a document whose UNO calls are counted, see {@link UnoCallCounter}; the
+ * filters after it get the document as it was.
+ */
+public class MeteredFilter implements ConditionalFilter {
+
+    /** The name of the timer of the filters. */
+    public static final String TIMER = "converter.filter";
+
+    /** The name of the distribution summary of the UNO calls of the filters. */
+    public static final String UNO_CALLS = "converter.filter.uno.calls";
+
+    private final Filter filter;
+    private final MeterRegistry registry;
+    private final String family;
+
+    /**
+     * Creates a new filter measuring another one, reading the family of the documents it filters
+     * from the office process, see {@link DocumentFamilyFilter#getFamily(XComponent)}.
+     *
+     * @param filter   The measured filter.
+     * @param registry The registry of the meters.
+     */
+    public MeteredFilter(final Filter filter, final MeterRegistry registry) {
+        this(filter, registry, null);
+    }
+
+    /**
+     * Creates a new filter measuring another one that only gets documents of a family.
+     *
+     * @param filter   The measured filter.
+     * @param registry The registry of the meters.
+     * @param family   The family of the documents the filter gets, null to read it from the
+     *                 office process.
+     */
+    public MeteredFilter(final Filter filter, final MeterRegistry registry, final DocumentFamily family) {
+        this.filter = filter;
+        this.registry = registry;
+        this.family = family == null ? null : family.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Measures several filters.
+     *
+     * @param registry The registry of the meters.
+     * @param filters  The measured filters.
+     * @return The filters measuring them, in the same order.
+     */
+    public static Filter[] meter(final MeterRegistry registry, final Filter... filters) {
+        return meter(registry, (DocumentFamily) null, filters);
+    }
+
+    /**
+     * Measures several filters that only get documents of a family.
+     *
+     * @param registry The registry of the meters.
+     * @param family   The family of the documents the filters get.
+     * @param filters  The measured filters.
+     * @return The filters measuring them, in the same order.
+     */
+    public static Filter[] meter(final MeterRegistry registry, final DocumentFamily family, final Filter... filters) {
+        final Filter[] metered = new Filter[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            metered[i] = new MeteredFilter(filters[i], registry, family);
+        }
+        return metered;
+    }
+
+    @Override
+    public String getName() {
+        return ConditionalFilter.getName(filter);
+    }
+
+    @Override
+    public boolean appliesTo(final DocumentFormat targetFormat) {
+        return ConditionalFilter.appliesTo(filter, targetFormat);
+    }
+
+    @Override
+    public void doFilter(final OfficeContext context, final XComponent document, final FilterChain chain)
+            throws Exception {
+        final Invocation invocation = new Invocation(document, chain);
+        boolean failed = true;
+        try {
+            filter.doFilter(context, invocation.counter.count(XComponent.class, document), invocation);
+            failed = false;
+        } finally {
+            invocation.stop(failed);
+        }
+    }
+
+    private String getFamily(final XComponent document) {
+        if (family != null) {
+            return family;
+        }
+        try {
+            final DocumentFamily documentFamily = DocumentFamilyFilter.getFamily(document);
+            if (documentFamily != null) {
+                return documentFamily.name().toLowerCase(Locale.ROOT);
+            }
+        } catch (RuntimeException e) {
+            // The document may have been disposed by a failing filter, its metrics still count.
+        }
+        return "other";
+    }
+
+    /**
+     * One document going through the filter. It is also the chain given to the filter, so that
+     * the measure stops when the filter hands the document over to the next ones.
+     */
+    private final class Invocation implements FilterChain {
+
+        private final XComponent document;
+        private final FilterChain chain;
+        private final UnoCallCounter counter = new UnoCallCounter();
+        private final long start = System.nanoTime();
+        private boolean stopped;
+
+        private Invocation(final XComponent document, final FilterChain chain) {
+            this.document = document;
+            this.chain = chain;
+        }
+
+        private void stop(final boolean failed) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            final long elapsed = System.nanoTime() - start;
+            final String[] tags = {
+                    "filter", filter.getClass().getSimpleName(),
+                    "family", getFamily(document),
+                    "outcome", failed ? "error" : "success"};
+            Timer.builder(TIMER)
+                    .description("Time spent by a filter on a document, excluding the next filters")
+                    .tags(tags)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder(UNO_CALLS)
+                    .description("UNO calls made by a filter on a document")
+                    .baseUnit("calls")
+                    .tags(tags)
+                    .register(registry)
+                    .record(counter.getCalls());
+        }
+
+        @Override
+        public void doFilter(final OfficeContext context, final XComponent document) throws OfficeException {
+            stop(false);
+            chain.doFilter(context, (XComponent) UnoCallCounter.unwrap(document));
+        }
+
+        @Override
+        public void addFilter(final Filter filter) {
+            chain.addFilter(filter);
+        }
+
+        @Override
+        public FilterChain copy() {
+            return chain.copy();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.frame.XStorable;
+import com.sun.star.io.IOException;
+import com.sun.star.lang.XComponent;
+import com.sun.star.task.ErrorCodeIOException;
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.filter.FilterChain;
+import org.jodconverter.local.office.LocalOfficeContext;
+import org.jodconverter.local.office.LocalOfficeUtils;
+import org.jodconverter.local.office.utils.Lo;
+import org.jodconverter.local.task.AbstractLocalOfficeTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Office task converting a document to several formats. Unlike a {@code LocalConversionTask}, that
+ * loads the document, runs the filter chain and stores the document once per format, this task
+ * loads the document and runs the filter chain once, then stores the modified document once per
+ * target. Loading is the most expensive step for big documents, so asking for N formats costs
+ * about one load instead of N.
+ */
+public class MultiFormatConversionTask extends AbstractLocalOfficeTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiFormatConversionTask.class);
+
+    private final List<TargetDocumentSpecs> targets;
+    private final FilterChain filterChain;
+    private final Map<String, Object> storeProperties;
+
+    /**
+     * Creates a new task.
+     *
+     * @param source          The document to convert.
+     * @param targets         The documents to store, one per format.
+     * @param loadProperties  The properties applied when loading the document.
+     * @param storeProperties The properties applied when storing each target document.
+     * @param filterChain     The filters applied, once, to the loaded document.
+     */
+    public MultiFormatConversionTask(
+            final SourceDocumentSpecs source,
+            final List<TargetDocumentSpecs> targets,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties,
+            final FilterChain filterChain) {
+        super(source, false, loadProperties);
+
+        this.targets = List.copyOf(targets);
+        this.storeProperties = storeProperties;
+        this.filterChain = filterChain;
+    }
+
+    /**
+     * Creates the specs of a document of the work directory, its format deduced from its extension.
+     *
+     * @param file The document.
+     * @return The source specs.
+     */
+    public static SourceDocumentSpecs source(final File file) {
+        final String extension = FilenameUtils.getExtension(file.getName());
+        return new Specs(file, DefaultDocumentFormatRegistry.getFormatByExtension(extension));
+    }
+
+    /**
+     * Creates the specs of a document to store.
+     *
+     * @param file   The file receiving the document.
+     * @param format The format of the document.
+     * @return The target specs.
+     */
+    public static TargetDocumentSpecs target(final File file, final DocumentFormat format) {
+        return new Specs(file, format);
+    }
+
+    /* default */ SourceDocumentSpecs getSource() {
+        return source;
+    }
+
+    /* default */ List<TargetDocumentSpecs> getTargets() {
+        return targets;
+    }
+
+    @Override
+    public void execute(final OfficeContext context) throws OfficeException {
+        LOGGER.info("Executing multi-format conversion task [{} -> {} formats]...",
+                FilenameUtils.getExtension(source.getFile().getName()), targets.size());
+
+        XComponent document = null;
+        try {
+            document = loadDocument((LocalOfficeContext) context, source.getFile());
+            filterChain.doFilter(context, document);
+
+            final DocumentFamily family = LocalOfficeUtils.getDocumentFamily(document);
+            for (final TargetDocumentSpecs target : targets) {
+                store(document, family, target);
+            }
+        } catch (OfficeException ex) {
+            targets.forEach(target -> target.onFailure(target.getFile(), ex));
+            throw ex;
+        } catch (Exception ex) {
+            final OfficeException failure = new OfficeException("Multi-format conversion failed", ex);
+            targets.forEach(target -> target.onFailure(target.getFile(), failure));
+            throw failure;
+        } finally {
+            closeDocument(document);
+        }
+        source.onConsumed(source.getFile());
+    }
+
+    private void store(
+            final XComponent document, final DocumentFamily family, final TargetDocumentSpecs target)
+            throws OfficeException {
+
+        final Map<String, Object> properties = new HashMap<>();
+        appendProperties(properties, target.getFormat().getStoreProperties(family));
+        appendProperties(properties, storeProperties);
+        if (!properties.containsKey("FilterName")) {
+            throw new OfficeException(
+                    "Unsupported conversion: " + family + " -> " + target.getFormat().getExtension());
+        }
+
+        final File file = target.getFile();
+        try {
+            Lo.qi(XStorable.class, document)
+                    .storeToURL(LocalOfficeUtils.toUrl(file), LocalOfficeUtils.toUnoProperties(properties));
+        } catch (ErrorCodeIOException ex) {
+            throw new OfficeException(
+                    "Could not store document: " + file.getName() + "; errorCode: " + ex.ErrCode, ex);
+        } catch (IOException ex) {
+            throw new OfficeException("Could not store document: " + file.getName(), ex);
+        }
+        target.onComplete(file);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+                + "{source=" + source.getFile() + ", targets=" + targets.size() + "}";
+    }
+
+    /** Specs of a document of the work directory. */
+    private static final class Specs implements SourceDocumentSpecs, TargetDocumentSpecs {
+        private final File file;
+        private final DocumentFormat format;
+
+        private Specs(final File file, final DocumentFormat format) {
+            this.file = file;
+            this.format = format;
+        }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        public DocumentFormat getFormat() {
+            return format;
+        }
+    }
+}
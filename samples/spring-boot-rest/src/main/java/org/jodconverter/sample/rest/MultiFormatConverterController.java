@@ -0,0 +1,218 @@
+package org.jodconverter.sample.rest;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.*;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Controller converting one document to several formats at once, for instance a PDF, an HTML page
+ * and a PNG preview of the same upload. The document is loaded and filtered only once (see
+ * {@link MultiFormatConversionTask}) and the converted documents are returned in a zip archive.
+ */
+@Controller
+@RequestMapping("/lool/convert-to/multi")
+public class MultiFormatConverterController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiFormatConverterController.class);
+
+    private final DocumentConversionService conversionService;
+    private final ParameterDecoder parameterDecoder;
+    private final ConversionWorkspace workspace;
+    private final Duration retryAfter;
+
+    /**
+     * Creates a new controller.
+     *
+     * @param conversionService The service executing the conversions.
+     * @param parameterDecoder  The decoder of the custom load/store properties.
+     * @param workspace         The directory where documents are spilled during conversions.
+     * @param properties        The settings telling how long rejected clients should wait.
+     */
+    public MultiFormatConverterController(
+            final DocumentConversionService conversionService,
+            final ParameterDecoder parameterDecoder,
+            final ConversionWorkspace workspace,
+            final ConverterProperties properties) {
+        super();
+
+        this.conversionService = conversionService;
+        this.parameterDecoder = parameterDecoder;
+        this.workspace = workspace;
+        this.retryAfter = properties.getLanes().getRetryAfter();
+    }
+
+    @Operation(
+            summary =
+                    "Converts the incoming document to the specified formats (provided as a comma separated"
+                            + " path param) and returns a zip archive of the converted documents.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Document converted successfully."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input document or output formats are missing or unknown."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The priority lane is full, retry after the delay of the Retry-After header."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(
+            value = "/{formats}",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = "application/zip")
+    /* default */ ResponseEntity<Object> convertUsingPath(
+            @Parameter(description = "The input document to convert.", required = true)
+            @RequestParam("data") final MultipartFile inputFile,
+            @Parameter(
+                    description = "The comma separated document formats to convert the input document to.",
+                    required = true)
+            @PathVariable(name = "formats") final List<String> convertToFormats,
+            @Parameter(description = "The custom options to apply to the conversions.")
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk.")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
+
+        LOGGER.debug("convertUsingPathVariable > Converting file to {}", convertToFormats);
+        return convert(inputFile, convertToFormats, parameters, priority);
+    }
+
+    @Operation(
+            summary =
+                    "Converts the incoming document to the specified formats (provided as repeated request"
+                            + " params) and returns a zip archive of the converted documents.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Document converted successfully."),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The input document or output formats are missing or unknown."),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The priority lane is full, retry after the delay of the Retry-After header."),
+                    @ApiResponse(responseCode = "500", description = "An unexpected error occurred.")
+            })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = "application/zip")
+    /* default */ ResponseEntity<Object> convertUsingParam(
+            @Parameter(description = "The input document to convert.", required = true)
+            @RequestParam("data") final MultipartFile inputFile,
+            @Parameter(
+                    description = "The document formats to convert the input document to.",
+                    required = true)
+            @RequestParam(name = "format") final List<String> convertToFormats,
+            @Parameter(description = "The custom options to apply to the conversions.")
+            @RequestParam(required = true) final Map<String, String> parameters,
+            @Parameter(description = "The priority of the conversion: interactive or bulk.")
+            @RequestHeader(name = ConversionRequest.PRIORITY_HEADER, required = false) final String priority) {
+
+        LOGGER.debug("convertUsingRequestParam > Converting file to {}", convertToFormats);
+        return convert(inputFile, convertToFormats, parameters, priority);
+    }
+
+    private ResponseEntity<Object> convert(
+            final MultipartFile inputFile,
+            final List<String> outputFormats,
+            final Map<String, String> parameters,
+            final String priority) {
+
+        if (inputFile.isEmpty() || outputFormats.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        final Map<String, DocumentFormat> targetFormats = new LinkedHashMap<>();
+        for (final String outputFormat : outputFormats) {
+            final DocumentFormat targetFormat =
+                    DefaultDocumentFormatRegistry.getFormatByExtension(outputFormat);
+            if (targetFormat == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            targetFormats.putIfAbsent(targetFormat.getExtension(), targetFormat);
+        }
+
+        File input = null;
+        final List<File> outputs = new ArrayList<>();
+        boolean sent = false;
+        try {
+            input = workspace.createInputFile(inputFile);
+            final List<ConversionRequest> requests = new ArrayList<>();
+            for (final DocumentFormat targetFormat : targetFormats.values()) {
+                requests.add(ConversionRequest.decode(input, targetFormat, parameters, parameterDecoder, priority));
+                outputs.add(workspace.createOutputFile(targetFormat));
+            }
+            conversionService.convertAll(requests, outputs);
+
+            final String baseName = FilenameUtils.getBaseName(inputFile.getOriginalFilename());
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("application/zip"));
+            headers.setContentDisposition(ContentDisposition.attachment()
+                    .filename(baseName + ".zip", UTF_8)
+                    .build());
+            final StreamingResponseBody body = out -> writeArchive(baseName, requests, outputs, out);
+            sent = true; // The outputs are now owned by the response body.
+            return ResponseEntity.ok().headers(headers).body(body);
+
+        } catch (RejectedExecutionException ex) {
+            LOGGER.debug("Priority lane full, rejecting conversion to {}", outputFormats);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())))
+                    .build();
+        } catch (OfficeException | IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ex);
+        } finally {
+            workspace.delete(input);
+            if (!sent) {
+                outputs.forEach(workspace::delete);
+            }
+        }
+    }
+
+    private void writeArchive(
+            final String baseName,
+            final List<ConversionRequest> requests,
+            final List<File> outputs,
+            final OutputStream out) throws IOException {
+
+        try {
+            final ZipOutputStream zip = new ZipOutputStream(out);
+            for (int i = 0; i < outputs.size(); i++) {
+                final String extension = requests.get(i).getTargetFormat().getExtension();
+                zip.putNextEntry(new ZipEntry(baseName + "." + extension));
+                Files.copy(outputs.get(i).toPath(), zip);
+                zip.closeEntry();
+            }
+            zip.finish();
+        } finally {
+            outputs.forEach(workspace::delete);
+        }
+    }
+}
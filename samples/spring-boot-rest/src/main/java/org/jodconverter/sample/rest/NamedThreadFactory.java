@@ -0,0 +1,27 @@
+package org.jodconverter.sample.rest;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Creates daemon threads named after the pool they belong to, so they stand out in thread dumps. */
+/* default */ final class NamedThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Creates a new factory.
+     *
+     * @param prefix The prefix of the thread names, followed by the thread number.
+     */
+    /* default */ NamedThreadFactory(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,300 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jodconverter.core.office.AbstractOfficeManagerPool;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Executes the tasks of small and large documents on separate pools of office processes, so that
+ * a few large spreadsheets don't hold every one-page document back until they are converted. The
+ * small pool is the office manager of the JODConverter starter ({@code jodconverter.local}); the
+ * large pool, if {@code converter.pools.port-numbers} are set, is created and started here.
+ *
+ * <p>Conversions tell the size and format of their input document for the tasks they execute with
+ * {@link #route(long, String, PriorityLanes.Lane)}. Documents of at least {@code large-threshold}
+ * bytes, or of one of the {@code large-formats}, go to the large pool, and so do small documents
+ * when all the processes of the small pool are busy and one of the large pool is idle, unless
+ * {@code overflow} is off. Large documents never go to the small pool: they wait for their own
+ * processes. Tasks executed outside a route go to the small pool. Within a pool, the tasks of interactive conversions start
+ * before the bulk ones if {@code converter.lanes} are enabled, see {@link PriorityLanes}.
+ *
+ * <p>Each pool records the time its tasks take, waiting for a process included, in the
+ * {@value #TASK_DURATION} histogram, and the tasks it is executing in the {@value #TASKS} gauge,
+ * both tagged with the pool; {@value #OVERFLOWS} counts the small documents sent to the large pool.
+ */
+public class OfficePools implements OfficeManager {
+
+    /** The name of the timer of the tasks of each pool, waiting for a process included. */
+    public static final String TASK_DURATION = "office.pool.task.duration";
+
+    /** The name of the gauge of the tasks each pool is executing or queuing. */
+    public static final String TASKS = "office.pool.tasks";
+
+    /** The name of the counter of the small documents converted by the large pool. */
+    public static final String OVERFLOWS = "office.pool.overflows";
+
+    private static final String LOCAL = "jodconverter.local.";
+
+    private static final ThreadLocal<Document> DOCUMENT = new ThreadLocal<>();
+
+    private final Pool small;
+    private final Pool large;
+    private final long largeThreshold;
+    private final Set<String> largeFormats;
+    private final boolean overflow;
+    private final Counter overflows;
+
+    /**
+     * Creates new pools.
+     *
+     * @param small          The office manager converting the small documents.
+     * @param smallProcesses The number of office processes of the small pool.
+     * @param smallTimeout   The longest time, in milliseconds, a task waits for a process of the
+     *                       small pool in its priority lane.
+     * @param large          The office manager converting the large documents, null to convert
+     *                       them all with the small one.
+     * @param largeProcesses The number of office processes of the large pool.
+     * @param properties     The threshold, formats and overflow rule routing the documents, and
+     *                       the priority lanes of each pool.
+     * @param registry       The registry of the meters.
+     */
+    public OfficePools(
+            final OfficeManager small,
+            final int smallProcesses,
+            final long smallTimeout,
+            final OfficeManager large,
+            final int largeProcesses,
+            final ConverterProperties properties,
+            final MeterRegistry registry) {
+        final ConverterProperties.Pools settings = properties.getPools();
+        final ConverterProperties.Lanes lanes = properties.getLanes().isEnabled() ? properties.getLanes() : null;
+        this.small = new Pool("small", small, smallProcesses, smallTimeout, lanes, registry);
+        this.large = large == null ? null : new Pool("large", large, largeProcesses,
+                settings.getTaskQueueTimeout().toMillis(), lanes, registry);
+        this.largeThreshold = settings.getLargeThreshold().toBytes();
+        this.largeFormats = settings.getLargeFormats().stream()
+                .map(format -> format.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.overflow = settings.isOverflow();
+        this.overflows = Counter.builder(OVERFLOWS)
+                .description("Small documents converted by the large pool while the small one was busy")
+                .register(registry);
+    }
+
+    /**
+     * Creates the pools of the settings, the large one being a new office manager, not started yet,
+     * if the settings give it ports. The large pool shares the {@code jodconverter.local} settings
+     * of the small one, such as the office home and the template profile, all but the ports, the
+     * number of tasks per process and the timeouts, which are the {@code converter.pools} ones.
+     *
+     * @param small       The office manager converting the small documents.
+     * @param environment The environment holding the {@code jodconverter.local} settings.
+     * @param properties  The settings of the large pool, of the routing and of the lanes.
+     * @param registry    The registry of the meters.
+     * @return The pools.
+     */
+    public static OfficePools create(
+            final OfficeManager small,
+            final PropertyResolver environment,
+            final ConverterProperties properties,
+            final MeterRegistry registry) {
+        final LocalOfficeManager.Builder large = LocalOfficeManager.builder()
+                .officeHome(environment.getProperty(LOCAL + "office-home"))
+                .hostName(environment.getProperty(LOCAL + "host-name"))
+                .workingDir(environment.getProperty(LOCAL + "working-dir"))
+                .templateProfileDir(environment.getProperty(LOCAL + "template-profile-dir"))
+                .processManager(environment.getProperty(LOCAL + "process-manager-class"))
+                .processTimeout(environment.getProperty(LOCAL + "process-timeout", Long.class))
+                .processRetryInterval(environment.getProperty(LOCAL + "process-retry-interval", Long.class))
+                .afterStartProcessDelay(environment.getProperty(LOCAL + "after-start-process-delay", Long.class))
+                .startFailFast(environment.getProperty(LOCAL + "start-fail-fast", Boolean.class))
+                .keepAliveOnShutdown(environment.getProperty(LOCAL + "keep-alive-on-shutdown", Boolean.class))
+                .disableOpengl(environment.getProperty(LOCAL + "disable-opengl", Boolean.class));
+        final String existingProcessAction = environment.getProperty(LOCAL + "existing-process-action");
+        if (existingProcessAction != null) {
+            large.existingProcessAction(existingProcessAction);
+        }
+        final int[] smallPorts = environment.getProperty(LOCAL + "port-numbers", int[].class, new int[] {2002});
+        final long smallTimeout = environment.getProperty(
+                LOCAL + "task-queue-timeout", Long.class, AbstractOfficeManagerPool.DEFAULT_TASK_QUEUE_TIMEOUT);
+        return create(small, smallPorts.length, smallTimeout, large, properties, registry);
+    }
+
+    /**
+     * Creates the pools of the settings, the large one being built, not started yet, if the
+     * settings give it ports.
+     *
+     * @param small          The office manager converting the small documents.
+     * @param smallProcesses The number of office processes of the small pool.
+     * @param smallTimeout   The task queue timeout, in milliseconds, of the small pool.
+     * @param large          The builder of the large pool, holding the settings it shares with the
+     *                       small one; the ports, tasks per process and timeouts are set here.
+     * @param properties     The settings of the large pool, of the routing and of the lanes.
+     * @param registry       The registry of the meters.
+     * @return The pools.
+     */
+    public static OfficePools create(
+            final OfficeManager small,
+            final int smallProcesses,
+            final long smallTimeout,
+            final LocalOfficeManager.Builder large,
+            final ConverterProperties properties,
+            final MeterRegistry registry) {
+        final ConverterProperties.Pools settings = properties.getPools();
+        final int[] portNumbers = settings.getPortNumbers();
+        if (portNumbers == null || portNumbers.length == 0) {
+            return new OfficePools(small, smallProcesses, smallTimeout, null, 0, properties, registry);
+        }
+        large.portNumbers(portNumbers)
+                .maxTasksPerProcess(settings.getMaxTasksPerProcess())
+                .taskExecutionTimeout(settings.getTaskExecutionTimeout().toMillis())
+                .taskQueueTimeout(settings.getTaskQueueTimeout().toMillis());
+        final OfficeManager instrumented =
+                new InstrumentedOfficeManager(large.build(), registry, settings.getMaxTasksPerProcess(), "large");
+        return new OfficePools(
+                small, smallProcesses, smallTimeout, instrumented, portNumbers.length, properties, registry);
+    }
+
+    /**
+     * Routes the tasks executed by the current thread by the size and format of the converted
+     * document, and by the priority of the conversion, until the returned scope is closed.
+     *
+     * @param inputBytes The size of the converted document.
+     * @param extension  The extension of its format.
+     * @param lane       The lane of the conversion, null for the default one.
+     * @return The scope, to close once the conversion is done.
+     */
+    public static Scope route(final long inputBytes, final String extension, final PriorityLanes.Lane lane) {
+        final Document previous = DOCUMENT.get();
+        DOCUMENT.set(new Document(
+                inputBytes, extension == null ? "" : extension.toLowerCase(Locale.ROOT), lane));
+        return () -> {
+            if (previous == null) {
+                DOCUMENT.remove();
+            } else {
+                DOCUMENT.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public void execute(final OfficeTask task) throws OfficeException {
+        final Document document = DOCUMENT.get();
+        select(document).execute(task, document == null ? null : document.lane());
+    }
+
+    private Pool select(final Document document) {
+        if (large == null || document == null) {
+            return small;
+        }
+        if (document.inputBytes() >= largeThreshold || largeFormats.contains(document.extension())) {
+            return large;
+        }
+        // Both checks may race with other tasks: at worst a task queues behind another one.
+        if (overflow && small.isSaturated() && !large.isSaturated()) {
+            overflows.increment();
+            return large;
+        }
+        return small;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return small.officeManager.isRunning() && (large == null || large.officeManager.isRunning());
+    }
+
+    /**
+     * Starts the large pool; the small one is the office manager of the JODConverter starter, which
+     * starts and stops it.
+     */
+    @Override
+    public void start() throws OfficeException {
+        if (large != null) {
+            large.officeManager.start();
+        }
+    }
+
+    /** Stops the large pool, see {@link #start()}. */
+    @Override
+    public void stop() throws OfficeException {
+        if (large != null) {
+            large.officeManager.stop();
+        }
+    }
+
+    /** The document of the conversion the tasks of a thread belong to. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        /** Stops routing the tasks of the thread by the document. */
+        @Override
+        void close();
+    }
+
+    private record Document(long inputBytes, String extension, PriorityLanes.Lane lane) {
+    }
+
+    /** An office manager, its priority lanes if enabled, and the tasks it is executing or queuing. */
+    private static final class Pool {
+
+        private final OfficeManager officeManager;
+        private final int processes;
+        private final PriorityLanes lanes;
+        private final AtomicInteger tasks = new AtomicInteger();
+        private final Timer duration;
+
+        private Pool(final String name, final OfficeManager officeManager, final int processes,
+                     final long queueTimeout, final ConverterProperties.Lanes lanes, final MeterRegistry registry) {
+            this.officeManager = officeManager;
+            this.processes = Math.max(1, processes);
+            this.lanes = lanes == null ? null : new PriorityLanes(name, processes, queueTimeout, lanes, registry);
+            Gauge.builder(TASKS, tasks, AtomicInteger::get)
+                    .description("Tasks an office pool is executing or queuing")
+                    .tag("pool", name)
+                    .register(registry);
+            this.duration = Timer.builder(TASK_DURATION)
+                    .description("Time the tasks of an office pool take, waiting for a process included")
+                    .tag("pool", name)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        /** Tells whether every process of the pool has a task. */
+        private boolean isSaturated() {
+            return tasks.get() >= processes;
+        }
+
+        private void execute(final OfficeTask task, final PriorityLanes.Lane lane) throws OfficeException {
+            final long start = System.nanoTime();
+            tasks.incrementAndGet();
+            try {
+                if (lanes == null) {
+                    officeManager.execute(task);
+                } else {
+                    lanes.acquire(lane);
+                    try {
+                        officeManager.execute(task);
+                    } finally {
+                        lanes.release();
+                    }
+                }
+            } finally {
+                tasks.decrementAndGet();
+                duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -7,24 +7,45 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
+/**
+ * Decodes the custom load/store properties of a request from its parameters: "l" and "s"
+ * prefixed parameters (case insensitive) are load and store properties, "lfd" and "sfd" prefixed
+ * ones are entries of the load and store FilterData. "true"/"false" values (case insensitive)
+ * become booleans, values {@link Integer#parseInt(String)} accepts become integers, any other
+ * value is kept as is. "f" prefixed parameters switch the filter named after the prefix on or off
+ * for the request, whatever the target format: {@code fExcelSinglePageFilter=false} leaves that
+ * filter out of the conversion; filter names are case insensitive too, and values other than
+ * "true"/"false" are ignored.
+ *
+ * <p>Each key is dispatched on its first characters in a single pass and values are classified
+ * without throwing exceptions.
+ */
 @Service
 public class ParameterDecoder {
     private static final String FILTER_DATA = "FilterData";
 
-    private static final String LOAD_PROPERTIES_PREFIX_PARAM = "l";
-    private static final String STORE_PROPERTIES_PREFIX_PARAM = "s";
-
-    private static final String FILTER_DATA_PREFIX_PARAM = "fd";
-
-    private static final String LOAD_FILTER_DATA_PREFIX_PARAM =
-            LOAD_PROPERTIES_PREFIX_PARAM + FILTER_DATA_PREFIX_PARAM;
-
-    private static final String STORE_FILTER_DATA_PREFIX_PARAM =
-            STORE_PROPERTIES_PREFIX_PARAM + FILTER_DATA_PREFIX_PARAM;
+    private static final int PREFIX_LENGTH = 1;
+    private static final int FILTER_DATA_PREFIX_LENGTH = 3;
 
     public void decodeParameters(final Map<String, String> parameters,
                                  final Map<String, Object> loadProperties,
                                  final Map<String, Object> storeProperties) {
+        decodeParameters(parameters, loadProperties, storeProperties, null);
+    }
+
+    /**
+     * Decodes the custom load/store properties and the filter switches of a request.
+     *
+     * @param parameters      The parameters of the request.
+     * @param loadProperties  The map receiving the load properties.
+     * @param storeProperties The map receiving the store properties.
+     * @param filters         The map receiving whether each switched filter is on, by lower case
+     *                        name; null to ignore the switches.
+     */
+    public void decodeParameters(final Map<String, String> parameters,
+                                 final Map<String, Object> loadProperties,
+                                 final Map<String, Object> storeProperties,
+                                 final Map<String, Boolean> filters) {
 
         if (parameters == null || parameters.isEmpty()) {
             return;
@@ -34,11 +55,20 @@ public class ParameterDecoder {
         final Map<String, Object> storeFilterDataProperties = new HashMap<>();
 
         for (final Entry<String, String> param : parameters.entrySet()) {
-            final String key = param.getKey().toLowerCase(Locale.ROOT);
-            if (!this.addProperty(key, LOAD_FILTER_DATA_PREFIX_PARAM, param, loadFilterDataProperties) &&
-                    !this.addProperty(key, LOAD_PROPERTIES_PREFIX_PARAM, param, loadProperties) &&
-                    !this.addProperty(key, STORE_FILTER_DATA_PREFIX_PARAM, param, storeFilterDataProperties)) {
-                this.addProperty(key, STORE_PROPERTIES_PREFIX_PARAM, param, storeProperties);
+            final String key = param.getKey();
+            if (key.isEmpty()) {
+                continue;
+            }
+            final char first = key.charAt(0);
+            final boolean filterData = key.length() >= FILTER_DATA_PREFIX_LENGTH
+                    && isChar(key.charAt(1), 'f') && isChar(key.charAt(2), 'd');
+            if (isChar(first, 'l')) {
+                addProperty(key, filterData, param.getValue(), loadFilterDataProperties, loadProperties);
+            } else if (isChar(first, 's')) {
+                addProperty(key, filterData, param.getValue(), storeFilterDataProperties, storeProperties);
+            } else if (filters != null && isChar(first, 'f') && key.length() > PREFIX_LENGTH
+                    && toValue(param.getValue()) instanceof Boolean on) {
+                filters.put(key.substring(PREFIX_LENGTH).toLowerCase(Locale.ROOT), on);
             }
         }
 
@@ -51,37 +81,71 @@ public class ParameterDecoder {
         }
     }
 
-    private boolean addProperty(
+    private static boolean isChar(final char actual, final char lowerCase) {
+        // Only ASCII letters lower case to 'l', 's', 'f' or 'd'.
+        return actual == lowerCase || actual == Character.toUpperCase(lowerCase);
+    }
+
+    private static void addProperty(
             final String key,
-            final String prefix,
-            final Entry<String, String> param,
+            final boolean filterData,
+            final String value,
+            final Map<String, Object> filterDataProperties,
             final Map<String, Object> properties) {
-        if (key.startsWith(prefix)) {
-            this.addProperty(prefix, param, properties);
-            return true;
+
+        if (filterData) {
+            filterDataProperties.put(key.substring(FILTER_DATA_PREFIX_LENGTH), toValue(value));
+        } else {
+            properties.put(key.substring(PREFIX_LENGTH), toValue(value));
         }
-        return false;
     }
 
-    private void addProperty(
-            final String prefix,
-            final Entry<String, String> param,
-            final Map<String, Object> properties) {
+    private static Object toValue(final String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        final Integer ival = parseInt(value);
+        return ival == null ? value : ival;
+    }
+
+    /**
+     * Parses an integer exactly as {@link Integer#parseInt(String)} does (sign, any Unicode
+     * decimal digit, overflow), but returns null instead of throwing when the value isn't one.
+     */
+    private static Integer parseInt(final String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
 
-        final String name = param.getKey().substring(prefix.length());
-        final String value = param.getValue();
+        final int length = value.length();
+        final char first = value.charAt(0);
+        final boolean negative = first == '-';
+        int i = 0;
+        if (first < '0') {
+            if (!negative && first != '+' || length == 1) {
+                return null;
+            }
+            i++;
+        }
 
-        if ("true".equalsIgnoreCase(value)) {
-            properties.put(name, Boolean.TRUE);
-        } else if ("false".equalsIgnoreCase(value)) {
-            properties.put(name, Boolean.FALSE);
-        } else {
-            try {
-                final int ival = Integer.parseInt(value);
-                properties.put(name, ival);
-            } catch (NumberFormatException nfe) {
-                properties.put(name, value);
+        // Accumulates negatively, like Integer.parseInt, so MIN_VALUE doesn't overflow.
+        final int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        final int multmin = limit / 10;
+        int result = 0;
+        while (i < length) {
+            final int digit = Character.digit(value.charAt(i++), 10);
+            if (digit < 0 || result < multmin) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
             }
+            result -= digit;
         }
+        return negative ? result : -result;
     }
 }
@@ -5,7 +5,9 @@ import com.sun.star.awt.Size;
 import com.sun.star.beans.UnknownPropertyException;
 import com.sun.star.beans.XPropertySet;
 import com.sun.star.drawing.XDrawPage;
+import com.sun.star.drawing.XDrawPages;
 import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.drawing.XMasterPagesSupplier;
 import com.sun.star.drawing.XShape;
 import com.sun.star.lang.WrappedTargetException;
 import com.sun.star.lang.XComponent;
@@ -17,9 +19,21 @@ import org.jodconverter.local.office.utils.Draw;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Grows the slides of a presentation so that the shapes reaching out of them, on the slides or on
+ * their master pages, are shown; by 20% at most.
+ *
+ * <p>Every call on the document is a round trip to the office process, so the slides are scanned
+ * in a single pass, which stops as soon as the shapes reach the largest size the slides may grow
+ * to: the other shapes can't change the result. All the slides of a presentation have the same
+ * size, so resizing the first one resizes them all; the others are only resized one by one if the
+ * office process didn't do it.
+ */
 public class PptPageResizeFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(PptPageResizeFilter.class);
 
+    private static final double MAX_GROWTH = 1.2;
+
     @Override
     public void doFilter(OfficeContext context, XComponent document, FilterChain chain) throws Exception {
         boolean isImpress = Draw.isImpress(document);
@@ -29,66 +43,108 @@ public class PptPageResizeFilter implements Filter {
         }
 
         log.info("Adjusting PowerPoint document to fit images within slide bounds.");
-        XDrawPagesSupplier xDrawPagesSupplier = UnoRuntime.queryInterface(XDrawPagesSupplier.class, document);
-
-        int maxWidth = 0;
-        int maxHeight = 0;
-        Size originalSize = null;
+        XDrawPages slides = UnoRuntime.queryInterface(XDrawPagesSupplier.class, document).getDrawPages();
+        int slideCount = slides.getCount();
+        DocumentProfile.of(document).setSlideCount(slideCount);
+        if (slideCount == 0) {
+            chain.doFilter(context, document);
+            return;
+        }
 
-        for (int i = 0; i < xDrawPagesSupplier.getDrawPages().getCount(); i++) {
-            log.info("Processing slide {}", i + 1);
-            XDrawPage drawPage = UnoRuntime.queryInterface(XDrawPage.class, xDrawPagesSupplier.getDrawPages().getByIndex(i));
-            Size sizeIncludingImages = calculateSlideSizeIncludingImages(drawPage);
-            log.info("Calculated size including images for slide {}: width={}, height={}", i + 1, sizeIncludingImages.Width, sizeIncludingImages.Height);
+        XDrawPage firstSlide = UnoRuntime.queryInterface(XDrawPage.class, slides.getByIndex(0));
+        Size originalSize = getSize(firstSlide);
+        log.debug("Original size of the slides: width={}, height={}", originalSize.Width, originalSize.Height);
+        Bounds bounds = new Bounds(
+                (int) (originalSize.Width * MAX_GROWTH), (int) (originalSize.Height * MAX_GROWTH));
 
-            if (originalSize == null) {
-                originalSize = getOriginalSize(drawPage);
-                log.info("Original size of slide {}: width={}, height={}", i + 1, originalSize.Width, originalSize.Height);
+        XMasterPagesSupplier xMasterPagesSupplier = UnoRuntime.queryInterface(XMasterPagesSupplier.class, document);
+        if (xMasterPagesSupplier != null) {
+            XDrawPages masterPages = xMasterPagesSupplier.getMasterPages();
+            int masterPageCount = masterPages.getCount();
+            for (int i = 0; i < masterPageCount && !bounds.isFull(); i++) {
+                bounds.add(UnoRuntime.queryInterface(XDrawPage.class, masterPages.getByIndex(i)));
             }
-            maxWidth = Math.max(maxWidth, sizeIncludingImages.Width);
-            maxHeight = Math.max(maxHeight, sizeIncludingImages.Height);
         }
+        for (int i = 0; i < slideCount && !bounds.isFull(); i++) {
+            log.debug("Processing slide {}", i + 1);
+            bounds.add(i == 0 ? firstSlide : UnoRuntime.queryInterface(XDrawPage.class, slides.getByIndex(i)));
+        }
+        log.debug("Scanned {} shapes, reaching width={}, height={}", bounds.shapeCount, bounds.width, bounds.height);
+
+        if (bounds.width > originalSize.Width || bounds.height > originalSize.Height) {
+            // A dimension the shapes fit in is kept: the slides never shrink.
+            Size newSize = new Size(
+                    Math.max(originalSize.Width, Math.min(bounds.limitWidth, bounds.width)),
+                    Math.max(originalSize.Height, Math.min(bounds.limitHeight, bounds.height)));
+            log.info("Resizing slides to new dimensions: width={}, height={}", newSize.Width, newSize.Height);
 
-        if (originalSize != null && (maxWidth > originalSize.Width || maxHeight > originalSize.Height)) {
-            int newWidth = Math.min((int) (originalSize.Width * 1.2), maxWidth);
-            int newHeight = Math.min((int) (originalSize.Height * 1.2), maxHeight);
-            log.info("Resizing slides to new dimensions: width={}, height={}", newWidth, newHeight);
-
-            for (int i = 0; i < xDrawPagesSupplier.getDrawPages().getCount(); i++) {
-                XDrawPage xDrawPage = UnoRuntime.queryInterface(XDrawPage.class, xDrawPagesSupplier.getDrawPages().getByIndex(i));
-                XPropertySet slideProps = UnoRuntime.queryInterface(XPropertySet.class, xDrawPage);
-                slideProps.setPropertyValue("Width", newWidth);
-                slideProps.setPropertyValue("Height", newHeight);
-                log.info("Slide {} resized to width={}, height={}", i + 1, newWidth, newHeight);
+            resize(firstSlide, originalSize, newSize);
+            if (slideCount > 1) {
+                XDrawPage lastSlide = UnoRuntime.queryInterface(XDrawPage.class, slides.getByIndex(slideCount - 1));
+                Size lastSize = getSize(lastSlide);
+                if (lastSize.Width != newSize.Width || lastSize.Height != newSize.Height) {
+                    log.debug("Resizing the slides one by one");
+                    for (int i = 1; i < slideCount - 1; i++) {
+                        resize(UnoRuntime.queryInterface(XDrawPage.class, slides.getByIndex(i)), null, newSize);
+                    }
+                    resize(lastSlide, lastSize, newSize);
+                }
             }
         }
 
         log.info("Finished adjusting PowerPoint document.");
         chain.doFilter(context, document);
-        log.info("Finished PptPageResizeFilter.doFilter");
+        log.debug("Finished PptPageResizeFilter.doFilter");
     }
 
-    private static Size getOriginalSize(XDrawPage drawPage) throws UnknownPropertyException, WrappedTargetException {
+    private static Size getSize(XDrawPage drawPage) throws UnknownPropertyException, WrappedTargetException {
         XPropertySet slideProps = UnoRuntime.queryInterface(XPropertySet.class, drawPage);
         int w = (int) slideProps.getPropertyValue("Width");
         int h = (int) slideProps.getPropertyValue("Height");
         return new Size(w, h);
     }
 
-    private Size calculateSlideSizeIncludingImages(XDrawPage drawPage) throws Exception {
-        int maxWidth = 0;
-        int maxHeight = 0;
-        int shapeCount = drawPage.getCount();
+    /** Sets the dimensions of a slide that differ from its current size, if it is known. */
+    private static void resize(XDrawPage drawPage, Size currentSize, Size newSize) throws Exception {
+        XPropertySet slideProps = UnoRuntime.queryInterface(XPropertySet.class, drawPage);
+        if (currentSize == null || currentSize.Width != newSize.Width) {
+            slideProps.setPropertyValue("Width", newSize.Width);
+        }
+        if (currentSize == null || currentSize.Height != newSize.Height) {
+            slideProps.setPropertyValue("Height", newSize.Height);
+        }
+    }
+
+    /** How far the shapes scanned so far reach, from the top left corner of the slides. */
+    private static final class Bounds {
+
+        private final int limitWidth;
+        private final int limitHeight;
+        private int width;
+        private int height;
+        private int shapeCount;
 
-        for (int i = 0; i < shapeCount; i++) {
-            XShape shape = UnoRuntime.queryInterface(XShape.class, drawPage.getByIndex(i));
-            Point position = shape.getPosition();
-            Size size = shape.getSize();
+        private Bounds(int limitWidth, int limitHeight) {
+            this.limitWidth = limitWidth;
+            this.limitHeight = limitHeight;
+        }
 
-            maxWidth = Math.max(maxWidth, position.X + size.Width);
-            maxHeight = Math.max(maxHeight, position.Y + size.Height);
+        /** Tells whether the shapes reach the largest size the slides may grow to. */
+        private boolean isFull() {
+            return width >= limitWidth && height >= limitHeight;
         }
 
-        return new Size(maxWidth, maxHeight);
+        private void add(XDrawPage drawPage) throws Exception {
+            int count = drawPage.getCount();
+            for (int i = 0; i < count && !isFull(); i++) {
+                XShape shape = UnoRuntime.queryInterface(XShape.class, drawPage.getByIndex(i));
+                Point position = shape.getPosition();
+                Size size = shape.getSize();
+
+                width = Math.max(width, position.X + size.Width);
+                height = Math.max(height, position.Y + size.Height);
+                shapeCount++;
+            }
+        }
     }
 }
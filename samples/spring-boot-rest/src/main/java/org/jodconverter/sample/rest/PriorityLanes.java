@@ -0,0 +1,216 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jodconverter.core.office.OfficeException;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which task a pool of office processes starts next, so that interactive conversions,
+ * such as the previews of a UI, don't wait behind bulk ones, such as nightly batches. A task only
+ * reaches the office manager once one of its processes is free; until then it waits in the queue
+ * of its lane, and the interactive lane is always served first. Bulk tasks are not starved though:
+ * once {@code interactive-streak} interactive tasks started in a row while bulk tasks were
+ * waiting, the next process goes to the bulk lane.
+ *
+ * <p>Each lane holds at most its {@code queue-capacity} waiting tasks; the next ones are rejected
+ * with a {@link RejectedExecutionException}, answered with 429 by the controllers. A task waits no
+ * longer than the task queue timeout of the pool, as it would have in the office manager queue.
+ * The time tasks wait in their lane is recorded by the {@value #WAIT} histogram, the tasks waiting
+ * by the {@value #QUEUED} gauge and the rejected ones by the {@value #REJECTIONS} counter, all
+ * tagged with the pool and the lane.
+ */
+public final class PriorityLanes {
+
+    /** The name of the timer of the time tasks wait in their lane for an office process. */
+    public static final String WAIT = "office.lane.wait";
+
+    /** The name of the gauge of the tasks waiting in each lane. */
+    public static final String QUEUED = "office.lane.queued";
+
+    /** The name of the counter of the tasks rejected because their lane was full. */
+    public static final String REJECTIONS = "office.lane.rejections";
+
+    /** The priority of a conversion. */
+    public enum Lane {
+        /** Conversions a user is waiting for, served first. */
+        INTERACTIVE,
+        /** Conversions nobody is waiting for, served when no interactive one waits. */
+        BULK;
+
+        /**
+         * Gets the lane named by a request, case insensitively.
+         *
+         * @param value The name of the lane, "interactive" or "bulk".
+         * @return The lane, or null if the value doesn't name one.
+         */
+        public static Lane parse(final String value) {
+            if (value != null) {
+                for (final Lane lane : values()) {
+                    if (lane.name().equalsIgnoreCase(value.trim())) {
+                        return lane;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String pool;
+    private final int processes;
+    private final int interactiveStreak;
+    private final Lane defaultLane;
+    private final long queueTimeout;
+    private final Map<Lane, LaneQueue> queues = new EnumMap<>(Lane.class);
+    private int running; // Guarded by this.
+    private int streak; // Guarded by this.
+
+    /**
+     * Creates the lanes of a pool.
+     *
+     * @param pool         The name of the pool, tagging the meters.
+     * @param processes    The number of office processes of the pool.
+     * @param queueTimeout The longest time, in milliseconds, a task waits for an office process.
+     * @param settings     The default lane, queue capacities and starvation protection.
+     * @param registry     The registry of the meters.
+     */
+    public PriorityLanes(
+            final String pool,
+            final int processes,
+            final long queueTimeout,
+            final ConverterProperties.Lanes settings,
+            final MeterRegistry registry) {
+        this.pool = pool;
+        this.processes = Math.max(1, processes);
+        this.queueTimeout = queueTimeout;
+        this.interactiveStreak = settings.getInteractiveStreak();
+        this.defaultLane = settings.getDefaultLane();
+        queues.put(Lane.INTERACTIVE, new LaneQueue(pool, Lane.INTERACTIVE, settings.getInteractiveQueueCapacity(), registry));
+        queues.put(Lane.BULK, new LaneQueue(pool, Lane.BULK, settings.getBulkQueueCapacity(), registry));
+    }
+
+    /**
+     * Waits for an office process of the pool to be free for a task, which must then call
+     * {@link #release()} once done.
+     *
+     * @param lane The lane of the task, null for the default one.
+     * @throws OfficeException If no process is free before the queue timeout, or if the thread is
+     *                         interrupted while waiting.
+     * @throws RejectedExecutionException If the lane is full.
+     */
+    public void acquire(final Lane lane) throws OfficeException {
+        final LaneQueue queue = queues.get(lane == null ? defaultLane : lane);
+        final long enqueued = System.nanoTime();
+        synchronized (this) {
+            if (running < processes && queues.values().stream().allMatch(LaneQueue::isEmpty)) {
+                running++;
+            } else {
+                if (queue.waiters.size() >= queue.capacity) {
+                    queue.rejections.increment();
+                    throw new RejectedExecutionException(
+                            "The " + queue.tag + " lane of the " + pool + " office pool is full");
+                }
+                final Waiter waiter = new Waiter();
+                queue.waiters.add(waiter);
+                final long deadline = enqueued + TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+                try {
+                    while (!waiter.started) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            queue.waiters.remove(waiter);
+                            throw new OfficeException("Task did not start within " + queueTimeout
+                                    + " ms in the " + queue.tag + " lane of the " + pool + " office pool");
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (InterruptedException ex) {
+                    if (waiter.started) {
+                        release();
+                    } else {
+                        queue.waiters.remove(waiter);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new OfficeException("Interrupted while waiting for an office process", ex);
+                }
+            }
+        }
+        queue.wait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+    }
+
+    /** Frees the office process of a task, for the next waiting one. */
+    public synchronized void release() {
+        running--;
+        while (running < processes) {
+            final Lane lane = next();
+            if (lane == null) {
+                break;
+            }
+            queues.get(lane).waiters.remove().started = true;
+            running++;
+        }
+        notifyAll();
+    }
+
+    /** Picks the lane of the next task to start, null if no task waits. */
+    private Lane next() {
+        final boolean interactive = !queues.get(Lane.INTERACTIVE).isEmpty();
+        final boolean bulk = !queues.get(Lane.BULK).isEmpty();
+        if (interactive && (!bulk || streak < interactiveStreak)) {
+            if (bulk) {
+                streak++;
+            }
+            return Lane.INTERACTIVE;
+        }
+        streak = 0;
+        return bulk ? Lane.BULK : null;
+    }
+
+    /** A task waiting for an office process. */
+    private static final class Waiter {
+        private boolean started; // Guarded by the lanes.
+    }
+
+    /** The tasks waiting in a lane, and its meters. */
+    private static final class LaneQueue {
+
+        private final String tag;
+        private final int capacity;
+        private final Queue<Waiter> waiters = new ArrayDeque<>(); // Guarded by the lanes.
+        private final Timer wait;
+        private final Counter rejections;
+
+        private LaneQueue(final String pool, final Lane lane, final int capacity, final MeterRegistry registry) {
+            this.tag = lane.name().toLowerCase(Locale.ROOT);
+            this.capacity = capacity;
+            this.wait = Timer.builder(WAIT)
+                    .description("Time a task waited in its lane for an office process")
+                    .tag("pool", pool)
+                    .tag("lane", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.rejections = Counter.builder(REJECTIONS)
+                    .description("Tasks rejected because their lane was full")
+                    .tag("pool", pool)
+                    .tag("lane", tag)
+                    .register(registry);
+            Gauge.builder(QUEUED, waiters, Queue::size)
+                    .description("Tasks waiting in a lane for an office process")
+                    .tag("pool", pool)
+                    .tag("lane", tag)
+                    .register(registry);
+        }
+
+        private boolean isEmpty() {
+            return waiters.isEmpty();
+        }
+    }
+}
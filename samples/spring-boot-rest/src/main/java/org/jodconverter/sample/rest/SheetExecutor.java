@@ -0,0 +1,228 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the per-sheet work of {@link ExcelSinglePageFilter}. Sheets used to be processed on the
+ * JVM-wide common fork-join pool, one task per sheet, so a workbook of a few hundred sheets
+ * starved everything else using that pool. They now run on a few named threads of their own; when
+ * the bounded queue of those threads is full, the filter thread processes the sheet itself, as it
+ * does once the executor is shut down, so that a document being filtered is always done.
+ *
+ * <p>All the sheets of a document are modified through the same UNO bridge, so processing them
+ * in parallel doesn't necessarily pay off. In {@link Mode#AUTO} mode, only documents with at least
+ * a threshold of sheets are processed in parallel. The time spent is recorded per mode, see
+ * {@link #getStats()}: comparing the sheet time to the elapsed time of parallel documents shows
+ * whether parallel UNO calls actually speed things up. The same times are published, tagged with
+ * the mode, by the {@value #ELAPSED} timer, counting documents, and the {@value #SHEET_TIME} timer,
+ * counting sheets, once the executor is bound to a registry.
+ */
+public class SheetExecutor implements MeterBinder {
+
+    /** The name of the timer of the time from the first sheet of each document to its last one. */
+    public static final String ELAPSED = "converter.sheets.elapsed";
+
+    /** The name of the timer of the time spent on each sheet. */
+    public static final String SHEET_TIME = "converter.sheets.time";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SheetExecutor.class);
+
+    /** An executor processing the sheets one after the other on the filter thread. */
+    public static final SheetExecutor SERIAL = new SheetExecutor(Mode.SERIAL, 0, null);
+
+    /** How the sheets of a document are processed. */
+    public enum Mode {
+        /** In parallel if the document has enough sheets, serially otherwise. */
+        AUTO,
+        /** One after the other, on the filter thread. */
+        SERIAL,
+        /** In parallel, on the threads of the executor. */
+        PARALLEL
+    }
+
+    private final Mode mode;
+    private final int parallelThreshold;
+    private final ThreadPoolExecutor executor;
+    private final Counters serial = new Counters();
+    private final Counters parallel = new Counters();
+
+    /**
+     * Creates a new executor.
+     *
+     * @param properties The settings of the mode, threads and queue.
+     */
+    public SheetExecutor(final ConverterProperties.Sheets properties) {
+        this(properties.getMode(), properties.getParallelThreshold(), properties.getMode() == Mode.SERIAL
+                ? null : createThreadPool(properties.getThreads(), properties.getQueueCapacity()));
+    }
+
+    private SheetExecutor(final Mode mode, final int parallelThreshold, final ThreadPoolExecutor executor) {
+        this.mode = mode;
+        this.parallelThreshold = parallelThreshold;
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor createThreadPool(final int threads, final int queueCapacity) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory("sheet-filter-"),
+                // Unlike CallerRunsPolicy, also runs the sheets submitted after shutdown, whose
+                // futures would never complete otherwise.
+                (task, pool) -> task.run());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Processes the sheets of a document and waits for all of them to be processed.
+     *
+     * @param sheetTasks The work to do, one task per sheet.
+     */
+    public void runAll(final List<Runnable> sheetTasks) {
+        final boolean inParallel = isParallel(sheetTasks.size());
+        final Counters counters = inParallel ? parallel : serial;
+        final LongAdder sheetNanos = new LongAdder();
+
+        final long start = System.nanoTime();
+        if (inParallel) {
+            CompletableFuture.allOf(sheetTasks.stream()
+                            .map(task -> CompletableFuture.runAsync(() -> timed(task, sheetNanos), executor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        } else {
+            sheetTasks.forEach(task -> timed(task, sheetNanos));
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        counters.record(sheetTasks.size(), elapsedNanos, sheetNanos.sum());
+        LOGGER.info("Processed {} sheets {} in {} ms, {} ms of sheet work",
+                sheetTasks.size(), inParallel ? "in parallel" : "serially",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(sheetNanos.sum()));
+    }
+
+    /* default */ boolean isParallel(final int sheetCount) {
+        return switch (mode) {
+            case SERIAL -> false;
+            case PARALLEL -> sheetCount > 1;
+            case AUTO -> sheetCount > 1 && sheetCount >= parallelThreshold;
+        };
+    }
+
+    private static void timed(final Runnable task, final LongAdder sheetNanos) {
+        final long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            sheetNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the time spent processing sheets so far, per mode.
+     *
+     * @return The statistics.
+     */
+    public Stats getStats() {
+        return new Stats(serial.snapshot(), parallel.snapshot());
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        bind(registry, "serial", serial);
+        bind(registry, "parallel", parallel);
+    }
+
+    private static void bind(final MeterRegistry registry, final String mode, final Counters counters) {
+        FunctionTimer.builder(ELAPSED, counters,
+                        c -> c.documents.sum(), c -> c.elapsedNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time from the first sheet of each document to its last one")
+                .tag("mode", mode)
+                .register(registry);
+        FunctionTimer.builder(SHEET_TIME, counters,
+                        c -> c.sheets.sum(), c -> c.sheetNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time the filters spent on each sheet")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+    /**
+     * Stops the threads of the executor once the sheets in its queue are processed, giving them a
+     * few seconds.
+     */
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("Sheets still being processed after shutdown");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Time spent processing sheets, per mode.
+     *
+     * @param serial   The documents whose sheets were processed one after the other.
+     * @param parallel The documents whose sheets were processed in parallel.
+     */
+    public record Stats(ModeStats serial, ModeStats parallel) {
+    }
+
+    /**
+     * Time spent processing the sheets of the documents processed in one mode.
+     *
+     * @param documents    The number of documents.
+     * @param sheets       The number of sheets.
+     * @param elapsedNanos The time from the first sheet of each document to its last one.
+     * @param sheetNanos   The time spent on each sheet, summed.
+     */
+    public record ModeStats(long documents, long sheets, long elapsedNanos, long sheetNanos) {
+
+        /**
+         * Gets how much faster the sheets were processed than one after the other: about 1 when
+         * the threads only wait for each other, up to the number of threads otherwise.
+         *
+         * @return The speedup, 0 if no document was processed.
+         */
+        public double speedup() {
+            return elapsedNanos == 0 ? 0 : (double) sheetNanos / elapsedNanos;
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder documents = new LongAdder();
+        private final LongAdder sheets = new LongAdder();
+        private final LongAdder elapsedNanos = new LongAdder();
+        private final LongAdder sheetNanos = new LongAdder();
+
+        private void record(final int sheetCount, final long elapsed, final long sheetTime) {
+            documents.increment();
+            sheets.add(sheetCount);
+            elapsedNanos.add(elapsed);
+            sheetNanos.add(sheetTime);
+        }
+
+        private ModeStats snapshot() {
+            return new ModeStats(documents.sum(), sheets.sum(), elapsedNanos.sum(), sheetNanos.sum());
+        }
+    }
+}
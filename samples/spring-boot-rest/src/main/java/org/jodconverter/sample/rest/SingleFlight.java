@@ -0,0 +1,160 @@
+package org.jodconverter.sample.rest;
+
+import org.apache.commons.io.FilenameUtils;
+import org.jodconverter.core.office.OfficeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces identical work running at the same time. The first caller of a key (the leader) runs
+ * the work; callers arriving with the same key before it completes wait for it and all receive its
+ * result, or its failure.
+ *
+ * <p>The work writes its result to a file shared by the flight. Once the work is done, every
+ * participant gets its own copy through a hard link, the last one simply taking the shared file
+ * over, so the result is never copied when there is no contention.
+ *
+ * @param <K> The type of the keys identifying identical work.
+ */
+public final class SingleFlight<K> {
+
+    /** The prefix of the shared result files, created next to the output file of the leader. */
+    /* default */ static final String RESULT_PREFIX = "flight-";
+
+    /** Work producing a file. */
+    @FunctionalInterface
+    public interface Work {
+
+        /**
+         * Runs the work.
+         *
+         * @param outputFile The file receiving the result.
+         * @throws OfficeException If the work fails.
+         * @throws IOException     If the result cannot be written.
+         */
+        void run(File outputFile) throws OfficeException, IOException;
+    }
+
+    private final ConcurrentHashMap<K, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Runs some work, or waits for the identical work already running.
+     *
+     * @param key        The key identifying the work.
+     * @param outputFile The file receiving the result, replaced if it exists.
+     * @param work       The work to run if no identical work is running.
+     * @throws OfficeException If the work fails.
+     * @throws IOException     If the result cannot be written.
+     */
+    public void execute(final K key, final File outputFile, final Work work)
+            throws OfficeException, IOException {
+
+        final Flight[] created = new Flight[1];
+        final Flight flight = flights.compute(key, (k, existing) -> {
+            final Flight joined = existing == null ? created[0] = new Flight() : existing;
+            synchronized (joined) {
+                joined.participants++;
+            }
+            return joined;
+        });
+
+        if (flight == created[0]) {
+            lead(key, flight, outputFile, work);
+        }
+
+        try {
+            flight.done.join();
+        } catch (CompletionException ex) {
+            release(flight, null);
+            throw rethrow(ex.getCause());
+        }
+        release(flight, outputFile.toPath());
+    }
+
+    /**
+     * Gets the number of callers currently sharing the work of a key.
+     *
+     * @param key The key identifying the work.
+     * @return The number of participants, 0 if no work is running for the key.
+     */
+    /* default */ int getParticipants(final K key) {
+        final Flight flight = flights.get(key);
+        if (flight == null) {
+            return 0;
+        }
+        synchronized (flight) {
+            return flight.participants;
+        }
+    }
+
+    private void lead(final K key, final Flight flight, final File outputFile, final Work work) {
+        try {
+            flight.result = Files.createTempFile(
+                    outputFile.getAbsoluteFile().getParentFile().toPath(),
+                    RESULT_PREFIX,
+                    "." + FilenameUtils.getExtension(outputFile.getName()));
+            work.run(flight.result.toFile());
+        } catch (OfficeException | IOException | RuntimeException ex) {
+            flight.failure = ex;
+        } finally {
+            // No one can join once the flight is removed, so the participant count is final.
+            flights.remove(key, flight);
+        }
+        if (flight.failure == null) {
+            flight.done.complete(null);
+        } else {
+            flight.done.completeExceptionally(flight.failure);
+        }
+    }
+
+    private void release(final Flight flight, final Path outputFile) throws IOException {
+        // Serialized, so the last participant cannot take the result over while others still link it.
+        synchronized (flight) {
+            final boolean last = --flight.participants == 0;
+            if (flight.result == null) {
+                return;
+            }
+            if (outputFile == null) {
+                if (last) {
+                    Files.deleteIfExists(flight.result);
+                }
+            } else if (last) {
+                Files.move(flight.result, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(outputFile);
+                try {
+                    Files.createLink(outputFile, flight.result);
+                } catch (UnsupportedOperationException | IOException ex) {
+                    Files.copy(flight.result, outputFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable failure) throws OfficeException, IOException {
+        if (failure instanceof OfficeException) {
+            throw (OfficeException) failure;
+        }
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new OfficeException("Shared conversion failed", failure);
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int participants; // Guarded by this.
+        private Path result;
+        private Exception failure;
+    }
+}
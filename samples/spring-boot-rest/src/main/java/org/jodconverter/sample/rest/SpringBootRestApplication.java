@@ -2,16 +2,24 @@ package org.jodconverter.sample.rest;
 
 import java.util.*;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.*;
 import io.swagger.v3.oas.models.servers.Server;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.office.LocalOfficeManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /** Main application. */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringBootRestApplication {
 
   /**
@@ -23,6 +31,35 @@ public class SpringBootRestApplication {
     SpringApplication.run(SpringBootRestApplication.class, args);
   }
 
+  @Configuration
+  static class MetricsConfig {
+
+    /**
+     * Measures the tasks of the office manager, see {@link InstrumentedOfficeManager}. The
+     * office manager is created by the JODConverter starter, so it is wrapped once created; the
+     * meter registry is only looked up then, not when the post processor is registered. It is
+     * the small pool of {@link OfficePools}, which instruments the large one itself.
+     */
+    @Bean
+    public static BeanPostProcessor officeManagerMetrics(
+        final ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${jodconverter.local.max-tasks-per-process:"
+                + LocalOfficeManager.DEFAULT_MAX_TASKS_PER_PROCESS
+                + "}")
+            final int maxTasksPerProcess) {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+          if (bean instanceof OfficeManager && !(bean instanceof InstrumentedOfficeManager)) {
+            return new InstrumentedOfficeManager(
+                (OfficeManager) bean, meterRegistry.getObject(), maxTasksPerProcess, "small");
+          }
+          return bean;
+        }
+      };
+    }
+  }
+
   @Configuration
   static class OpenApiConfig {
 
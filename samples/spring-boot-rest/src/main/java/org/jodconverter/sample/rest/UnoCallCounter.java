@@ -0,0 +1,164 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.uno.Any;
+import com.sun.star.uno.IQueryInterface;
+import com.sun.star.uno.Type;
+import com.sun.star.uno.TypeClass;
+import com.sun.star.uno.UnoRuntime;
+import com.sun.star.uno.XInterface;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the UNO calls made on an object and on every UNO object reached from it, each of them
+ * being a round trip to the office process. The objects are wrapped in proxies implementing the
+ * same interfaces, which count each call before delegating it and wrap the UNO objects it returns,
+ * including the ones returned by {@code queryInterface}. Wrapped objects passed as arguments are
+ * unwrapped, so the office process only ever sees its own objects.
+ *
+ * <p>Querying an interface the object already implements is resolved locally and isn't counted.
+ * Objects only reachable through the fields of a returned struct aren't wrapped.
+ */
+final class UnoCallCounter {
+
+    private final LongAdder calls = new LongAdder();
+
+    /**
+     * Wraps an object so that the calls made on it are counted.
+     *
+     * @param type   The interface the object is used as.
+     * @param object The object to wrap.
+     * @param <T>    The type of the interface.
+     * @return The wrapped object, null if the object is null.
+     */
+    <T> T count(final Class<T> type, final T object) {
+        return type.cast(wrap(object));
+    }
+
+    /**
+     * Gets the number of UNO calls made so far.
+     *
+     * @return The call count.
+     */
+    long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Gets the object a counted object wraps.
+     *
+     * @param object An object, counted or not.
+     * @return The wrapped object, or the object itself if it isn't counted.
+     */
+    static Object unwrap(final Object object) {
+        if (object != null
+                && Proxy.isProxyClass(object.getClass())
+                && Proxy.getInvocationHandler(object) instanceof Counted counted) {
+            return counted.target;
+        }
+        if (object instanceof Any any && any.getType().getTypeClass() == TypeClass.INTERFACE) {
+            return new Any(any.getType(), unwrap(any.getObject()));
+        }
+        if (object instanceof Object[] array && isUnoInterface(array.getClass().getComponentType())) {
+            final Object[] unwrapped = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+            for (int i = 0; i < array.length; i++) {
+                unwrapped[i] = unwrap(array[i]);
+            }
+            return unwrapped;
+        }
+        return object;
+    }
+
+    private Object wrap(final Object object) {
+        if (object instanceof XInterface || object instanceof IQueryInterface) {
+            if (Proxy.isProxyClass(object.getClass()) && Proxy.getInvocationHandler(object) instanceof Counted) {
+                return object;
+            }
+            return Proxy.newProxyInstance(
+                    IQueryInterface.class.getClassLoader(), getInterfaces(object), new Counted(object));
+        }
+        if (object instanceof Any any && any.getType().getTypeClass() == TypeClass.INTERFACE) {
+            return new Any(any.getType(), wrap(any.getObject()));
+        }
+        if (object instanceof Object[] array && isUnoInterface(array.getClass().getComponentType())) {
+            final Object[] wrapped = (Object[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+            for (int i = 0; i < array.length; i++) {
+                wrapped[i] = wrap(array[i]);
+            }
+            return wrapped;
+        }
+        return object;
+    }
+
+    private static boolean isUnoInterface(final Class<?> type) {
+        return type.isInterface() && XInterface.class.isAssignableFrom(type);
+    }
+
+    private static Class<?>[] getInterfaces(final Object object) {
+        final Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass()) {
+            for (final Class<?> implemented : type.getInterfaces()) {
+                if (Modifier.isPublic(implemented.getModifiers())) {
+                    interfaces.add(implemented);
+                }
+            }
+        }
+        interfaces.add(IQueryInterface.class);
+        return interfaces.toArray(new Class<?>[0]);
+    }
+
+    /** Counts and delegates the calls made on a wrapped object. */
+    private final class Counted implements InvocationHandler {
+
+        private final Object target;
+
+        private Counted(final Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> target.equals(unwrap(args[0]));
+                    case "hashCode" -> target.hashCode();
+                    default -> target.toString();
+                };
+            }
+            if (method.getDeclaringClass() == IQueryInterface.class) {
+                return switch (method.getName()) {
+                    case "queryInterface" -> queryInterface(proxy, (Type) args[0]);
+                    case "isSame" -> UnoRuntime.areSame(target, unwrap(args[0]));
+                    default -> UnoRuntime.generateOid(target);
+                };
+            }
+
+            final Object[] unwrappedArgs = args == null ? null : new Object[args.length];
+            for (int i = 0; args != null && i < args.length; i++) {
+                unwrappedArgs[i] = unwrap(args[i]);
+            }
+            calls.increment();
+            try {
+                return wrap(method.invoke(target, unwrappedArgs));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object queryInterface(final Object proxy, final Type type) {
+            if (type.getZClass() != null && type.getZClass().isInstance(proxy)) {
+                return proxy;
+            }
+            calls.increment();
+            return wrap(UnoRuntime.queryInterface(type, target));
+        }
+    }
+}
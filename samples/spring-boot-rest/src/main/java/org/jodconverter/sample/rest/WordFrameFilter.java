@@ -9,7 +9,6 @@ import com.sun.star.container.XNameAccess;
 import com.sun.star.lang.WrappedTargetException;
 import com.sun.star.lang.XComponent;
 import com.sun.star.text.XText;
-import com.sun.star.text.XTextContent;
 import com.sun.star.text.XTextDocument;
 import com.sun.star.text.XTextFrame;
 import com.sun.star.text.XTextFramesSupplier;
@@ -23,6 +22,10 @@ import static com.sun.star.uno.UnoRuntime.queryInterface;
 
 /**
  * 一个实现Filter接口的类，用于在JOD转换过程中调整Word文档中frame的背景色
+ *
+ * <p>Only the frames with a transparent background have their paragraphs read, and only up to the
+ * first one having a color. Requests can leave the filter out with {@code fWordFrameFilter=false},
+ * see {@link ParameterDecoder}.
  */
 public class WordFrameFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(WordFrameFilter.class);
@@ -38,7 +41,8 @@ public class WordFrameFilter implements Filter {
         }
 
         // 调用方法用段落颜色覆盖frame颜色
-        overrideFrameColorWithParagraphColor(xTextDocument);
+        int frameCount = overrideFrameColorWithParagraphColor(xTextDocument);
+        DocumentProfile.of(document).setFrameCount(frameCount);
 
         // 继续执行过滤链
         chain.doFilter(context, document);
@@ -46,8 +50,10 @@ public class WordFrameFilter implements Filter {
 
     /**
      * 用段落颜色覆盖frame的背景色
+     *
+     * @return The number of frames of the document.
      */
-    public void overrideFrameColorWithParagraphColor(XTextDocument xTextDocument) throws Exception {
+    public int overrideFrameColorWithParagraphColor(XTextDocument xTextDocument) throws Exception {
         // 获取 XTextFramesSupplier 接口
         XTextFramesSupplier xTextFramesSupplier = queryInterface(XTextFramesSupplier.class, xTextDocument);
 
@@ -61,62 +67,74 @@ public class WordFrameFilter implements Filter {
                 // 获取每个frame
                 XTextFrame xTextFrame = queryInterface(XTextFrame.class, xNameAccess.getByName(frameName));
                 XPropertySet xProps = queryInterface(XPropertySet.class, xTextFrame);
+
+                // The background is read first: frames already opaque are left without reading their text.
+                boolean noBackColor = (int) xProps.getPropertyValue("BackColor") < 0;
+                boolean noBackColorRGB = (int) xProps.getPropertyValue("BackColorRGB") < 0;
+                boolean transparent = (Byte) xProps.getPropertyValue("BackColorTransparency") == 100;
+                if (!noBackColor && !noBackColorRGB && !transparent) {
+                    log.debug("Frame '{}' already has an opaque background. Skipping.", frameName);
+                    continue;
+                }
+
                 Object firstParagraphBackColor = getFirstParagraphBackColor(xTextFrame.getText());
 
                 // Skip if no valid paragraph background color is found
                 if (firstParagraphBackColor == null) {
-                    log.info("No valid paragraph background color found for frame '{}'. Skipping.", frameName);
+                    log.debug("No valid paragraph background color found for frame '{}'. Skipping.", frameName);
                     continue;
                 }
 
                 // 如果frame的背景色是负值，则用段落颜色覆盖
-                if ((int) xProps.getPropertyValue("BackColor") < 0) {
+                if (noBackColor) {
                     xProps.setPropertyValue("BackColor", firstParagraphBackColor);
                 }
                 // 如果frame的背景色RGB是负值，则用段落颜色覆盖
-                if ((int) xProps.getPropertyValue("BackColorRGB") < 0) {
+                if (noBackColorRGB) {
                     xProps.setPropertyValue("BackColorRGB", firstParagraphBackColor);
                 }
                 // 如果frame的背景透明度为100%，则设置为0%
-                if ((Byte) xProps.getPropertyValue("BackColorTransparency") == 100) {
+                if (transparent) {
                     xProps.setPropertyValue("BackColorTransparency", 0);
                 }
             } catch (Exception e) {
                 log.error("Error handling frame '{}'", frameName, e);
             }
         }
+        return frameNames.length;
     }
 
     /**
      * 获取段落的背景色
+     *
+     * <p>The content is enumerated up to the first paragraph, without reading its text; contents of
+     * other kinds (such as tables) are passed over in a single call each. A first paragraph without
+     * a color (-1, transparent) gives no color.
      */
     private static Integer getFirstParagraphBackColor(XText xText)
-            throws WrappedTargetException, NoSuchElementException, UnknownPropertyException {
+            throws WrappedTargetException, NoSuchElementException {
         XEnumerationAccess xEnumerationAccess = queryInterface(XEnumerationAccess.class, xText);
         XEnumeration enumeration = xEnumerationAccess.createEnumeration();
 
         // Traverse the content to find the first paragraph
+        int paragraph = 0;
         while (enumeration.hasMoreElements()) {
-            XTextContent xTextContent = queryInterface(XTextContent.class, enumeration.nextElement());
-            if (xTextContent != null) {
-                log.info("Found paragraph inside: {}", xTextContent.getAnchor().getString());
-
-                XPropertySet xParagraphProperties = queryInterface(XPropertySet.class, xTextContent);
-
-                // Check if the property exists
-                if (xParagraphProperties.getPropertySetInfo().hasPropertyByName("ParaBackColor")) {
-                    Object paraBackColor = xParagraphProperties.getPropertyValue("ParaBackColor");
-                    log.info("This paragraph's back color is {}", paraBackColor);
-
-                    // Return the background color of the first paragraph
-                    return (int) paraBackColor;
-                } else {
-                    log.warn("Property 'ParaBackColor' does not exist for this paragraph. Skipping.");
-                }
+            XPropertySet xParagraphProperties = queryInterface(XPropertySet.class, enumeration.nextElement());
+            paragraph++;
+            if (xParagraphProperties == null) {
+                continue;
+            }
+            try {
+                int paraBackColor = (int) xParagraphProperties.getPropertyValue("ParaBackColor");
+                log.debug("Paragraph {} back color is {}", paragraph, paraBackColor);
+                // Return the background color of the first paragraph
+                return paraBackColor >= 0 ? paraBackColor : null;
+            } catch (UnknownPropertyException e) {
+                log.debug("Property 'ParaBackColor' does not exist for paragraph {}. Skipping.", paragraph);
             }
         }
 
-        log.info("No paragraph found, will return null");
+        log.debug("No paragraph found, will return null");
         return null;
     }
 }
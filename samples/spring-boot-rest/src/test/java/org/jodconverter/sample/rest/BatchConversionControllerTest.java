@@ -0,0 +1,198 @@
+package org.jodconverter.sample.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.OfficeTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchConversionControllerTest {
+
+    private static final int OFFICE_PROCESSES = 2;
+
+    @TempDir
+    Path workDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchConversionService batchService;
+    private BatchConversionController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setEnabled(false);
+        properties.getBatch().setMaxExpandedSize(DataSize.ofBytes(100));
+
+        batchService = new BatchConversionService(
+                new DocumentConversionService(
+                        new ParallelOfficeManager(), new ConversionCache(properties), properties, new SimpleMeterRegistry()),
+                new ParameterDecoder(),
+                new ConversionWorkspace(properties),
+                objectMapper,
+                properties,
+                new int[] {2002, 2003});
+        controller = new BatchConversionController(batchService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    void partsAreConvertedInParallelIntoOneArchive() throws Exception {
+        final Map<String, byte[]> archive = convert(List.of(
+                part("a.txt", "first"), part("b.txt", "second"), part("c.txt", "third"), part("d.txt", "fourth")));
+
+        assertEquals(OFFICE_PROCESSES, batchService.getParallelism());
+        assertEquals("first", new String(archive.get("a.pdf")));
+        assertEquals("second", new String(archive.get("b.pdf")));
+        assertEquals("third", new String(archive.get("c.pdf")));
+        assertEquals("fourth", new String(archive.get("d.pdf")));
+        assertWorkDirIsEmpty();
+    }
+
+    @Test
+    void zipEntriesAreConvertedAndListedInTheManifest() throws Exception {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            for (final String[] entry : new String[][] {
+                    {"docs/report.txt", "report"}, {"docs/broken.txt", "broken"}, {"../escape.txt", "escape"}}) {
+                out.putNextEntry(new ZipEntry(entry[0]));
+                out.write(entry[1].getBytes());
+                out.closeEntry();
+            }
+            out.putNextEntry(new ZipEntry("docs/"));
+            out.closeEntry();
+        }
+
+        final Map<String, byte[]> archive = convert(List.of(
+                new MockMultipartFile("data", "batch.zip", "application/zip", zip.toByteArray()),
+                part("report.txt", "second report")));
+
+        assertEquals("report", new String(archive.get("docs/report.pdf")));
+        assertEquals("second report", new String(archive.get("report.pdf")));
+        assertFalse(archive.containsKey("docs/broken.pdf"));
+        assertTrue(archive.keySet().stream().noneMatch(name -> name.contains("..")));
+
+        final JsonNode manifest = objectMapper.readTree(archive.get(BatchConversionService.MANIFEST_NAME));
+        assertEquals(4, manifest.size());
+        assertEquals("docs/report.txt", manifest.get(0).get("source").asText());
+        assertEquals("CONVERTED", manifest.get(0).get("status").asText());
+        assertEquals("docs/broken.txt", manifest.get(1).get("source").asText());
+        assertEquals("FAILED", manifest.get(1).get("status").asText());
+        assertTrue(manifest.get(1).get("output").isNull());
+        assertEquals("escape.txt", manifest.get(2).get("source").asText());
+        assertEquals("report.pdf", manifest.get(3).get("output").asText());
+        assertWorkDirIsEmpty();
+    }
+
+    @Test
+    void archiveExpandingBeyondTheLimitIsRejected() throws Exception {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            for (final String name : List.of("first.txt", "second.txt")) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(new byte[60]);
+                out.closeEntry();
+            }
+        }
+
+        final ResponseEntity<StreamingResponseBody> response = controller.convertUsingPath(
+                List.of(new MockMultipartFile("data", "batch.zip", "application/zip", zip.toByteArray())),
+                "pdf", Map.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertWorkDirIsEmpty();
+    }
+
+    @Test
+    void emptyBatchIsRejected() {
+        final ResponseEntity<StreamingResponseBody> response =
+                controller.convertUsingPath(List.of(part("empty.txt", "")), "pdf", Map.of());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private Map<String, byte[]> convert(final List<MultipartFile> parts) throws IOException {
+        final ResponseEntity<StreamingResponseBody> response = controller.convertUsingPath(parts, "pdf", Map.of());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static MockMultipartFile part(final String fileName, final String content) {
+        return new MockMultipartFile("data", fileName, null, content.getBytes());
+    }
+
+    private void assertWorkDirIsEmpty() throws IOException {
+        try (var files = Files.list(workDir)) {
+            assertEquals(0, files.count(), "Work files should be deleted once the archive is sent");
+        }
+    }
+
+    /**
+     * Echoes documents, but only when as many tasks as office processes run at the same time, so
+     * a batch converted sequentially fails. Documents whose content is "broken" fail to convert.
+     */
+    private static final class ParallelOfficeManager extends EchoOfficeManager {
+        private final CyclicBarrier barrier = new CyclicBarrier(OFFICE_PROCESSES);
+
+        @Override
+        public void execute(final OfficeTask task) throws OfficeException {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException ex) {
+                throw new OfficeException("Tasks are not executed in parallel", ex);
+            }
+            final SourceDocumentSpecs source = getSpecs(task, SourceDocumentSpecs.class);
+            try {
+                if ("broken".equals(Files.readString(source.getFile().toPath()))) {
+                    throw new OfficeException("Office process crashed");
+                }
+            } catch (IOException ex) {
+                throw new OfficeException("Cannot read " + source.getFile(), ex);
+            }
+            super.execute(task);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionCacheTest {
+
+    @TempDir
+    Path workDir;
+
+    private ConverterProperties properties;
+    private TestClock clock;
+    private EchoOfficeManager officeManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        clock = new TestClock();
+        officeManager = new EchoOfficeManager();
+    }
+
+    @Test
+    void identicalConversionIsServedFromCache() throws Exception {
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        final File input = createFile("input.txt", "same report");
+
+        final File first = convert(service, input, Map.of());
+        final File second = convert(service, input, Map.of());
+
+        assertEquals(1, officeManager.getExecutedTasks());
+        assertEquals("same report", Files.readString(first.toPath()));
+        assertEquals("same report", Files.readString(second.toPath()));
+        assertEquals(new ConversionCache.Stats(1, 1, 0, 1, 11), cache.getStats());
+    }
+
+    @Test
+    void countersArePublished() throws Exception {
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        final File input = createFile("input.txt", "same report");
+
+        convert(service, input, Map.of());
+        convert(service, input, Map.of());
+
+        assertEquals(1.0, registry.get(ConversionCache.GETS).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get(ConversionCache.GETS).tag("result", "miss").functionCounter().count());
+        assertEquals(0.0, registry.get(ConversionCache.EVICTIONS).functionCounter().count());
+        assertEquals(1.0, registry.get(ConversionCache.ENTRIES).gauge().value());
+        assertEquals(11.0, registry.get(ConversionCache.SIZE).gauge().value());
+    }
+
+    @Test
+    void differentPropertiesAreDifferentEntries() throws Exception {
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        final File input = createFile("input.txt", "same report");
+
+        convert(service, input, Map.of("PageRange", "1"));
+        convert(service, input, Map.of("PageRange", 1));
+        convert(service, input, Map.of("FilterData", Map.of("Quality", 50)));
+        convert(service, input, Map.of("FilterData", Map.of("Quality", 50)));
+
+        assertEquals(3, officeManager.getExecutedTasks());
+    }
+
+    @Test
+    void sameBytesOfDifferentFormatsAreDifferentEntries() throws Exception {
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+
+        convert(service, createFile("input.csv", "a;b"), Map.of());
+        convert(service, createFile("input.txt", "a;b"), Map.of());
+
+        assertEquals(2, officeManager.getExecutedTasks());
+    }
+
+    @Test
+    void valueContainingSeparatorsIsNotSeveralProperties() {
+        assertNotEquals(
+                ConversionKey.canonical(Map.of("A", "x;B=String:y")),
+                ConversionKey.canonical(Map.of("A", "x", "B", "y")));
+        assertNotEquals(
+                ConversionKey.canonical(Map.of("A", Map.of("B", "y;}C=String:z"))),
+                ConversionKey.canonical(Map.of("A", Map.of("B", "y"), "C", "z")));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() throws Exception {
+        properties.getCache().setMaxSize(DataSize.ofBytes(25));
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        final File first = createFile("first.txt", "0123456789");
+        final File second = createFile("second.txt", "abcdefghij");
+        final File third = createFile("third.txt", "ABCDEFGHIJ");
+
+        convert(service, first, Map.of());
+        convert(service, second, Map.of());
+        convert(service, first, Map.of()); // Hit, second becomes the least recently used.
+        convert(service, third, Map.of()); // Evicts second.
+        convert(service, first, Map.of());
+        convert(service, second, Map.of());
+
+        assertEquals(4, officeManager.getExecutedTasks());
+        assertEquals(2, cache.getStats().hits());
+        assertTrue(cache.getStats().evictions() >= 1);
+        assertTrue(cache.getStats().size() <= 25);
+    }
+
+    @Test
+    void expiredEntryIsEvicted() throws Exception {
+        properties.getCache().setMaxAge(Duration.ofMinutes(10));
+        final ConversionCache cache = new ConversionCache(properties, clock);
+        final DocumentConversionService service =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        final File input = createFile("input.txt", "report");
+
+        convert(service, input, Map.of());
+        clock.advance(Duration.ofMinutes(11));
+        convert(service, input, Map.of());
+
+        assertEquals(2, officeManager.getExecutedTasks());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void disabledCacheAlwaysConverts() throws Exception {
+        properties.getCache().setEnabled(false);
+        final DocumentConversionService service =
+                new DocumentConversionService(
+                        officeManager, new ConversionCache(properties, clock), properties, new SimpleMeterRegistry());
+        final File input = createFile("input.txt", "report");
+
+        convert(service, input, Map.of());
+        convert(service, input, Map.of());
+
+        assertEquals(2, officeManager.getExecutedTasks());
+    }
+
+    private File convert(
+            final DocumentConversionService service, final File input, final Map<String, Object> storeProperties)
+            throws Exception {
+        final File output = Files.createTempFile(workDir, "out-", ".pdf").toFile();
+        service.convert(
+                new ConversionRequest(
+                        input, DefaultDocumentFormatRegistry.PDF, Map.of("Hidden", true), storeProperties),
+                output);
+        return output;
+    }
+
+    private File createFile(final String name, final String content) throws Exception {
+        return Files.writeString(workDir.resolve(name), content).toFile();
+    }
+
+    private static final class TestClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
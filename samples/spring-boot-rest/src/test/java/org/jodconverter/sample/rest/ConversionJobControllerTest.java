@@ -0,0 +1,194 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionJobControllerTest {
+
+    @TempDir
+    Path workDir;
+
+    private GatedOfficeManager officeManager;
+    private ConversionJobService jobService;
+    private ConversionJobController controller;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setEnabled(false);
+        properties.getJobs().setWorkers(1);
+        properties.getJobs().setQueueCapacity(1);
+        properties.getLanes().setEnabled(true);
+
+        officeManager = new GatedOfficeManager();
+        registry = new SimpleMeterRegistry();
+        final ConversionWorkspace workspace = new ConversionWorkspace(properties);
+        jobService = new ConversionJobService(
+                new DocumentConversionService(officeManager, new ConversionCache(properties), properties, registry),
+                workspace,
+                properties);
+        controller = new ConversionJobController(jobService, new ParameterDecoder(), workspace, properties);
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContextPath("/converter");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        officeManager.open();
+        jobService.shutdown();
+    }
+
+    @Test
+    void submittedJobCanBeDownloadedOnceFinished() throws Exception {
+        final ResponseEntity<Object> submitted = submit("report.txt", "report");
+
+        assertEquals(HttpStatus.ACCEPTED, submitted.getStatusCode());
+        final ConversionJob.Snapshot queued = (ConversionJob.Snapshot) submitted.getBody();
+        assertEquals("http://localhost/converter/lool/jobs/" + queued.id(),
+                submitted.getHeaders().getLocation().toString());
+        assertEquals(HttpStatus.CONFLICT, controller.getResult(queued.id()).getStatusCode());
+
+        officeManager.open();
+        jobService.get(queued.id()).whenFinished().get(10, TimeUnit.SECONDS);
+
+        final ResponseEntity<Object> status = getStatus(queued.id(), 0);
+        assertEquals(ConversionJob.Status.SUCCEEDED, ((ConversionJob.Snapshot) status.getBody()).status());
+        final ResponseEntity<Object> result = controller.getResult(queued.id());
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("report.pdf", result.getHeaders().getContentDisposition().getFilename());
+        try (InputStream body = ((Resource) result.getBody()).getInputStream()) {
+            assertEquals("report", new String(body.readAllBytes()));
+        }
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.delete(queued.id()).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.getResult(queued.id()).getStatusCode());
+    }
+
+    @Test
+    void downloadStartedBeforeTheJobIsDeletedIsComplete() throws Exception {
+        final String id = ((ConversionJob.Snapshot) submit("report.txt", "report").getBody()).id();
+        officeManager.open();
+        jobService.get(id).whenFinished().get(10, TimeUnit.SECONDS);
+
+        final ResponseEntity<Object> result = controller.getResult(id);
+        assertEquals(HttpStatus.NO_CONTENT, controller.delete(id).getStatusCode());
+
+        assertEquals(6, result.getHeaders().getContentLength());
+        try (InputStream body = ((Resource) result.getBody()).getInputStream()) {
+            assertEquals("report", new String(body.readAllBytes()));
+        }
+    }
+
+    @Test
+    void longPollAnswersOnceTheJobFinishes() throws Exception {
+        final String id = ((ConversionJob.Snapshot) submit("report.txt", "report").getBody()).id();
+
+        final DeferredResult<ResponseEntity<Object>> pending = controller.getStatus(id, 10);
+        assertFalse(pending.hasResult(), "The status should wait for the job to finish");
+
+        officeManager.open();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!pending.hasResult()) {
+            assertTrue(System.nanoTime() < deadline, "The status should be sent once the job finishes");
+            Thread.sleep(5);
+        }
+        final ResponseEntity<?> status = (ResponseEntity<?>) pending.getResult();
+        assertEquals(ConversionJob.Status.SUCCEEDED, ((ConversionJob.Snapshot) status.getBody()).status());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() throws Exception {
+        // One job runs (blocked by the gate), one waits in the queue, the third does not fit.
+        assertEquals(HttpStatus.ACCEPTED, submit("first.txt", "first").getStatusCode());
+        awaitRunning();
+        assertEquals(HttpStatus.ACCEPTED, submit("second.txt", "second").getStatusCode());
+
+        final ResponseEntity<Object> rejected = submit("third.txt", "third");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+        assertEquals("5", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        try (var files = Files.list(workDir)) {
+            assertEquals(2, files.filter(file -> file.getFileName().toString().startsWith("in-")).count(),
+                    "Only the documents of the accepted jobs should be kept");
+        }
+    }
+
+    @Test
+    void failedJobReportsItsError() throws Exception {
+        officeManager.setFailing(true);
+        final String id = ((ConversionJob.Snapshot) submit("broken.txt", "broken").getBody()).id();
+
+        officeManager.open();
+        jobService.get(id).whenFinished().get(10, TimeUnit.SECONDS);
+
+        final ResponseEntity<Object> result = controller.getResult(id);
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, result.getStatusCode());
+        assertEquals(ConversionJob.Status.FAILED, ((ConversionJob.Snapshot) result.getBody()).status());
+    }
+
+    @Test
+    void jobsAreBulkConversionsUnlessTheHeaderTellsOtherwise() throws Exception {
+        officeManager.open();
+        final ConversionJob.Snapshot bulk = (ConversionJob.Snapshot) submit("bulk.txt", "bulk").getBody();
+        jobService.get(bulk.id()).whenFinished().get(10, TimeUnit.SECONDS);
+        final ConversionJob.Snapshot interactive = (ConversionJob.Snapshot) controller.submitUsingPath(
+                new MockMultipartFile("data", "interactive.txt", null, "interactive".getBytes()),
+                "pdf", Map.of(), "interactive").getBody();
+        jobService.get(interactive.id()).whenFinished().get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, registry.get(PriorityLanes.WAIT).tag("lane", "bulk").timer().count());
+        assertEquals(1, registry.get(PriorityLanes.WAIT).tag("lane", "interactive").timer().count());
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        final MockMultipartFile inputFile =
+                new MockMultipartFile("data", "report.txt", null, "report".getBytes());
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                controller.submitUsingPath(inputFile, "nope", Map.of(), null).getStatusCode());
+    }
+
+    private ResponseEntity<Object> submit(final String fileName, final String content) {
+        return controller.submitUsingPath(
+                new MockMultipartFile("data", fileName, null, content.getBytes()), "pdf", Map.of(), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResponseEntity<Object> getStatus(final String id, final long waitSeconds) {
+        return (ResponseEntity<Object>) controller.getStatus(id, waitSeconds).getResult();
+    }
+
+    private void awaitRunning() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jobService.getQueuedJobs() > 0) {
+            assertTrue(System.nanoTime() < deadline, "The first job should be picked by the worker");
+            Thread.sleep(5);
+        }
+    }
+}
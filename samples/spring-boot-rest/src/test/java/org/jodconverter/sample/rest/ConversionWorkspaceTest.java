@@ -0,0 +1,71 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionWorkspaceTest {
+
+    @TempDir
+    Path workDir;
+
+    private ConverterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getStreaming().setInMemoryThreshold(DataSize.ofBytes(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void leftoverWorkFilesAreDeletedAtStartup() throws Exception {
+        Files.writeString(workDir.resolve("in-1.docx"), "input");
+        Files.writeString(workDir.resolve("out-2.pdf"), "output");
+        Files.writeString(workDir.resolve("flight-3.pdf"), "shared result");
+        Files.writeString(workDir.resolve("notes.txt"), "not a work file");
+        Files.createDirectories(workDir.resolve("cache"));
+
+        new ConversionWorkspace(properties);
+
+        assertFalse(Files.exists(workDir.resolve("in-1.docx")));
+        assertFalse(Files.exists(workDir.resolve("out-2.pdf")));
+        assertFalse(Files.exists(workDir.resolve("flight-3.pdf")));
+        assertTrue(Files.exists(workDir.resolve("notes.txt")));
+        assertTrue(Files.isDirectory(workDir.resolve("cache")));
+    }
+
+    @Test
+    void documentNeverReadIsDeletedWhenTheRequestIsDone() throws Exception {
+        final ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+        final ConversionWorkspace workspace = new ConversionWorkspace(properties);
+        final File output = workspace.createOutputFile(DefaultDocumentFormatRegistry.PDF);
+        Files.writeString(output.toPath(), "converted document");
+
+        final Object body = workspace.toResponseBody(output);
+
+        assertInstanceOf(Resource.class, body);
+        assertTrue(output.exists());
+        request.requestCompleted();
+        assertFalse(output.exists());
+    }
+}
@@ -0,0 +1,144 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConverterControllerTest {
+
+    private static final int LARGE_DOCUMENT_SIZE = 16 * 1024 * 1024;
+
+    @TempDir
+    Path workDir;
+
+    private ConverterController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getStreaming().setInMemoryThreshold(DataSize.ofKilobytes(64));
+        properties.getCache().setEnabled(false);
+
+        controller = new ConverterController(
+                new DocumentConversionService(
+                        new EchoOfficeManager(), new ConversionCache(properties), properties, new SimpleMeterRegistry()),
+                new ParameterDecoder(),
+                new ConversionWorkspace(properties),
+                properties);
+    }
+
+    @Test
+    void smallDocumentIsSentFromMemory() throws Exception {
+        final byte[] content = "small document".getBytes();
+
+        final ResponseEntity<?> response = convert(new MockMultipartFile("data", "report.txt", null, content));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PDF, response.getHeaders().getContentType());
+        assertArrayEquals(content, (byte[]) response.getBody());
+        assertWorkDirIsEmpty();
+    }
+
+    @Test
+    void largeDocumentIsStreamedFromDisk() throws Exception {
+        // Warm up so class loading and static registries don't count as per-request allocation.
+        convert(new MockMultipartFile("data", "warmup.txt", null, new byte[16]));
+
+        final byte[] content = new byte[LARGE_DOCUMENT_SIZE];
+        Arrays.fill(content, (byte) 'x');
+        final MockMultipartFile inputFile = new MockMultipartFile("data", "report.txt", null, content);
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+
+        final ResponseEntity<?> response = convert(inputFile);
+        final long sentBytes;
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            sentBytes = body.transferTo(OutputStream.nullOutputStream());
+        }
+
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertEquals(LARGE_DOCUMENT_SIZE, sentBytes);
+        assertTrue(allocated < LARGE_DOCUMENT_SIZE / 8,
+                "A request should not allocate the document in heap, allocated " + allocated + " bytes");
+        assertWorkDirIsEmpty();
+    }
+
+    @Test
+    void emptyDocumentIsRejected() throws Exception {
+        final ResponseEntity<?> response = convert(new MockMultipartFile("data", "empty.txt", null, new byte[0]));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void fullPriorityLaneIsAnsweredWithTooManyRequests() throws Exception {
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setEnabled(false);
+        properties.getLanes().setEnabled(true);
+        properties.getLanes().setInteractiveQueueCapacity(0);
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final GatedOfficeManager officeManager = new GatedOfficeManager();
+        controller = new ConverterController(
+                new DocumentConversionService(officeManager, new ConversionCache(properties), properties, registry),
+                new ParameterDecoder(),
+                new ConversionWorkspace(properties),
+                properties);
+
+        final ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            final Future<ResponseEntity<?>> first =
+                    client.submit(() -> convert(new MockMultipartFile("data", "first.txt", null, "first".getBytes())));
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (registry.get(PriorityLanes.WAIT).tag("lane", "interactive").timer().count() < 1) {
+                assertTrue(System.nanoTime() < deadline, "The first conversion should get the office process");
+                Thread.sleep(5);
+            }
+
+            final ResponseEntity<?> rejected =
+                    convert(new MockMultipartFile("data", "second.txt", null, "second".getBytes()));
+
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+            assertEquals("5", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            officeManager.open();
+            assertEquals(HttpStatus.OK, first.get(10, TimeUnit.SECONDS).getStatusCode());
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    private ResponseEntity<?> convert(final MockMultipartFile inputFile) {
+        return (ResponseEntity<?>) controller.convertToUsingPath(inputFile, "pdf", Map.of(), null);
+    }
+
+    private void assertWorkDirIsEmpty() throws Exception {
+        try (var files = Files.list(workDir)) {
+            assertEquals(0, files.count(), "Work files should be deleted once the response is sent");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XServiceInfo;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFamily;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentFamilyFilterTest {
+
+    private final List<String> applied = new ArrayList<>();
+    private final Filter sheet1 = recording("sheet1");
+
+    @Test
+    void documentsOnlyGoThroughTheFiltersOfTheirFamilyDetectedOnce() throws Exception {
+        final FakeSpreadsheet document = new FakeSpreadsheet();
+        final DocumentFamilyFilter router = router();
+
+        new DefaultFilterChain(false, router, recording("next")).doFilter(null, document.getDocument());
+
+        assertEquals(List.of("sheet1", "sheet2", "next"), applied);
+        assertEquals(1, document.getUno().getCalls(XServiceInfo.class, "getSupportedServiceNames"));
+        assertEquals(1, document.getUno().getCalls());
+    }
+
+    @Test
+    void documentsOfOtherFamiliesOnlyGoThroughTheRestOfTheChain() throws Exception {
+        new DefaultFilterChain(false, router(), recording("next"))
+                .doFilter(null, new FakePresentation().getDocument());
+
+        assertEquals(List.of("next"), applied);
+    }
+
+    @Test
+    void documentsOfAKnownFamilySkipTheDetection() {
+        final DocumentFamilyFilter router = router();
+
+        assertEquals(1, router.getFilters(DocumentFamily.TEXT).length);
+        assertEquals(0, router.getFilters(DocumentFamily.DRAWING).length);
+        assertArrayEquals(new Filter[]{router}, router.getFilters(null));
+    }
+
+    @Test
+    void filtersNotApplyingToAConversionAreLeftOut() throws Exception {
+        final DocumentFamilyFilter router = router();
+
+        assertEquals(1, router.getFilters(DocumentFamily.SPREADSHEET, filter -> filter != sheet1).length);
+        final Filter[] unknownFamily = router.getFilters(null, filter -> filter != sheet1);
+        assertNotSame(router, unknownFamily[0]);
+        assertSame(unknownFamily[0], router.getFilters(null, filter -> filter != sheet1)[0]);
+        assertSame(router, router.getFilters(null, filter -> true)[0]);
+
+        new DefaultFilterChain(false, unknownFamily).doFilter(null, new FakeSpreadsheet().getDocument());
+
+        assertEquals(List.of("sheet2"), applied);
+    }
+
+    @Test
+    void requestsKnowTheFamilyOfTheirSourceFromItsExtension() {
+        final ConversionRequest request = new ConversionRequest(
+                new File("in.xlsx"), DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of());
+
+        assertEquals(DocumentFamily.SPREADSHEET, request.getSourceFamily());
+        assertNull(new ConversionRequest(new File("in"), DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of())
+                .getSourceFamily());
+    }
+
+    private DocumentFamilyFilter router() {
+        return new DocumentFamilyFilter(Map.of(
+                DocumentFamily.SPREADSHEET, new Filter[]{sheet1, recording("sheet2")},
+                DocumentFamily.TEXT, new Filter[]{recording("text")}));
+    }
+
+    private Filter recording(final String name) {
+        return (context, document, chain) -> {
+            applied.add(name);
+            chain.doFilter(context, document);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.container.XNameAccess;
+import com.sun.star.lang.XComponent;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentProfileTest {
+
+    @Test
+    void filtersOfAConversionReadTheSheetsOnce() throws Exception {
+        final FakeSpreadsheet profiled = spreadsheet();
+        final FakeSpreadsheet unprofiled = spreadsheet();
+        final AtomicReference<DocumentProfile> profile = new AtomicReference<>();
+
+        new DefaultFilterChain(false,
+                new DocumentProfileFilter(),
+                new ExcelNumberFormatFilter(),
+                new ExcelSinglePageFilter(),
+                (context, doc, chain) -> {
+                    profile.set(DocumentProfile.of(doc));
+                    chain.doFilter(context, doc);
+                })
+                .doFilter(null, profiled.getDocument());
+        new DefaultFilterChain(false, new ExcelNumberFormatFilter(), new ExcelSinglePageFilter())
+                .doFilter(null, unprofiled.getDocument());
+
+        assertEquals(1, profiled.getUno().getCalls(XNameAccess.class, "getElementNames"),
+                profiled.getUno().getCallsByMethod()::toString);
+        // The second filter reads neither the names of the sheets nor each sheet for its visibility.
+        assertEquals(unprofiled.getUno().getCalls() - 1 - 2 * 2, profiled.getUno().getCalls());
+        assertEquals("sheets=[Data, Notes(hidden)] usedAreas={Data=A1:AD1000} shapeExtents={Data=1000x2000}",
+                profile.get().toString());
+    }
+
+    @Test
+    void profilesOnlyLastAsLongAsTheirConversion() throws Exception {
+        final XComponent document = new FakeTextDocument().getDocument();
+        final AtomicReference<DocumentProfile> inside = new AtomicReference<>();
+
+        new DefaultFilterChain(false, new DocumentProfileFilter(), new WordFrameFilter(), (context, doc, chain) -> {
+            inside.set(DocumentProfile.of(doc));
+            chain.doFilter(context, doc);
+        }).doFilter(null, document);
+
+        assertEquals(0, inside.get().getFrameCount());
+        assertNotSame(inside.get(), DocumentProfile.of(document));
+        assertEquals("empty", DocumentProfile.of(document).toString());
+    }
+
+    private static FakeSpreadsheet spreadsheet() {
+        final FakeSpreadsheet document = new FakeSpreadsheet();
+        document.addSheet("Data", 30, 1_000).addShape("com.sun.star.drawing.GraphicObjectShape", 0, 0, 1_000, 2_000);
+        document.addSheet("Notes", 5, 10).setVisible(false);
+        return document;
+    }
+}
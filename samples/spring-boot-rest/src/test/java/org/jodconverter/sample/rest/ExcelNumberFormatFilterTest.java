@@ -1,13 +1,43 @@
 package org.jodconverter.sample.rest;
 
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.util.XNumberFormats;
+import org.jodconverter.local.filter.DefaultFilterChain;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
 import static org.jodconverter.sample.rest.ExcelNumberFormatFilter.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 class ExcelNumberFormatFilterTest {
+    @Test
+    void numbersInTheGeneralFormatAreFormattedByRunsOfCells() throws Exception {
+        final FakeSpreadsheet document = new FakeSpreadsheet();
+        final FakeSheet sheet = document.addSheet("Data", 10, 10);
+        sheet.setValues(new Object[][]{
+                {1.0 / 3, 2.0 / 3, 42.0, "text"},
+                {123_456_789_012.0, 1.5, 1.0 / 7, 1.0 / 7},
+        });
+
+        new ExcelNumberFormatFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals("0.#########", document.getNumberFormat(sheet.getNumberFormat(0, 0)));
+        assertEquals("0.#########", document.getNumberFormat(sheet.getNumberFormat(1, 0)));
+        assertEquals("General", document.getNumberFormat(sheet.getNumberFormat(2, 0)));
+        assertEquals("General", document.getNumberFormat(sheet.getNumberFormat(3, 0)));
+        assertEquals("0.#####E+00", document.getNumberFormat(sheet.getNumberFormat(0, 1)));
+        assertEquals("General", document.getNumberFormat(sheet.getNumberFormat(1, 1)));
+        assertEquals("0.#########", document.getNumberFormat(sheet.getNumberFormat(2, 1)));
+        assertEquals("0.#########", document.getNumberFormat(sheet.getNumberFormat(3, 1)));
+        // One format change per run of adjacent cells needing the same format, each format being
+        // added to the document once.
+        final FakeUno uno = document.getUno();
+        assertEquals(3, uno.getCalls(XPropertySet.class, "setPropertyValue"));
+        assertEquals(2, uno.getCalls(XNumberFormats.class, "addNew"));
+    }
+
     @Test
     void testIsInteger() {
         assertTrue(isInteger(new BigDecimal("123")));
@@ -58,4 +88,80 @@ class ExcelNumberFormatFilterTest {
         assertEquals(16, getDigitsBeforeDecimal(longNum));
         assertEquals(0, getDigitsAfterDecimal(longNum));
     }
+
+    @Test
+    void testGetNewFormat() {
+        assertEquals("0.#####E+00", getNewFormat(123456789012.0));
+        assertEquals("0.#####E+00", getNewFormat(0.0000123456789012));
+        assertEquals("0.#####", getNewFormat(12345.123456789));
+        assertEquals("0.", getNewFormat(1234567890.5));
+        assertNull(getNewFormat(12345678901.0));
+        assertNull(getNewFormat(0.5));
+        assertNull(getNewFormat("text"));
+        assertNull(getNewFormat(Double.NaN));
+    }
+
+    @Test
+    void getNewFormatMatchesTheDigitRulesAtTheBoundaries() {
+        final double[] values = {
+                0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, Double.MIN_NORMAL, Double.MAX_VALUE,
+                -Double.MAX_VALUE, 1e-4, Math.nextDown(1e-4), Math.nextUp(1e-4), 1e11, Math.nextDown(1e11),
+                Math.nextUp(1e11), 99999999999.5, 0.1 + 0.2, 1.0 / 3, 2.0 / 3, 0.000123456789, 0.0001234567891,
+                0.00001234567891, 1234567890.1, 123456789.12, 123456789.123, Math.PI, Math.E};
+        for (final double value : values) {
+            assertEquivalent(value);
+            assertEquivalent(-value);
+        }
+        for (int exponent = -20; exponent <= 20; exponent++) {
+            final double power = Double.parseDouble("1e" + exponent);
+            assertEquivalent(power);
+            assertEquivalent(Math.nextUp(power));
+            assertEquivalent(Math.nextDown(power));
+        }
+        assertNull(getNewFormat(Double.NaN));
+        assertNull(getNewFormat(Double.POSITIVE_INFINITY));
+        assertNull(getNewFormat(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void getNewFormatMatchesTheDigitRulesForDecimals() {
+        // Values typed in a sheet: a few digits, a few of them after the decimal point.
+        final Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            final long digits = random.nextLong() % (long) Math.pow(10, 1 + random.nextInt(17));
+            final double value = digits / Math.pow(10, random.nextInt(22));
+            assertEquivalent(value);
+        }
+    }
+
+    @Test
+    void getNewFormatMatchesTheDigitRulesForAnyDouble() {
+        // Computed values: any bits, and mostly magnitudes around the thresholds.
+        final Random random = new Random(7);
+        for (int i = 0; i < 500_000; i++) {
+            assertEquivalent(Double.longBitsToDouble(random.nextLong()));
+            assertEquivalent(random.nextDouble() * Math.pow(10, random.nextInt(30) - 15));
+        }
+    }
+
+    private static void assertEquivalent(final double value) {
+        if (Double.isFinite(value)) {
+            assertEquals(getNewFormatLikeBefore(value), getNewFormat(value), () -> "for " + value);
+        }
+    }
+
+    /** The rules as they were applied before, on the digits of the value as a BigDecimal. */
+    private static String getNewFormatLikeBefore(final double value) {
+        final BigDecimal cellValue =
+                new BigDecimal(BigDecimal.valueOf(value).stripTrailingZeros().toPlainString());
+        final int totalDigits = getTotalDigits(cellValue);
+        if (getDigitsBeforeDecimal(cellValue) >= 12) {
+            return "0.#####E+00";
+        } else if (cellValue.abs().compareTo(new BigDecimal("0.0001")) < 0 && totalDigits >= 11) {
+            return "0.#####E+00";
+        } else if (!isInteger(cellValue) && totalDigits >= 11) {
+            return "0." + "#".repeat(Math.max(0, getDigitsAfterDecimal(cellValue) - (totalDigits - 10)));
+        }
+        return null;
+    }
 }
\ No newline at end of file
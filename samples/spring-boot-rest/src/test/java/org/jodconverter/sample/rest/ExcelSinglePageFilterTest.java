@@ -0,0 +1,107 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.awt.Size;
+import com.sun.star.table.CellRangeAddress;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelSinglePageFilterTest {
+
+    @Test
+    void usedAreaSizeIsReadFromTheRangeAtOnce() throws Exception {
+        final FakeSheet sheet = new FakeSheet(50, 200_000);
+
+        final Size size = ExcelSinglePageFilter.getUsedAreaSize(
+                sheet.getSheet(), sheet.getUsedArea(), sheet.getColumns(), sheet.getRows());
+
+        assertEquals(sheet.getTotalWidth(), size.Width);
+        assertEquals(sheet.getTotalHeight(), size.Height);
+        assertEquals(2, sheet.getUnoCalls());
+    }
+
+    @Test
+    void usedAreaSizeFallsBackToEachColumnAndRow() throws Exception {
+        final FakeSheet sheet = new FakeSheet(50, 1_000);
+        sheet.setRangeSizeSupported(false);
+
+        final Size size = ExcelSinglePageFilter.getUsedAreaSize(
+                sheet.getSheet(), sheet.getUsedArea(), sheet.getColumns(), sheet.getRows());
+
+        assertEquals(sheet.getTotalWidth(), size.Width);
+        assertEquals(sheet.getTotalHeight(), size.Height);
+        assertEquals(2 + 2 * (50 + 1_000), sheet.getUnoCalls());
+    }
+
+    @Test
+    void graphicalObjectsFarAwayAreCoveredInFewCalls() throws Exception {
+        final FakeSheet sheet = new FakeSheet(1_000, 200_000);
+        final FakeSheet reference = new FakeSheet(1_000, 200_000);
+        reference.setRangeSizeSupported(false);
+
+        for (final int minSize : new int[]{1, 450, 1_000_000, 12_345_678, 60_000_000}) {
+            final long before = sheet.getUnoCalls();
+            final ExcelSinglePageFilter.Extent height = ExcelSinglePageFilter.extendRows(
+                    sheet.getSheet(), sheet.getRows(), 9, 4_000, minSize);
+            final ExcelSinglePageFilter.Extent width = ExcelSinglePageFilter.extendColumns(
+                    sheet.getSheet(), sheet.getColumns(), 9, 4_000, minSize);
+
+            assertTrue(sheet.getUnoCalls() - before < 100, sheet.getUnoCalls() - before + " UNO calls");
+            assertEquals(ExcelSinglePageFilter.extendRows(
+                    reference.getSheet(), reference.getRows(), 9, 4_000, minSize), height);
+            assertEquals(ExcelSinglePageFilter.extendColumns(
+                    reference.getSheet(), reference.getColumns(), 9, 4_000, minSize), width);
+        }
+    }
+
+    @Test
+    void graphicalObjectsBeyondTheSheetStopAtItsEnd() throws Exception {
+        final FakeSheet sheet = new FakeSheet(20, 100);
+
+        final ExcelSinglePageFilter.Extent width = ExcelSinglePageFilter.extendColumns(
+                sheet.getSheet(), sheet.getColumns(), 9, 0, Integer.MAX_VALUE);
+
+        final int widthAfterUsedArea = sheet.getTotalWidth() - getUsedAreaWidth(sheet, 9);
+        assertEquals(new ExcelSinglePageFilter.Extent(19, widthAfterUsedArea), width);
+    }
+
+    @Test
+    void largeSheetFitsOnOnePageWithinItsCallBudget() throws Exception {
+        final FakeSpreadsheet document = new FakeSpreadsheet();
+        final FakeSheet sheet = document.addSheet("Data", 50, 100_000);
+        sheet.setUsedArea(19, 99_000);
+        final FakeUno.FakeObject tinyImage = sheet.addShape(
+                "com.sun.star.drawing.GraphicObjectShape", sheet.getWidth(0, 29), 1_000, 400, 400);
+
+        new ExcelSinglePageFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertTrue(document.getUno().getCalls() < 1_000, document.getUno().getCallsByMethod().toString());
+        final FakeUno.FakeObject pageStyle = document.getPageStyle("Default");
+        final Size pageSize = (Size) pageStyle.getProperty("Size");
+        // The image ends in the 31st column, after the used area.
+        assertEquals(sheet.getWidth(0, 30) + 2_000, pageSize.Width);
+        assertEquals(sheet.getHeight(0, 99_000) + 4_000, pageSize.Height);
+        assertEquals("Data", document.getFooterText("Default"));
+        assertEquals(1, tinyImage.getProperty("GlowEffectRadius"));
+    }
+
+    @Test
+    void hiddenSheetsOnlyHaveTheirPrintAreaCleared() throws Exception {
+        final FakeSpreadsheet document = new FakeSpreadsheet();
+        document.addSheet("Hidden", 50, 100_000).setVisible(false);
+
+        new ExcelSinglePageFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        // getStyleFamilies, getByName for the page styles, getSheets; getElementNames, getByName
+        // and getPropertyValue for the profile of the sheets; then getByName and setPrintAreas.
+        assertEquals(8, document.getUno().getCalls(), document.getUno().getCallsByMethod().toString());
+        assertNull(document.getPageStyle("Default").getProperty("Size"));
+    }
+
+    private static int getUsedAreaWidth(final FakeSheet sheet, final int endColumn) throws Exception {
+        return ExcelSinglePageFilter.getUsedAreaSize(sheet.getSheet(),
+                new CellRangeAddress((short) 0, 0, 0, endColumn, 0),
+                sheet.getColumns(), sheet.getRows()).Width;
+    }
+}
@@ -0,0 +1,53 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Echoes documents, but only once the gate is open, so that conversions pile up. */
+class GatedOfficeManager extends EchoOfficeManager {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final AtomicInteger executedFailures = new AtomicInteger();
+    private volatile boolean failing;
+
+    @Override
+    public void execute(final OfficeTask task) throws OfficeException {
+        try {
+            gate.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OfficeException("Interrupted", ex);
+        }
+        if (failing) {
+            executedFailures.incrementAndGet();
+            throw new OfficeException("Office process crashed");
+        }
+        super.execute(task);
+    }
+
+    /** Lets the pending and future tasks run. */
+    void open() {
+        gate.countDown();
+    }
+
+    /**
+     * Makes the next tasks fail instead of echoing their document.
+     *
+     * @param failing Whether the tasks fail.
+     */
+    void setFailing(final boolean failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * Gets the number of tasks that failed so far.
+     *
+     * @return The failed task count.
+     */
+    int getExecutedFailures() {
+        return executedFailures.get();
+    }
+}
@@ -0,0 +1,181 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedOfficeManagerTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleProcessOfficeManager process = new SingleProcessOfficeManager();
+    private final ExecutorService clients = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        process.stop();
+        clients.shutdownNow();
+    }
+
+    @Test
+    void tasksAreTaggedWithTheFormatsOfTheirConversion() throws OfficeException {
+        final InstrumentedOfficeManager officeManager = new InstrumentedOfficeManager(process, registry, 0, "small");
+
+        try (InstrumentedOfficeManager.Scope scope = InstrumentedOfficeManager.formats("docx", "pdf")) {
+            officeManager.execute(context -> { });
+            officeManager.execute(context -> { });
+        }
+        officeManager.execute(context -> { });
+
+        assertEquals(2, registry.get(InstrumentedOfficeManager.QUEUE_WAIT)
+                .tags("source", "docx", "target", "pdf").timer().count());
+        assertEquals(2, registry.get(InstrumentedOfficeManager.EXECUTION)
+                .tags("source", "docx", "target", "pdf", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(InstrumentedOfficeManager.EXECUTION)
+                .tags("source", "unknown", "target", "unknown").timer().count());
+    }
+
+    @Test
+    void gaugesCountWaitingTasksAndBusyProcesses() throws Exception {
+        final InstrumentedOfficeManager officeManager = new InstrumentedOfficeManager(process, registry, 0, "small");
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Future<?> first = clients.submit(() -> execute(officeManager, context -> {
+            running.countDown();
+            await(release);
+        }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        final Future<?> second = clients.submit(() -> execute(officeManager, context -> { }));
+        while (gauge(InstrumentedOfficeManager.PENDING) < 1) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(1, gauge(InstrumentedOfficeManager.BUSY));
+        assertEquals(1, gauge(InstrumentedOfficeManager.PENDING));
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(0, gauge(InstrumentedOfficeManager.BUSY));
+        assertEquals(0, gauge(InstrumentedOfficeManager.PENDING));
+        assertTrue(registry.get(InstrumentedOfficeManager.QUEUE_WAIT).timer().max(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void restartsAreCountedAfterTheMaximumSuccessfulTasks() throws OfficeException {
+        final InstrumentedOfficeManager officeManager = new InstrumentedOfficeManager(process, registry, 3, "small");
+
+        for (int i = 0; i < 7; i++) {
+            officeManager.execute(context -> { });
+        }
+        assertThrows(OfficeException.class, () -> officeManager.execute(context -> {
+            throw new OfficeException("Conversion failed");
+        }));
+
+        assertEquals(2, registry.get(InstrumentedOfficeManager.RESTARTS).counter().count());
+        assertEquals(1, registry.get(InstrumentedOfficeManager.EXECUTION).tags("outcome", "error").timer().count());
+    }
+
+    @Test
+    void poolsArePublishedApart() throws OfficeException {
+        final InstrumentedOfficeManager small = new InstrumentedOfficeManager(process, registry, 0, "small");
+        final InstrumentedOfficeManager large = new InstrumentedOfficeManager(process, registry, 0, "large");
+
+        small.execute(context -> { });
+        large.execute(context -> { });
+        large.execute(context -> { });
+
+        assertEquals(1, registry.get(InstrumentedOfficeManager.EXECUTION).tag("pool", "small").timer().count());
+        assertEquals(2, registry.get(InstrumentedOfficeManager.EXECUTION).tag("pool", "large").timer().count());
+        assertEquals(2, registry.get(InstrumentedOfficeManager.BUSY).gauges().size());
+    }
+
+    @Test
+    void sizesAreRecordedPerFormats() {
+        InstrumentedOfficeManager.recordSizes(registry, "xlsx", "pdf", 2048, 4096);
+
+        assertEquals(2048, registry.get(InstrumentedOfficeManager.INPUT_SIZE)
+                .tags("source", "xlsx", "target", "pdf").summary().totalAmount());
+        assertEquals(4096, registry.get(InstrumentedOfficeManager.OUTPUT_SIZE)
+                .tags("source", "xlsx", "target", "pdf").summary().totalAmount());
+    }
+
+    @Test
+    void formatsOutsideTheRegistryAreTaggedOther() {
+        InstrumentedOfficeManager.recordSizes(registry, "x-upload-1234", "PDF", 1, 2);
+        InstrumentedOfficeManager.recordSizes(registry, "docx", InstrumentedOfficeManager.MULTI, 3, 4);
+
+        assertEquals(1, registry.get(InstrumentedOfficeManager.INPUT_SIZE)
+                .tags("source", "other", "target", "pdf").summary().totalAmount());
+        assertEquals(4, registry.get(InstrumentedOfficeManager.OUTPUT_SIZE)
+                .tags("source", "docx", "target", "multi").summary().totalAmount());
+    }
+
+    private double gauge(final String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static Void execute(final OfficeManager officeManager, final OfficeTask task) throws OfficeException {
+        officeManager.execute(task);
+        return null;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Executes the tasks one after the other, on a single thread standing for an office process. */
+    private static final class SingleProcessOfficeManager implements OfficeManager {
+
+        private final OfficeContext context = new OfficeContext() { };
+        private final ExecutorService process = Executors.newSingleThreadExecutor();
+
+        @Override
+        public void execute(final OfficeTask task) throws OfficeException {
+            try {
+                process.submit(() -> {
+                    task.execute(context);
+                    return null;
+                }).get();
+            } catch (ExecutionException e) {
+                throw (OfficeException) e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OfficeException("Interrupted", e);
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return true;
+        }
+
+        @Override
+        public void start() {
+            // Nothing to start.
+        }
+
+        @Override
+        public void stop() {
+            process.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.local.LocalConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalConverterCacheTest {
+
+    private static final File INPUT = new File("report.docx");
+
+    private final ParameterDecoder parameterDecoder = new ParameterDecoder();
+
+    @Test
+    void requestsWithTheSamePropertiesShareAConverter() {
+        final LocalConverterCache cache = new LocalConverterCache(new EchoOfficeManager(), 8, new WordFrameFilter());
+
+        assertSame(cache.get(request(Map.of())), cache.get(request(Map.of())));
+        assertSame(
+                cache.get(request(Map.of("sPageRange", "1", "sfdQuality", "90"))),
+                cache.get(request(Map.of("sfdQuality", "90", "sPageRange", "1"))));
+        assertNotSame(cache.get(request(Map.of("sPageRange", "1"))), cache.get(request(Map.of("sPageRange", "2"))));
+        assertEquals(3, cache.size(), "The default converter is not cached");
+    }
+
+    @Test
+    void leastRecentlyUsedConverterIsDropped() {
+        final LocalConverterCache cache = new LocalConverterCache(new EchoOfficeManager(), 2, new WordFrameFilter());
+        final LocalConverter first = cache.get(request(Map.of("sPageRange", "1")));
+        final LocalConverter second = cache.get(request(Map.of("sPageRange", "2")));
+
+        cache.get(request(Map.of("sPageRange", "1")));
+        cache.get(request(Map.of("sPageRange", "3")));
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get(request(Map.of("sPageRange", "1"))));
+        assertNotSame(second, cache.get(request(Map.of("sPageRange", "2"))));
+    }
+
+    @Test
+    void filtersNotApplyingToARequestAreLeftOutOfItsConverter() {
+        final LocalConverterCache cache =
+                new LocalConverterCache(new EchoOfficeManager(), 8, new ExcelSinglePageFilter(), new WordFrameFilter());
+
+        final LocalConverter pdf = cache.get(request(DefaultDocumentFormatRegistry.PDF, Map.of()));
+        final LocalConverter csv = cache.get(request(DefaultDocumentFormatRegistry.CSV, Map.of()));
+
+        assertNotSame(pdf, csv, "Only paginated formats go through ExcelSinglePageFilter");
+        assertSame(pdf, cache.get(request(DefaultDocumentFormatRegistry.PNG, Map.of())));
+        assertSame(csv, cache.get(request(DefaultDocumentFormatRegistry.HTML, Map.of())));
+        assertSame(pdf, cache.get(request(DefaultDocumentFormatRegistry.CSV, Map.of("fExcelSinglePageFilter", "true"))));
+        assertSame(csv, cache.get(request(DefaultDocumentFormatRegistry.PDF, Map.of("fexcelsinglepagefilter", "FALSE"))));
+    }
+
+    private ConversionRequest request(final Map<String, String> parameters) {
+        return request(DefaultDocumentFormatRegistry.PDF, parameters);
+    }
+
+    private ConversionRequest request(final DocumentFormat targetFormat, final Map<String, String> parameters) {
+        return ConversionRequest.decode(INPUT, targetFormat, parameters, parameterDecoder);
+    }
+}
@@ -0,0 +1,128 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.sheet.XSpreadsheets;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.jodconverter.local.filter.Filter;
+import org.jodconverter.local.filter.FilterChain;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.sun.star.uno.UnoRuntime.queryInterface;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredFilterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void recordsTheUnoCallsOfTheFilterOnly() throws Exception {
+        final XComponent document = spreadsheet();
+        final AtomicReference<XComponent> nextDocument = new AtomicReference<>();
+
+        new DefaultFilterChain(false,
+                new MeteredFilter(new SheetNamesFilter(), registry),
+                (context, doc, chain) -> {
+                    nextDocument.set(doc);
+                    queryInterface(XSpreadsheetDocument.class, doc).getSheets().getElementNames();
+                    chain.doFilter(context, doc);
+                })
+                .doFilter(null, document);
+
+        assertSame(document, nextDocument.get());
+        assertEquals(1, timer("success").count());
+        // getSheets and getElementNames; querying an interface of the document is local.
+        assertEquals(2, unoCalls("success").totalAmount());
+    }
+
+    @Test
+    void recordsFailures() {
+        final Filter failing = new MeteredFilter(new FailingFilter(), registry);
+
+        final OfficeException ex = assertThrows(OfficeException.class,
+                () -> new DefaultFilterChain(false, failing).doFilter(null, spreadsheet()));
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        assertEquals(1, registry.get(MeteredFilter.TIMER)
+                .tags("filter", "FailingFilter", "family", "spreadsheet", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void countedObjectsAreUnwrappedWhenPassedToUno() {
+        final XComponent document = spreadsheet();
+        final UnoCallCounter counter = new UnoCallCounter();
+
+        final XComponent counted = counter.count(XComponent.class, document);
+
+        assertNotSame(document, counted);
+        assertSame(document, UnoCallCounter.unwrap(counted));
+        assertEquals(counted, document);
+        assertNotNull(queryInterface(XSpreadsheetDocument.class, counted).getSheets());
+        assertEquals(1, counter.getCalls());
+    }
+
+    private Timer timer(final String outcome) {
+        return registry.get(MeteredFilter.TIMER)
+                .tags("filter", "SheetNamesFilter", "family", "spreadsheet", "outcome", outcome).timer();
+    }
+
+    private DistributionSummary unoCalls(final String outcome) {
+        return registry.get(MeteredFilter.UNO_CALLS)
+                .tags("filter", "SheetNamesFilter", "family", "spreadsheet", "outcome", outcome).summary();
+    }
+
+    private static XComponent spreadsheet() {
+        final XSpreadsheets sheets = proxy(XSpreadsheets.class, "getElementNames", new String[]{"Sheet1"});
+        return (XComponent) Proxy.newProxyInstance(MeteredFilterTest.class.getClassLoader(),
+                new Class<?>[]{XComponent.class, XServiceInfo.class, XSpreadsheetDocument.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "spreadsheet";
+                    case "supportsService" -> "com.sun.star.sheet.SpreadsheetDocument".equals(args[0]);
+                    case "getSupportedServiceNames" -> new String[]{"com.sun.star.sheet.SpreadsheetDocument"};
+                    case "getSheets" -> sheets;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static <T> T proxy(final Class<T> type, final String methodName, final Object result) {
+        return type.cast(Proxy.newProxyInstance(MeteredFilterTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (methodName.equals(method.getName())) {
+                            yield result;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+
+    private static final class SheetNamesFilter implements Filter {
+        @Override
+        public void doFilter(final OfficeContext context, final XComponent document, final FilterChain chain)
+                throws Exception {
+            queryInterface(XSpreadsheetDocument.class, document).getSheets().getElementNames();
+            chain.doFilter(context, document);
+        }
+    }
+
+    private static final class FailingFilter implements Filter {
+        @Override
+        public void doFilter(final OfficeContext context, final XComponent document, final FilterChain chain) {
+            throw new IllegalStateException("Filter failed");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.task.OfficeTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiFormatConverterControllerTest {
+
+    @TempDir
+    Path workDir;
+
+    @TempDir
+    Path cacheDir;
+
+    private ConverterProperties properties;
+    private EchoOfficeManager officeManager;
+    private ConversionCache cache;
+    private DocumentConversionService conversionService;
+    private MultiFormatConverterController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setDir(cacheDir.toFile());
+
+        officeManager = new EchoOfficeManager();
+        cache = new ConversionCache(properties);
+        conversionService =
+                new DocumentConversionService(officeManager, cache, properties, new SimpleMeterRegistry());
+        controller = new MultiFormatConverterController(
+                conversionService, new ParameterDecoder(), new ConversionWorkspace(properties), properties);
+    }
+
+    @Test
+    void allFormatsAreStoredFromOneOfficeTask() throws Exception {
+        final Map<String, byte[]> archive =
+                convert("report.txt", "report", List.of("pdf", "html", "png", "pdf"));
+
+        assertEquals(1, officeManager.getExecutedTasks());
+        assertEquals(List.of("report.pdf", "report.html", "report.png"), List.copyOf(archive.keySet()));
+        archive.values().forEach(content -> assertEquals("report", new String(content)));
+        try (var files = Files.list(workDir)) {
+            assertEquals(0, files.count(), "Work files should be deleted once the archive is sent");
+        }
+    }
+
+    @Test
+    void cachedFormatsAreNotStoredAgain() throws Exception {
+        final File input = Files.writeString(workDir.resolve("input.txt"), "report").toFile();
+        final File pdf = Files.createTempFile(workDir, "out-", ".pdf").toFile();
+        conversionService.convert(
+                new ConversionRequest(input, DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of()), pdf);
+
+        final File html = Files.createTempFile(workDir, "out-", ".html").toFile();
+        final File pdfAgain = Files.createTempFile(workDir, "out-", ".pdf").toFile();
+        conversionService.convertAll(
+                List.of(
+                        new ConversionRequest(input, DefaultDocumentFormatRegistry.HTML, Map.of(), Map.of()),
+                        new ConversionRequest(input, DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of())),
+                List.of(html, pdfAgain));
+
+        assertEquals(2, officeManager.getExecutedTasks());
+        assertEquals(1, cache.getStats().hits());
+        assertEquals("report", Files.readString(html.toPath()));
+        assertEquals("report", Files.readString(pdfAgain.toPath()));
+    }
+
+    @Test
+    void formatsApplyingDifferentFiltersAreConvertedApart() throws Exception {
+        final List<List<String>> tasks = new ArrayList<>();
+        final DocumentConversionService service = new DocumentConversionService(new EchoOfficeManager() {
+            @Override
+            public void execute(final OfficeTask task) throws OfficeException {
+                tasks.add(getTargets(task).stream().map(target -> target.getFormat().getExtension()).toList());
+                super.execute(task);
+            }
+        }, cache, properties, new SimpleMeterRegistry());
+        final File input = Files.writeString(workDir.resolve("input.xlsx"), "sheet").toFile();
+
+        // ExcelSinglePageFilter only applies to PDF.
+        service.convertAll(
+                List.of(
+                        new ConversionRequest(input, DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of()),
+                        new ConversionRequest(input, DefaultDocumentFormatRegistry.XLSX, Map.of(), Map.of())),
+                List.of(Files.createTempFile(workDir, "out-", ".pdf").toFile(),
+                        Files.createTempFile(workDir, "out-", ".xlsx").toFile()));
+        service.convert(
+                new ConversionRequest(input, DefaultDocumentFormatRegistry.XLSX, Map.of(), Map.of()),
+                Files.createTempFile(workDir, "out-", ".xlsx").toFile());
+
+        assertEquals(List.of(List.of("pdf"), List.of("xlsx")), tasks);
+        assertEquals(1, cache.getStats().hits(), "The xlsx converted without the PDF filters is reused");
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        final MockMultipartFile inputFile =
+                new MockMultipartFile("data", "report.txt", null, "report".getBytes());
+
+        final ResponseEntity<Object> response =
+                controller.convertUsingPath(inputFile, List.of("pdf", "nope"), Map.of(), null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(0, officeManager.getExecutedTasks());
+    }
+
+    private Map<String, byte[]> convert(
+            final String fileName, final String content, final List<String> formats) throws Exception {
+        final ResponseEntity<Object> response = controller.convertUsingPath(
+                new MockMultipartFile("data", fileName, null, content.getBytes()), formats, Map.of(), null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(body);
+
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(body.toByteArray()))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,124 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfficePoolsTest {
+
+    @TempDir
+    Path workDir;
+
+    private ConverterProperties properties;
+    private SimpleMeterRegistry registry;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.setCoalesceConversions(false);
+        properties.getCache().setEnabled(false);
+        properties.getPools().setLargeThreshold(DataSize.ofBytes(100));
+        registry = new SimpleMeterRegistry();
+        clients = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void smallDocumentsAreNotHeldBackByLargeOnes() throws Exception {
+        final EchoOfficeManager small = new EchoOfficeManager();
+        final GatedOfficeManager large = new GatedOfficeManager();
+        final DocumentConversionService service = service(small, large);
+
+        final Future<File> largeResult = submit(service, Files.write(workDir.resolve("large.xlsx"), new byte[100]));
+        awaitTasks("large", 1);
+
+        final File output = convert(service, Files.writeString(workDir.resolve("small.docx"), "one page"));
+
+        assertEquals("one page", Files.readString(output.toPath()));
+        assertFalse(largeResult.isDone());
+        large.open();
+        assertEquals(100, largeResult.get(10, TimeUnit.SECONDS).length());
+        assertEquals(1, small.getExecutedTasks());
+        assertEquals(1, large.getExecutedTasks());
+    }
+
+    @Test
+    void largeFormatsGoToTheLargePoolWhateverTheirSize() throws Exception {
+        properties.getPools().setLargeFormats(List.of("XLSX"));
+        final EchoOfficeManager small = new EchoOfficeManager();
+        final EchoOfficeManager large = new EchoOfficeManager();
+        final DocumentConversionService service = service(small, large);
+
+        convert(service, Files.writeString(workDir.resolve("tiny.xlsx"), "tiny"));
+        convert(service, Files.writeString(workDir.resolve("tiny.docx"), "tiny"));
+
+        assertEquals(1, small.getExecutedTasks());
+        assertEquals(1, large.getExecutedTasks());
+    }
+
+    @Test
+    void smallDocumentsOverflowToAnIdleLargePool() throws Exception {
+        final GatedOfficeManager small = new GatedOfficeManager();
+        final EchoOfficeManager large = new EchoOfficeManager();
+        final DocumentConversionService service = service(small, large);
+
+        final Future<File> first = submit(service, Files.writeString(workDir.resolve("first.docx"), "first"));
+        awaitTasks("small", 1);
+
+        final File output = convert(service, Files.writeString(workDir.resolve("second.docx"), "second"));
+
+        assertEquals("second", Files.readString(output.toPath()));
+        assertEquals(1, large.getExecutedTasks());
+        assertEquals(1.0, registry.get(OfficePools.OVERFLOWS).counter().count());
+        small.open();
+        assertEquals("first", Files.readString(first.get(10, TimeUnit.SECONDS).toPath()));
+    }
+
+    private DocumentConversionService service(final EchoOfficeManager small, final EchoOfficeManager large)
+            throws IOException {
+        final OfficePools pools = new OfficePools(small, 1, 10_000L, large, 1, properties, registry);
+        return new DocumentConversionService(pools, new ConversionCache(properties), properties, registry);
+    }
+
+    private Future<File> submit(final DocumentConversionService service, final Path input) {
+        return clients.submit(() -> convert(service, input));
+    }
+
+    private File convert(final DocumentConversionService service, final Path input) throws Exception {
+        final File output = Files.createTempFile(workDir, "out-", ".pdf").toFile();
+        service.convert(
+                new ConversionRequest(input.toFile(), DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of()), output);
+        return output;
+    }
+
+    private void awaitTasks(final String pool, final int tasks) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get(OfficePools.TASKS).tag("pool", pool).gauge().value() < tasks) {
+            assertTrue(System.nanoTime() < deadline, "The " + pool + " pool should get the task");
+            Thread.sleep(5);
+        }
+    }
+}
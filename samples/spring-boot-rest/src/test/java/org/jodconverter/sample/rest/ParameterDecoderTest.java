@@ -4,9 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 
 class ParameterDecoderTest {
 
@@ -41,4 +47,135 @@ class ParameterDecoderTest {
         assertEquals(42, loadProperties.get("C"));
         assertEquals("value", storeProperties.get("D"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void valuesAreClassifiedLikeIntegerParseInt() {
+        parameters.put("sA", "-2147483648");
+        parameters.put("sB", "2147483648");
+        parameters.put("sC", "+\u0661\u0662");
+        parameters.put("sD", "TrUe");
+        parameters.put("sE", "1.5");
+        parameters.put("sF", "-");
+
+        parameterDecoder.decodeParameters(parameters, loadProperties, storeProperties);
+
+        assertEquals(Integer.MIN_VALUE, storeProperties.get("A"));
+        assertEquals("2147483648", storeProperties.get("B"));
+        assertEquals(12, storeProperties.get("C"));
+        assertEquals(true, storeProperties.get("D"));
+        assertEquals("1.5", storeProperties.get("E"));
+        assertEquals("-", storeProperties.get("F"));
+    }
+
+    @Test
+    void decodingMatchesThePreviousDecoder() {
+        final List<String> keys = List.of(
+                "", "l", "L", "s", "lf", "sF", "lfd", "SFD", "lfdA", "LFDa", "lFdQuality", "sfdPageRange",
+                "lPassword", "LPASSWORD", "sPageRange", "SPageRange", "sFilterData", "lfilterdata",
+                "fdA", "xA", "dA", "l\u0130A", "\u0130lA", "lf\u0130", "sfd\u0130");
+        final List<String> values = List.of(
+                "", "true", "FALSE", "tRuE", "yes", "0", "-0", "+7", "007", "-2147483648", "2147483647",
+                "2147483648", "-2147483649", "3000000000", "1.5", "1e3", "0x1F", " 1", "1 ", "+", "-",
+                "+-1", "\u0661\u0662", "\uff13", "value");
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            final Map<String, String> params = new LinkedHashMap<>();
+            for (int j = random.nextInt(8); j > 0; j--) {
+                params.put(keys.get(random.nextInt(keys.size())), values.get(random.nextInt(values.size())));
+            }
+            final Map<String, Object> expectedLoad = new HashMap<>(Map.of("Hidden", true));
+            final Map<String, Object> expectedStore = new HashMap<>();
+            decodeLikeBefore(params, expectedLoad, expectedStore);
+
+            // Twice, so that the remembered result is checked too.
+            for (int k = 0; k < 2; k++) {
+                final Map<String, Object> load = new HashMap<>(Map.of("Hidden", true));
+                final Map<String, Object> store = new HashMap<>();
+                parameterDecoder.decodeParameters(params, load, store);
+                assertEquals(expectedLoad, load, params::toString);
+                assertEquals(expectedStore, store, params::toString);
+            }
+        }
+    }
+
+    @Test
+    void sameParametersAreDecodedIntoNewFilterData() {
+        parameters.put("sfdQuality", "90");
+
+        parameterDecoder.decodeParameters(parameters, loadProperties, storeProperties);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> first = (Map<String, Object>) storeProperties.get("FilterData");
+        first.put("Quality", 10);
+        parameterDecoder.decodeParameters(parameters, loadProperties, storeProperties);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> second = (Map<String, Object>) storeProperties.get("FilterData");
+
+        assertNotSame(first, second);
+        assertEquals(90, second.get("Quality"));
+    }
+
+    @Test
+    void filterSwitchesAreDecodedByLowerCaseName() {
+        final Map<String, Boolean> filters = new HashMap<>();
+        parameters.put("fExcelSinglePageFilter", "False");
+        parameters.put("FWordFrameFilter", "true");
+        parameters.put("fPptPageResizeFilter", "no");
+        parameters.put("f", "false");
+
+        parameterDecoder.decodeParameters(parameters, loadProperties, storeProperties, filters);
+
+        assertEquals(Map.of("excelsinglepagefilter", false, "wordframefilter", true), filters);
+        assertEquals(Map.of(), loadProperties);
+        assertEquals(Map.of(), storeProperties);
+    }
+
+    /** The decoder as it was before dispatching in a single pass, used as the reference. */
+    private static void decodeLikeBefore(
+            final Map<String, String> parameters,
+            final Map<String, Object> loadProperties,
+            final Map<String, Object> storeProperties) {
+
+        final Map<String, Object> loadFilterData = new HashMap<>();
+        final Map<String, Object> storeFilterData = new HashMap<>();
+        for (final Entry<String, String> param : parameters.entrySet()) {
+            final String key = param.getKey().toLowerCase(Locale.ROOT);
+            if (!addLikeBefore(key, "lfd", param, loadFilterData)
+                    && !addLikeBefore(key, "l", param, loadProperties)
+                    && !addLikeBefore(key, "sfd", param, storeFilterData)) {
+                addLikeBefore(key, "s", param, storeProperties);
+            }
+        }
+        if (!loadFilterData.isEmpty()) {
+            loadProperties.put("FilterData", loadFilterData);
+        }
+        if (!storeFilterData.isEmpty()) {
+            storeProperties.put("FilterData", storeFilterData);
+        }
+    }
+
+    private static boolean addLikeBefore(
+            final String key,
+            final String prefix,
+            final Entry<String, String> param,
+            final Map<String, Object> properties) {
+
+        if (!key.startsWith(prefix)) {
+            return false;
+        }
+        final String name = param.getKey().substring(prefix.length());
+        final String value = param.getValue();
+        if ("true".equalsIgnoreCase(value)) {
+            properties.put(name, Boolean.TRUE);
+        } else if ("false".equalsIgnoreCase(value)) {
+            properties.put(name, Boolean.FALSE);
+        } else {
+            try {
+                properties.put(name, Integer.parseInt(value));
+            } catch (NumberFormatException nfe) {
+                properties.put(name, value);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.beans.XPropertySet;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PptPageResizeFilterTest {
+
+    @Test
+    void slidesGrowToShowShapesOutOfTheirBounds() throws Exception {
+        final FakePresentation document = new FakePresentation();
+        final FakeUno uno = document.getUno();
+        final FakeUno.FakeObject first = document.addSlide(28_000, 21_000,
+                uno.shape("com.sun.star.drawing.GraphicObjectShape", 1_000, 1_000, 10_000, 10_000));
+        final FakeUno.FakeObject second = document.addSlide(28_000, 21_000,
+                uno.shape("com.sun.star.drawing.GraphicObjectShape", 20_000, 2_000, 10_000, 24_000),
+                uno.shape("com.sun.star.drawing.TextShape", 0, 0, 1_000, 1_000));
+
+        new PptPageResizeFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        // The width fits the shapes; the height is at most 20% larger than before.
+        for (final FakeUno.FakeObject slide : new FakeUno.FakeObject[]{first, second}) {
+            assertEquals(30_000, slide.getProperty("Width"));
+            assertEquals(25_200, slide.getProperty("Height"));
+        }
+    }
+
+    @Test
+    void slidesShowingAllTheirShapesAreNotResized() throws Exception {
+        final FakePresentation document = new FakePresentation();
+        final FakeUno.FakeObject slide = document.addSlide(28_000, 21_000,
+                document.getUno().shape("com.sun.star.drawing.TextShape", 1_000, 1_000, 20_000, 15_000));
+
+        new PptPageResizeFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(28_000, slide.getProperty("Width"));
+        assertEquals(0, document.getUno().getCalls(XPropertySet.class, "setPropertyValue"));
+    }
+
+    @Test
+    void shapesOfMasterPagesCount() throws Exception {
+        final FakePresentation document = new FakePresentation();
+        final FakeUno uno = document.getUno();
+        document.addMasterPage(uno.shape("com.sun.star.drawing.GraphicObjectShape", 0, 20_000, 29_000, 2_000));
+        final FakeUno.FakeObject slide = document.addSlide(28_000, 21_000,
+                uno.shape("com.sun.star.drawing.TextShape", 1_000, 1_000, 20_000, 15_000));
+
+        new PptPageResizeFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(29_000, slide.getProperty("Width"));
+        assertEquals(22_000, slide.getProperty("Height"));
+    }
+
+    @Test
+    void slidesAreResizedOneByOneIfTheOfficeProcessDoesNot() throws Exception {
+        final FakePresentation document = new FakePresentation();
+        document.setSharedPageSize(false);
+        final FakeUno uno = document.getUno();
+        final FakeUno.FakeObject[] slides = new FakeUno.FakeObject[3];
+        for (int i = 0; i < slides.length; i++) {
+            slides[i] = document.addSlide(28_000, 21_000,
+                    uno.shape("com.sun.star.drawing.TextShape", 0, 0, 29_000 + i * 1_000, 1_000));
+        }
+
+        new PptPageResizeFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        for (final FakeUno.FakeObject slide : slides) {
+            assertEquals(31_000, slide.getProperty("Width"));
+            assertEquals(21_000, slide.getProperty("Height"));
+        }
+    }
+
+    /**
+     * The slides and their shapes are read once, the scan stops when the shapes reach the largest
+     * size slides may grow to, and only the first slide is resized by the filter.
+     */
+    @Test
+    void largeDeckIsScannedOnceWithinItsCallBudget() throws Exception {
+        final FakePresentation document = new FakePresentation();
+        final FakeUno uno = document.getUno();
+        final int slideCount = 300;
+        final int shapesPerSlide = 10;
+        for (int i = 0; i < slideCount; i++) {
+            final FakeUno.FakeObject[] shapes = new FakeUno.FakeObject[shapesPerSlide];
+            for (int j = 0; j < shapes.length; j++) {
+                shapes[j] = uno.shape("com.sun.star.drawing.TextShape", 1_000, 1_000 + j * 1_500, 20_000, 1_000);
+            }
+            if (i == slideCount / 2) {
+                shapes[0] = uno.shape("com.sun.star.drawing.GraphicObjectShape", 0, 0, 40_000, 30_000);
+            }
+            document.addSlide(28_000, 21_000, shapes);
+        }
+
+        new PptPageResizeFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        final int scannedSlides = slideCount / 2 + 1;
+        // Per slide: getByIndex and getCount, then getByIndex, getPosition and getSize per shape.
+        final long scan = scannedSlides * 2L + (scannedSlides - 1L) * shapesPerSlide * 3 + 3;
+        // The presentation check, the slides, the master pages, the size of the first and last slides.
+        final long overhead = 1 + 2 + 2 + 2 + 2 + 1;
+        assertEquals(scan + overhead + 2, uno.getCalls(), uno.getCallsByMethod()::toString);
+        assertEquals(2, uno.getCalls(XPropertySet.class, "setPropertyValue"));
+    }
+}
@@ -0,0 +1,141 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityLanesTest {
+
+    private ConverterProperties.Lanes settings;
+    private SimpleMeterRegistry registry;
+    private ExecutorService tasks;
+    private List<String> started;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ConverterProperties().getLanes();
+        registry = new SimpleMeterRegistry();
+        tasks = Executors.newCachedThreadPool();
+        started = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        tasks.shutdownNow();
+    }
+
+    @Test
+    void interactiveTasksStartBeforeBulkOnes() throws Exception {
+        final PriorityLanes lanes = new PriorityLanes("small", 1, 10_000L, settings, registry);
+        lanes.acquire(PriorityLanes.Lane.BULK);
+
+        final Future<?> bulk = submit(lanes, PriorityLanes.Lane.BULK, "bulk");
+        awaitQueued("bulk", 1);
+        final Future<?> interactive = submit(lanes, PriorityLanes.Lane.INTERACTIVE, "interactive");
+        awaitQueued("interactive", 1);
+        lanes.release();
+
+        interactive.get(10, TimeUnit.SECONDS);
+        bulk.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("interactive", "bulk"), started);
+        assertEquals(2, registry.get(PriorityLanes.WAIT).tag("lane", "bulk").timer().count());
+        assertEquals(1, registry.get(PriorityLanes.WAIT).tag("lane", "interactive").timer().count());
+    }
+
+    @Test
+    void bulkTasksStartAfterAStreakOfInteractiveOnes() throws Exception {
+        settings.setInteractiveStreak(2);
+        final PriorityLanes lanes = new PriorityLanes("small", 1, 10_000L, settings, registry);
+        lanes.acquire(PriorityLanes.Lane.INTERACTIVE);
+
+        final List<Future<?>> results = new ArrayList<>();
+        results.add(submit(lanes, PriorityLanes.Lane.BULK, "bulk"));
+        awaitQueued("bulk", 1);
+        for (int i = 1; i <= 3; i++) {
+            results.add(submit(lanes, PriorityLanes.Lane.INTERACTIVE, "interactive" + i));
+            awaitQueued("interactive", i);
+        }
+        lanes.release();
+
+        for (final Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of("interactive1", "interactive2", "bulk", "interactive3"), started);
+    }
+
+    @Test
+    void fullLaneIsRejected() throws Exception {
+        settings.setBulkQueueCapacity(1);
+        final PriorityLanes lanes = new PriorityLanes("small", 1, 10_000L, settings, registry);
+        lanes.acquire(PriorityLanes.Lane.INTERACTIVE);
+
+        final Future<?> bulk = submit(lanes, PriorityLanes.Lane.BULK, "bulk");
+        awaitQueued("bulk", 1);
+
+        assertThrows(RejectedExecutionException.class, () -> lanes.acquire(PriorityLanes.Lane.BULK));
+        assertEquals(1.0, registry.get(PriorityLanes.REJECTIONS).tag("lane", "bulk").counter().count());
+        final Future<?> interactive = submit(lanes, PriorityLanes.Lane.INTERACTIVE, "interactive");
+        awaitQueued("interactive", 1);
+        lanes.release();
+
+        interactive.get(10, TimeUnit.SECONDS);
+        bulk.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of("interactive", "bulk"), started);
+    }
+
+    @Test
+    void taskWaitingLongerThanTheQueueTimeoutFails() throws Exception {
+        final PriorityLanes lanes = new PriorityLanes("small", 1, 50L, settings, registry);
+        lanes.acquire(PriorityLanes.Lane.INTERACTIVE);
+
+        assertThrows(OfficeException.class, () -> lanes.acquire(PriorityLanes.Lane.BULK));
+        assertEquals(0.0, registry.get(PriorityLanes.QUEUED).tag("lane", "bulk").gauge().value());
+        lanes.release();
+        lanes.acquire(PriorityLanes.Lane.BULK);
+    }
+
+    @Test
+    void priorityIsReadFromTheHeaderThenTheParameter() {
+        final ParameterDecoder decoder = new ParameterDecoder();
+        final File input = new File("report.docx");
+
+        assertNull(ConversionRequest.decode(input, null, Map.of(), decoder, null).getLane());
+        assertEquals(PriorityLanes.Lane.BULK, ConversionRequest.decode(
+                input, null, Map.of("priority", "Bulk"), decoder, "preview").getLane());
+        assertEquals(PriorityLanes.Lane.INTERACTIVE, ConversionRequest.decode(
+                input, null, Map.of("priority", "bulk"), decoder, "interactive").getLane());
+    }
+
+    /** Submits a task that records its name once its lane lets it start, then releases the lanes. */
+    private Future<?> submit(final PriorityLanes lanes, final PriorityLanes.Lane lane, final String name) {
+        return tasks.submit(() -> {
+            lanes.acquire(lane);
+            started.add(name);
+            lanes.release();
+            return null;
+        });
+    }
+
+    private void awaitQueued(final String lane, final int queued) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get(PriorityLanes.QUEUED).tag("lane", lane).gauge().value() < queued) {
+            assertTrue(System.nanoTime() < deadline, "The " + lane + " lane should queue the task");
+            Thread.sleep(5);
+        }
+    }
+}
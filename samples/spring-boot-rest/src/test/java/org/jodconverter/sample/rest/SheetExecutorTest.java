@@ -0,0 +1,120 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetExecutorTest {
+
+    private SheetExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void autoModeProcessesFewSheetsOnTheFilterThread() {
+        executor = new SheetExecutor(sheets(SheetExecutor.Mode.AUTO));
+
+        final Set<String> threads = run(3);
+
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+        assertEquals(1, executor.getStats().serial().documents());
+        assertEquals(3, executor.getStats().serial().sheets());
+        assertEquals(0, executor.getStats().parallel().documents());
+    }
+
+    @Test
+    void autoModeProcessesManySheetsOnItsOwnThreads() {
+        executor = new SheetExecutor(sheets(SheetExecutor.Mode.AUTO));
+
+        final Set<String> threads = run(40);
+
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("sheet-filter-")), threads::toString);
+        assertTrue(threads.size() <= 2, "At most the configured threads process sheets: " + threads);
+        assertEquals(1, executor.getStats().parallel().documents());
+        assertEquals(40, executor.getStats().parallel().sheets());
+        assertTrue(executor.getStats().parallel().sheetNanos() > 0);
+    }
+
+    @Test
+    void timesArePublishedPerMode() {
+        executor = new SheetExecutor(sheets(SheetExecutor.Mode.AUTO));
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+
+        run(40);
+        run(3);
+
+        final FunctionTimer parallel = registry.get(SheetExecutor.SHEET_TIME).tag("mode", "parallel").functionTimer();
+        assertEquals(40, parallel.count());
+        assertTrue(parallel.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1, registry.get(SheetExecutor.ELAPSED).tag("mode", "parallel").functionTimer().count());
+        assertEquals(1, registry.get(SheetExecutor.ELAPSED).tag("mode", "serial").functionTimer().count());
+        assertEquals(3, registry.get(SheetExecutor.SHEET_TIME).tag("mode", "serial").functionTimer().count());
+    }
+
+    @Test
+    void filterThreadProcessesSheetsWhenTheQueueIsFull() {
+        final ConverterProperties.Sheets sheets = sheets(SheetExecutor.Mode.PARALLEL);
+        sheets.setQueueCapacity(1);
+        executor = new SheetExecutor(sheets);
+
+        final Set<String> threads = run(40);
+
+        assertTrue(threads.contains(Thread.currentThread().getName()), threads::toString);
+        assertEquals(40, executor.getStats().parallel().sheets());
+    }
+
+    @Test
+    void filterThreadProcessesSheetsOnceShutDown() {
+        executor = new SheetExecutor(sheets(SheetExecutor.Mode.PARALLEL));
+        executor.shutdown();
+
+        assertEquals(Set.of(Thread.currentThread().getName()), run(40));
+        assertEquals(40, executor.getStats().parallel().sheets());
+    }
+
+    @Test
+    void serialModeNeverUsesThreads() {
+        executor = new SheetExecutor(sheets(SheetExecutor.Mode.SERIAL));
+
+        assertEquals(Set.of(Thread.currentThread().getName()), run(40));
+        assertFalse(executor.isParallel(1_000));
+    }
+
+    private Set<String> run(final int sheetCount) {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < sheetCount; i++) {
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.runAll(tasks);
+        return threads;
+    }
+
+    private static ConverterProperties.Sheets sheets(final SheetExecutor.Mode mode) {
+        final ConverterProperties.Sheets sheets = new ConverterProperties().getSheets();
+        sheets.setMode(mode);
+        sheets.setThreads(2);
+        sheets.setParallelThreshold(8);
+        return sheets;
+    }
+}
@@ -0,0 +1,115 @@
+package org.jodconverter.sample.rest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.office.OfficeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CLIENTS = 8;
+
+    @TempDir
+    Path workDir;
+
+    private GatedOfficeManager officeManager;
+    private DocumentConversionService service;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final ConverterProperties properties = new ConverterProperties();
+        properties.setWorkDir(workDir.toFile());
+        properties.getCache().setEnabled(false);
+
+        officeManager = new GatedOfficeManager();
+        service = new DocumentConversionService(
+                officeManager, new ConversionCache(properties), properties, new SimpleMeterRegistry());
+        clients = Executors.newFixedThreadPool(CLIENTS);
+    }
+
+    @Test
+    void identicalConcurrentConversionsShareOneOfficeTask() throws Exception {
+        final ConversionRequest request = request(Files.writeString(workDir.resolve("popular.txt"), "popular"));
+
+        final List<Future<File>> results = submitAll(request);
+        awaitParticipants(ConversionKey.of(request));
+        officeManager.open();
+
+        for (final Future<File> result : results) {
+            assertEquals("popular", Files.readString(result.get(10, TimeUnit.SECONDS).toPath()));
+        }
+        assertEquals(1, officeManager.getExecutedTasks());
+        assertEquals(0, service.getFlights().getParticipants(ConversionKey.of(request)));
+        try (var files = Files.list(workDir)) {
+            assertEquals(0, files.filter(file -> file.getFileName().toString().startsWith("flight-")).count());
+        }
+    }
+
+    @Test
+    void failureIsSharedByAllParticipants() throws Exception {
+        officeManager.setFailing(true);
+        final ConversionRequest request = request(Files.writeString(workDir.resolve("broken.txt"), "broken"));
+
+        final List<Future<File>> results = submitAll(request);
+        awaitParticipants(ConversionKey.of(request));
+        officeManager.open();
+
+        for (final Future<File> result : results) {
+            final ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(OfficeException.class, ex.getCause());
+        }
+        assertEquals(1, officeManager.getExecutedFailures());
+    }
+
+    @Test
+    void sequentialConversionsAreNotCoalesced() throws Exception {
+        officeManager.open();
+        final ConversionRequest request = request(Files.writeString(workDir.resolve("report.txt"), "report"));
+
+        service.convert(request, Files.createTempFile(workDir, "out-", ".pdf").toFile());
+        service.convert(request, Files.createTempFile(workDir, "out-", ".pdf").toFile());
+
+        assertEquals(2, officeManager.getExecutedTasks());
+    }
+
+    private List<Future<File>> submitAll(final ConversionRequest request) {
+        final List<Future<File>> results = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            results.add(clients.submit(() -> {
+                final File output = Files.createTempFile(workDir, "out-", ".pdf").toFile();
+                service.convert(request, output);
+                return output;
+            }));
+        }
+        return results;
+    }
+
+    private void awaitParticipants(final ConversionKey key) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getFlights().getParticipants(key) < CLIENTS) {
+            assertTrue(System.nanoTime() < deadline, "All clients should join the running conversion");
+            Thread.sleep(5);
+        }
+    }
+
+    private static ConversionRequest request(final Path input) {
+        return new ConversionRequest(input.toFile(), DefaultDocumentFormatRegistry.PDF, Map.of(), Map.of());
+    }
+}
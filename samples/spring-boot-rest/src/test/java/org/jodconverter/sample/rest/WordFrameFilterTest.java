@@ -0,0 +1,72 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.container.XEnumerationAccess;
+import com.sun.star.text.XTextContent;
+import org.jodconverter.local.filter.DefaultFilterChain;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordFrameFilterTest {
+
+    @Test
+    void transparentFramesTakeTheColorOfTheirFirstParagraph() throws Exception {
+        final FakeTextDocument document = new FakeTextDocument();
+        final FakeUno.FakeObject frame = document.addFrame("Frame1", null, 0xFFCC00, 0x00CCFF);
+
+        new WordFrameFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(0xFFCC00, frame.getProperty("BackColor"));
+        assertEquals(0xFFCC00, frame.getProperty("BackColorRGB"));
+        assertEquals((byte) 0, frame.getProperty("BackColorTransparency"));
+    }
+
+    @Test
+    void framesWithoutColoredParagraphsKeepTheirBackground() throws Exception {
+        final FakeTextDocument document = new FakeTextDocument();
+        final FakeUno.FakeObject frame = document.addFrame("Frame1", null, null);
+
+        new WordFrameFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(-1, frame.getProperty("BackColor"));
+        assertEquals((byte) 100, frame.getProperty("BackColorTransparency"));
+    }
+
+    @Test
+    void framesWithAnUncoloredFirstParagraphKeepTheirBackground() throws Exception {
+        final FakeTextDocument document = new FakeTextDocument();
+        final FakeUno.FakeObject frame = document.addFrame("Frame1", -1, 0xFFCC00);
+
+        new WordFrameFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(-1, frame.getProperty("BackColor"));
+        assertEquals((byte) 100, frame.getProperty("BackColorTransparency"));
+    }
+
+    /**
+     * Opaque frames only have their background read; the contents of the others are read up to
+     * the first paragraph, without their text.
+     */
+    @Test
+    void opaqueFramesAndParagraphTextsAreNotRead() throws Exception {
+        final FakeTextDocument document = new FakeTextDocument();
+        for (int i = 0; i < 90; i++) {
+            document.addFrame("Opaque" + i, 0xFFCC00, 0x00CCFF)
+                    .property("BackColor", 0xFFFFFF)
+                    .property("BackColorRGB", 0xFFFFFF)
+                    .property("BackColorTransparency", (byte) 0);
+        }
+        for (int i = 0; i < 10; i++) {
+            document.addFrame("Transparent" + i, null, 0xFFCC00, 0x00CCFF, 0x0000FF);
+        }
+        final FakeUno uno = document.getUno();
+
+        new WordFrameFilter().doFilter(null, document.getDocument(), new DefaultFilterChain(false));
+
+        assertEquals(0, uno.getCalls(XTextContent.class, "getAnchor"));
+        assertEquals(10, uno.getCalls(XEnumerationAccess.class, "createEnumeration"));
+        // getTextFrames and getElementNames; getByName and 3 background reads per frame; for each
+        // transparent one getText, createEnumeration, 2 paragraphs read and 3 background writes.
+        assertEquals(2 + 100 * 4 + 10 * (2 + 2 * 3 + 3), uno.getCalls(), uno.getCallsByMethod()::toString);
+    }
+}
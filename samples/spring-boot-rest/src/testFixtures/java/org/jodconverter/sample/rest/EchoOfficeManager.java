@@ -0,0 +1,121 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Office manager that doesn't need an office installation: every conversion task it receives
+ * "converts" its source document by copying it, byte for byte, to the target documents.
+ */
+class EchoOfficeManager implements OfficeManager {
+
+    private final AtomicInteger executedTasks = new AtomicInteger();
+
+    @Override
+    public void execute(final OfficeTask task) throws OfficeException {
+        final SourceDocumentSpecs source = getSource(task);
+        final List<TargetDocumentSpecs> targets = getTargets(task);
+        executedTasks.incrementAndGet();
+
+        final File sourceFile = source.getFile();
+        for (final TargetDocumentSpecs target : targets) {
+            final File targetFile = target.getFile();
+            try {
+                Files.copy(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                target.onFailure(targetFile, ex);
+                throw new OfficeException("Could not echo " + sourceFile, ex);
+            }
+            target.onComplete(targetFile);
+        }
+        source.onConsumed(sourceFile);
+    }
+
+    /**
+     * Gets the number of tasks executed so far.
+     *
+     * @return The task count.
+     */
+    int getExecutedTasks() {
+        return executedTasks.get();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return true;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    /**
+     * Gets the source document of a conversion task.
+     *
+     * @param task The task.
+     * @return The specs of the source document.
+     * @throws OfficeException If the task is not a conversion task.
+     */
+    static SourceDocumentSpecs getSource(final OfficeTask task) throws OfficeException {
+        if (task instanceof MultiFormatConversionTask) {
+            return ((MultiFormatConversionTask) task).getSource();
+        }
+        return getSpecs(task, SourceDocumentSpecs.class);
+    }
+
+    /**
+     * Gets the target documents of a conversion task.
+     *
+     * @param task The task.
+     * @return The specs of the target documents.
+     * @throws OfficeException If the task is not a conversion task.
+     */
+    static List<TargetDocumentSpecs> getTargets(final OfficeTask task) throws OfficeException {
+        if (task instanceof MultiFormatConversionTask) {
+            return ((MultiFormatConversionTask) task).getTargets();
+        }
+        return List.of(getSpecs(task, TargetDocumentSpecs.class));
+    }
+
+    /**
+     * Gets the source or target specs of a conversion task.
+     *
+     * @param task      The task.
+     * @param specsType The type of the specs to get.
+     * @param <T>       The type of the specs.
+     * @return The specs.
+     * @throws OfficeException If the task has no such specs.
+     */
+    static <T> T getSpecs(final OfficeTask task, final Class<T> specsType) throws OfficeException {
+        for (Class<?> type = task.getClass(); type != null; type = type.getSuperclass()) {
+            for (final Field field : type.getDeclaredFields()) {
+                if (specsType.isAssignableFrom(field.getType())) {
+                    try {
+                        field.setAccessible(true);
+                        return specsType.cast(field.get(task));
+                    } catch (IllegalAccessException ex) {
+                        throw new OfficeException("Cannot read " + field, ex);
+                    }
+                }
+            }
+        }
+        throw new OfficeException("Unsupported task " + task);
+    }
+}
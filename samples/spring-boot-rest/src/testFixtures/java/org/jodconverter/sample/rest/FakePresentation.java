@@ -0,0 +1,111 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.drawing.XDrawPage;
+import com.sun.star.drawing.XDrawPages;
+import com.sun.star.drawing.XDrawPagesSupplier;
+import com.sun.star.drawing.XMasterPagesSupplier;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Presentation document that doesn't need an office installation, see {@link FakeUno}: its slides
+ * and master pages hold the shapes added to them, and its slides have the size given to them.
+ * Resizing a slide resizes them all, as Impress does, unless told otherwise.
+ */
+class FakePresentation {
+
+    /** The service of presentation documents. */
+    static final String SERVICE = "com.sun.star.presentation.PresentationDocument";
+
+    private final FakeUno uno = new FakeUno();
+    private final List<FakeUno.FakeObject> slides = new ArrayList<>();
+    private final List<FakeUno.FakeObject> masterPages = new ArrayList<>();
+    private final FakeUno.FakeObject document;
+    private volatile boolean sharedPageSize = true;
+
+    /** Creates a new document without slides. */
+    FakePresentation() {
+        final Object drawPages = pages(slides);
+        final Object masterDrawPages = pages(masterPages);
+        this.document = uno.object(XComponent.class, XDrawPagesSupplier.class, XMasterPagesSupplier.class,
+                        XServiceInfo.class)
+                .on("supportsService", args -> SERVICE.equals(args[0]))
+                .on("getSupportedServiceNames", args -> new String[]{SERVICE, "com.sun.star.drawing.GenericDrawingDocument"})
+                .on("getDrawPages", args -> drawPages)
+                .on("getMasterPages", args -> masterDrawPages);
+    }
+
+    /**
+     * Sets whether resizing a slide resizes all of them, as Impress does.
+     *
+     * @param sharedPageSize False to resize the slides one by one.
+     */
+    void setSharedPageSize(final boolean sharedPageSize) {
+        this.sharedPageSize = sharedPageSize;
+    }
+
+    /**
+     * Adds a slide.
+     *
+     * @param width  The width of the slide.
+     * @param height The height of the slide.
+     * @param shapes The shapes on the slide, started with {@link #getUno()}.
+     * @return The slide, to check the properties filters set on it.
+     */
+    FakeUno.FakeObject addSlide(final int width, final int height, final FakeUno.FakeObject... shapes) {
+        final FakeUno.FakeObject slide = uno.object(XDrawPage.class, XPropertySet.class)
+                .property("Width", width)
+                .property("Height", height)
+                .on("getCount", args -> shapes.length)
+                .on("getByIndex", args -> shapes[(int) args[0]].get());
+        slide.on("setPropertyValue", args -> {
+            for (final FakeUno.FakeObject resized : sharedPageSize ? slides : List.of(slide)) {
+                resized.property((String) args[0], args[1]);
+            }
+            return null;
+        });
+        slides.add(slide);
+        return slide;
+    }
+
+    /**
+     * Adds a master page.
+     *
+     * @param shapes The shapes on the master page, started with {@link #getUno()}.
+     */
+    void addMasterPage(final FakeUno.FakeObject... shapes) {
+        masterPages.add(uno.object(XDrawPage.class)
+                .on("getCount", args -> shapes.length)
+                .on("getByIndex", args -> shapes[(int) args[0]].get()));
+    }
+
+    /**
+     * Gets the document, as filters receive it.
+     *
+     * @return The document.
+     */
+    XComponent getDocument() {
+        return document.as(XComponent.class);
+    }
+
+    /**
+     * Gets the fakes of the document, counting the UNO calls made on the document, its pages and
+     * their shapes.
+     *
+     * @return The fakes.
+     */
+    FakeUno getUno() {
+        return uno;
+    }
+
+    private Object pages(final List<FakeUno.FakeObject> pages) {
+        return uno.object(XDrawPages.class)
+                .on("getCount", args -> pages.size())
+                .on("getByIndex", args -> pages.get((int) args[0]).get())
+                .get();
+    }
+}
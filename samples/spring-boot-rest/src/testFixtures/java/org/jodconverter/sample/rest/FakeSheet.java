@@ -0,0 +1,323 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.awt.Size;
+import com.sun.star.beans.UnknownPropertyException;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.XIndexAccess;
+import com.sun.star.drawing.XDrawPage;
+import com.sun.star.drawing.XDrawPageSupplier;
+import com.sun.star.sheet.XCellRangeAddressable;
+import com.sun.star.sheet.XCellRangeData;
+import com.sun.star.sheet.XCellRangesQuery;
+import com.sun.star.sheet.XPrintAreas;
+import com.sun.star.sheet.XSheetCellCursor;
+import com.sun.star.sheet.XSheetCellRanges;
+import com.sun.star.sheet.XSpreadsheet;
+import com.sun.star.sheet.XUniqueCellFormatRangesSupplier;
+import com.sun.star.sheet.XUsedAreaCursor;
+import com.sun.star.table.CellRangeAddress;
+import com.sun.star.table.XCellRange;
+import com.sun.star.table.XColumnRowRange;
+import com.sun.star.table.XTableColumns;
+import com.sun.star.table.XTableRows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreadsheet sheet that doesn't need an office installation, see {@link FakeUno}: its columns,
+ * rows and cell ranges answer from column widths and row heights given up front, its draw page
+ * holds the shapes added to it, and its cells the values given to them, in the General number
+ * format until a filter changes it.
+ */
+class FakeSheet {
+
+    private final FakeUno uno;
+    private final int[] columnWidths;
+    private final int[] rowHeights;
+    private final List<FakeUno.FakeObject> shapes = new ArrayList<>();
+    private final Map<Long, Object> numberFormats = new ConcurrentHashMap<>();
+    private final FakeUno.FakeObject sheet;
+    private volatile boolean rangeSizeSupported = true;
+    private volatile CellRangeAddress usedArea;
+    private Object[][] values = new Object[0][];
+
+    /**
+     * Creates a new sheet whose columns and rows have slightly different sizes, counting its own
+     * UNO calls.
+     *
+     * @param columnCount The number of columns.
+     * @param rowCount    The number of rows.
+     */
+    FakeSheet(final int columnCount, final int rowCount) {
+        this(new FakeUno(), columnCount, rowCount);
+    }
+
+    /**
+     * Creates a new sheet whose columns and rows have slightly different sizes, all of them used.
+     *
+     * @param uno         The fakes of the document of the sheet, counting the UNO calls.
+     * @param columnCount The number of columns.
+     * @param rowCount    The number of rows.
+     */
+    FakeSheet(final FakeUno uno, final int columnCount, final int rowCount) {
+        this.uno = uno;
+        this.columnWidths = new int[columnCount];
+        this.rowHeights = new int[rowCount];
+        Arrays.setAll(columnWidths, i -> 2000 + i % 7 * 100);
+        Arrays.setAll(rowHeights, i -> 450 + i % 5 * 10);
+        this.usedArea = new CellRangeAddress((short) 0, 0, 0, columnCount - 1, rowCount - 1);
+        this.sheet = createSheet();
+    }
+
+    /**
+     * Sets whether cell ranges report their size, as the ranges of an office process do.
+     *
+     * @param rangeSizeSupported False to throw UnknownPropertyException instead.
+     */
+    void setRangeSizeSupported(final boolean rangeSizeSupported) {
+        this.rangeSizeSupported = rangeSizeSupported;
+    }
+
+    /**
+     * Sets the last used cell of the sheet, the whole sheet being used otherwise.
+     *
+     * @param endColumn The last used column.
+     * @param endRow    The last used row.
+     */
+    void setUsedArea(final int endColumn, final int endRow) {
+        this.usedArea = new CellRangeAddress((short) 0, 0, 0, endColumn, endRow);
+    }
+
+    /**
+     * Sets whether the sheet is visible.
+     *
+     * @param visible False for a hidden sheet.
+     */
+    void setVisible(final boolean visible) {
+        sheet.property("IsVisible", visible);
+    }
+
+    /**
+     * Adds a shape to the draw page of the sheet.
+     *
+     * @param shapeType The type of the shape, such as "com.sun.star.drawing.GraphicObjectShape".
+     * @param x         The horizontal position of the shape.
+     * @param y         The vertical position of the shape.
+     * @param width     The width of the shape.
+     * @param height    The height of the shape.
+     * @return The shape, to check its properties.
+     */
+    FakeUno.FakeObject addShape(final String shapeType, final int x, final int y, final int width, final int height) {
+        final FakeUno.FakeObject shape = uno.shape(shapeType, x, y, width, height);
+        shapes.add(shape);
+        return shape;
+    }
+
+    /**
+     * Sets the values of the cells from the first one: Double for numbers, String for text.
+     *
+     * @param values The values, by row then column.
+     */
+    void setValues(final Object[][] values) {
+        this.values = values;
+    }
+
+    /**
+     * Gets the number format set on a cell by a filter.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     * @return The key of the number format, 0 for General.
+     */
+    int getNumberFormat(final int column, final int row) {
+        return (int) numberFormats.getOrDefault(cell(column, row), 0);
+    }
+
+    /**
+     * Gets the number of UNO calls made on the sheet so far, or on its document if they share
+     * their fakes.
+     *
+     * @return The call count.
+     */
+    long getUnoCalls() {
+        return uno.getCalls();
+    }
+
+    /**
+     * Gets the address of the range from the first cell to the last used one.
+     *
+     * @return The address.
+     */
+    CellRangeAddress getUsedArea() {
+        return new CellRangeAddress((short) 0, 0, 0, usedArea.EndColumn, usedArea.EndRow);
+    }
+
+    /**
+     * Gets the sum of the widths of the columns of the sheet.
+     *
+     * @return The total width.
+     */
+    int getTotalWidth() {
+        return Arrays.stream(columnWidths).sum();
+    }
+
+    /**
+     * Gets the sum of the heights of the rows of the sheet.
+     *
+     * @return The total height.
+     */
+    int getTotalHeight() {
+        return Arrays.stream(rowHeights).sum();
+    }
+
+    /**
+     * Gets the width of some columns.
+     *
+     * @param first The first column.
+     * @param last  The last column.
+     * @return The sum of their widths.
+     */
+    int getWidth(final int first, final int last) {
+        return Arrays.stream(columnWidths, first, last + 1).sum();
+    }
+
+    /**
+     * Gets the height of some rows.
+     *
+     * @param first The first row.
+     * @param last  The last row.
+     * @return The sum of their heights.
+     */
+    int getHeight(final int first, final int last) {
+        return Arrays.stream(rowHeights, first, last + 1).sum();
+    }
+
+    /**
+     * Gets the sheet.
+     *
+     * @return The sheet.
+     */
+    XSpreadsheet getSheet() {
+        return sheet.as(XSpreadsheet.class);
+    }
+
+    /**
+     * Gets the sheet, to check the properties filters set on it.
+     *
+     * @return The sheet.
+     */
+    FakeUno.FakeObject getSheetObject() {
+        return sheet;
+    }
+
+    /**
+     * Gets the columns of the sheet, only providing their width.
+     *
+     * @return The columns.
+     */
+    XTableColumns getColumns() {
+        return uno.object(XTableColumns.class)
+                .on("getCount", args -> columnWidths.length)
+                .on("getByIndex", args -> property("Width", columnWidths[(int) args[0]]))
+                .on("insertByIndex", args -> null)
+                .on("removeByIndex", args -> null)
+                .as(XTableColumns.class);
+    }
+
+    /**
+     * Gets the rows of the sheet, only providing their height.
+     *
+     * @return The rows.
+     */
+    XTableRows getRows() {
+        return uno.object(XTableRows.class)
+                .on("getCount", args -> rowHeights.length)
+                .on("getByIndex", args -> property("Height", rowHeights[(int) args[0]]))
+                .on("insertByIndex", args -> null)
+                .on("removeByIndex", args -> null)
+                .as(XTableRows.class);
+    }
+
+    private FakeUno.FakeObject createSheet() {
+        return uno.object(XSpreadsheet.class, XPropertySet.class, XPrintAreas.class, XColumnRowRange.class,
+                        XDrawPageSupplier.class, XUniqueCellFormatRangesSupplier.class)
+                .property("IsVisible", true)
+                .property("PageStyle", "Default")
+                .on("getCellRangeByPosition", args -> range((int) args[0], (int) args[1], (int) args[2], (int) args[3]))
+                .on("createCursor", args -> uno.object(XSheetCellCursor.class, XUsedAreaCursor.class,
+                                XCellRangeAddressable.class)
+                        .on("gotoEndOfUsedArea", none -> null)
+                        .on("getRangeAddress", none -> getUsedArea())
+                        .get())
+                .on("setPrintAreas", args -> null)
+                .on("getColumns", args -> getColumns())
+                .on("getRows", args -> getRows())
+                .on("getDrawPage", args -> uno.object(XDrawPage.class)
+                        .on("getCount", none -> shapes.size())
+                        .on("getByIndex", index -> shapes.get((int) index[0]).get())
+                        .get())
+                .on("getUniqueCellFormatRanges", args -> uno.object(XIndexAccess.class)
+                        .on("getCount", none -> 1)
+                        .on("getByIndex", index -> generalCells())
+                        .get());
+    }
+
+    /** The cells in the General format: all the cells whose format no filter changed. */
+    private Object generalCells() {
+        return uno.object(XSheetCellRanges.class, XPropertySet.class, XCellRangesQuery.class)
+                .property("NumberFormat", 0)
+                .on("queryContentCells", args -> uno.object(XSheetCellRanges.class)
+                        .on("getRangeAddresses", none -> values.length == 0
+                                ? new CellRangeAddress[0]
+                                : new CellRangeAddress[]{
+                                        new CellRangeAddress((short) 0, 0, 0, values[0].length - 1, values.length - 1)})
+                        .get())
+                .get();
+    }
+
+    private Object range(final int left, final int top, final int right, final int bottom) {
+        final FakeUno.FakeObject range = uno.object(XCellRange.class, XPropertySet.class, XCellRangeData.class);
+        return range
+                .on("getPropertyValue", args -> {
+                    if (rangeSizeSupported && "Size".equals(args[0])) {
+                        return new Size(getWidth(left, right), getHeight(top, bottom));
+                    }
+                    throw new UnknownPropertyException((String) args[0]);
+                })
+                .on("setPropertyValue", args -> {
+                    if ("NumberFormat".equals(args[0])) {
+                        for (int row = top; row <= bottom; row++) {
+                            for (int column = left; column <= right; column++) {
+                                numberFormats.put(cell(column, row), args[1]);
+                            }
+                        }
+                    }
+                    return null;
+                })
+                .on("getDataArray", args -> {
+                    final Object[][] data = new Object[bottom - top + 1][right - left + 1];
+                    for (int row = top; row <= bottom; row++) {
+                        for (int column = left; column <= right; column++) {
+                            data[row - top][column - left] =
+                                    row < values.length && column < values[row].length ? values[row][column] : "";
+                        }
+                    }
+                    return data;
+                })
+                .on("getCellRangeByPosition", args -> range(left + (int) args[0], top + (int) args[1],
+                        left + (int) args[2], top + (int) args[3]))
+                .get();
+    }
+
+    private Object property(final String name, final int value) {
+        return uno.object(XPropertySet.class).property(name, value).get();
+    }
+
+    private static long cell(final int column, final int row) {
+        return (long) row << 32 | column;
+    }
+}
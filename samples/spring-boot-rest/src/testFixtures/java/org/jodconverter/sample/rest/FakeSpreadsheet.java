@@ -0,0 +1,168 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.NoSuchElementException;
+import com.sun.star.container.XNameAccess;
+import com.sun.star.lang.Locale;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import com.sun.star.sheet.XHeaderFooterContent;
+import com.sun.star.sheet.XSpreadsheetDocument;
+import com.sun.star.sheet.XSpreadsheets;
+import com.sun.star.style.XStyleFamiliesSupplier;
+import com.sun.star.text.XText;
+import com.sun.star.util.XNumberFormats;
+import com.sun.star.util.XNumberFormatsSupplier;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spreadsheet document that doesn't need an office installation, see {@link FakeUno}: its sheets
+ * are {@link FakeSheet}s, its page styles are created when a sheet first uses them, and its number
+ * formats are General until others are added.
+ */
+class FakeSpreadsheet {
+
+    /** The service of spreadsheet documents. */
+    static final String SERVICE = "com.sun.star.sheet.SpreadsheetDocument";
+
+    private static final Locale LOCALE = new Locale("en", "US", "");
+
+    private final FakeUno uno = new FakeUno();
+    private final Map<String, FakeSheet> sheets = new LinkedHashMap<>();
+    private final Map<String, FakeUno.FakeObject> pageStyles = new ConcurrentHashMap<>();
+    private final Map<String, FakeUno.FakeObject> footerTexts = new ConcurrentHashMap<>();
+    private final List<String> numberFormats = new ArrayList<>(List.of("General"));
+    private final FakeUno.FakeObject document;
+
+    /** Creates a new document without sheets. */
+    FakeSpreadsheet() {
+        final Object sheetContainer = uno.object(XSpreadsheets.class)
+                .on("getElementNames", args -> sheets.keySet().toArray(String[]::new))
+                .on("hasByName", args -> sheets.containsKey((String) args[0]))
+                .on("getByName", args -> getSheet((String) args[0]).getSheet())
+                .get();
+        final Object styleFamilies = uno.object(XNameAccess.class)
+                .on("getByName", args -> uno.object(XNameAccess.class)
+                        .on("getByName", names -> getPageStyle((String) names[0]).get())
+                        .get())
+                .get();
+        this.document = uno.object(XComponent.class, XSpreadsheetDocument.class, XServiceInfo.class,
+                        XStyleFamiliesSupplier.class, XNumberFormatsSupplier.class)
+                .on("supportsService", args -> SERVICE.equals(args[0]))
+                .on("getSupportedServiceNames", args -> new String[]{SERVICE})
+                .on("getSheets", args -> sheetContainer)
+                .on("getStyleFamilies", args -> styleFamilies)
+                .on("getNumberFormats", args -> createNumberFormats());
+    }
+
+    /**
+     * Adds a sheet whose columns and rows have slightly different sizes, all of them used.
+     *
+     * @param name        The name of the sheet.
+     * @param columnCount The number of columns.
+     * @param rowCount    The number of rows.
+     * @return The sheet.
+     */
+    FakeSheet addSheet(final String name, final int columnCount, final int rowCount) {
+        final FakeSheet sheet = new FakeSheet(uno, columnCount, rowCount);
+        sheets.put(name, sheet);
+        return sheet;
+    }
+
+    /**
+     * Gets a sheet of the document.
+     *
+     * @param name The name of the sheet.
+     * @return The sheet.
+     * @throws NoSuchElementException If the document has no such sheet.
+     */
+    FakeSheet getSheet(final String name) throws NoSuchElementException {
+        final FakeSheet sheet = sheets.get(name);
+        if (sheet == null) {
+            throw new NoSuchElementException(name);
+        }
+        return sheet;
+    }
+
+    /**
+     * Gets a page style of the document, to check the properties filters set on it.
+     *
+     * @param name The name of the page style, "Default" for the style of the sheets.
+     * @return The page style.
+     */
+    FakeUno.FakeObject getPageStyle(final String name) {
+        return pageStyles.computeIfAbsent(name, styleName -> {
+            final FakeUno.FakeObject text = uno.object(XText.class).property("String", "");
+            text.on("getString", args -> text.getProperty("String"))
+                    .on("setString", args -> text.property("String", args[0]));
+            footerTexts.put(styleName, text);
+            final Object footer = uno.object(XHeaderFooterContent.class)
+                    .on("getLeftText", args -> text.get())
+                    .get();
+            return uno.object(XPropertySet.class).property("RightPageFooterContent", footer);
+        });
+    }
+
+    /**
+     * Gets the left text of the footer of a page style.
+     *
+     * @param name The name of the page style.
+     * @return The text of the footer.
+     */
+    String getFooterText(final String name) {
+        getPageStyle(name);
+        return (String) footerTexts.get(name).getProperty("String");
+    }
+
+    /**
+     * Gets a number format of the document.
+     *
+     * @param key The key of the format.
+     * @return The format string, such as "General".
+     */
+    String getNumberFormat(final int key) {
+        return numberFormats.get(key == 0 ? 0 : key - 99);
+    }
+
+    /**
+     * Gets the document, as filters receive it.
+     *
+     * @return The document.
+     */
+    XComponent getDocument() {
+        return document.as(XComponent.class);
+    }
+
+    /**
+     * Gets the fakes of the document, counting the UNO calls made on the document, its sheets and
+     * everything they contain.
+     *
+     * @return The fakes.
+     */
+    FakeUno getUno() {
+        return uno;
+    }
+
+    /** Key 0 is General; the formats added by filters get keys from 100, as user formats do. */
+    private Object createNumberFormats() {
+        return uno.object(XNumberFormats.class)
+                .on("getByKey", args -> uno.object(XPropertySet.class)
+                        .property("FormatString", getNumberFormat((int) args[0]))
+                        .property("Locale", LOCALE)
+                        .get())
+                .on("queryKey", args -> {
+                    final int index = numberFormats.indexOf((String) args[0]);
+                    return index <= 0 ? index : index + 99;
+                })
+                .on("addNew", args -> {
+                    numberFormats.add((String) args[0]);
+                    return numberFormats.size() + 98;
+                })
+                .get();
+    }
+}
@@ -0,0 +1,113 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.container.NoSuchElementException;
+import com.sun.star.container.XEnumeration;
+import com.sun.star.container.XEnumerationAccess;
+import com.sun.star.container.XNameAccess;
+import com.sun.star.lang.XComponent;
+import com.sun.star.lang.XServiceInfo;
+import com.sun.star.text.XText;
+import com.sun.star.text.XTextContent;
+import com.sun.star.text.XTextDocument;
+import com.sun.star.text.XTextFrame;
+import com.sun.star.text.XTextFramesSupplier;
+import com.sun.star.text.XTextRange;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Text document that doesn't need an office installation, see {@link FakeUno}: its text frames
+ * have the background given to them and hold paragraphs.
+ */
+class FakeTextDocument {
+
+    /** The service of text documents. */
+    static final String SERVICE = "com.sun.star.text.TextDocument";
+
+    private final FakeUno uno = new FakeUno();
+    private final Map<String, FakeUno.FakeObject> frames = new LinkedHashMap<>();
+    private final FakeUno.FakeObject document;
+
+    /** Creates a new document without frames. */
+    FakeTextDocument() {
+        final Object textFrames = uno.object(XNameAccess.class)
+                .on("getElementNames", args -> frames.keySet().toArray(String[]::new))
+                .on("hasByName", args -> frames.containsKey((String) args[0]))
+                .on("getByName", args -> {
+                    final FakeUno.FakeObject frame = frames.get((String) args[0]);
+                    if (frame == null) {
+                        throw new NoSuchElementException((String) args[0]);
+                    }
+                    return frame.get();
+                })
+                .get();
+        this.document = uno.object(XComponent.class, XTextDocument.class, XTextFramesSupplier.class,
+                        XServiceInfo.class)
+                .on("supportsService", args -> SERVICE.equals(args[0]))
+                .on("getSupportedServiceNames", args -> new String[]{SERVICE, "com.sun.star.text.GenericTextDocument"})
+                .on("getTextFrames", args -> textFrames);
+    }
+
+    /**
+     * Adds a text frame, transparent unless its background is set.
+     *
+     * @param name                The name of the frame.
+     * @param paragraphBackColors The background colors of the paragraphs of the frame, null for a
+     *                            paragraph without the property.
+     * @return The frame, to set its background and check the one filters set.
+     */
+    FakeUno.FakeObject addFrame(final String name, final Integer... paragraphBackColors) {
+        final FakeUno.FakeObject[] paragraphs = new FakeUno.FakeObject[paragraphBackColors.length];
+        for (int i = 0; i < paragraphs.length; i++) {
+            final Object anchor = uno.object(XTextRange.class).on("getString", args -> "Paragraph").get();
+            paragraphs[i] = uno.object(XTextContent.class, XPropertySet.class).on("getAnchor", args -> anchor);
+            if (paragraphBackColors[i] != null) {
+                paragraphs[i].property("ParaBackColor", paragraphBackColors[i]);
+            }
+        }
+        final Object text = uno.object(XText.class, XEnumerationAccess.class)
+                .on("createEnumeration", args -> enumerate(paragraphs))
+                .get();
+        final FakeUno.FakeObject frame = uno.object(XTextFrame.class, XPropertySet.class)
+                .property("BackColor", -1)
+                .property("BackColorRGB", -1)
+                .property("BackColorTransparency", (byte) 100)
+                .on("getText", args -> text);
+        frames.put(name, frame);
+        return frame;
+    }
+
+    /**
+     * Gets the document, as filters receive it.
+     *
+     * @return The document.
+     */
+    XComponent getDocument() {
+        return document.as(XComponent.class);
+    }
+
+    /**
+     * Gets the fakes of the document, counting the UNO calls made on the document, its frames and
+     * their paragraphs.
+     *
+     * @return The fakes.
+     */
+    FakeUno getUno() {
+        return uno;
+    }
+
+    private Object enumerate(final FakeUno.FakeObject... elements) {
+        final int[] next = {0};
+        return uno.object(XEnumeration.class)
+                .on("hasMoreElements", args -> next[0] < elements.length)
+                .on("nextElement", args -> {
+                    if (next[0] >= elements.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements[next[0]++].get();
+                })
+                .get();
+    }
+}
@@ -0,0 +1,240 @@
+package org.jodconverter.sample.rest;
+
+import com.sun.star.awt.Point;
+import com.sun.star.awt.Size;
+import com.sun.star.beans.Property;
+import com.sun.star.beans.UnknownPropertyException;
+import com.sun.star.beans.XPropertySet;
+import com.sun.star.beans.XPropertySetInfo;
+import com.sun.star.drawing.XShape;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the UNO objects of an office document, so that filters can run, be
+ * tested and be benchmarked without an office installation. Objects are Java proxies of the UNO
+ * interfaces they implement, answering their methods from lambdas and their properties from a map.
+ * Each call made on them is counted per interface method: with an office process, each one would
+ * be a round trip. Querying an interface, resolved locally, isn't counted.
+ *
+ * <p>A method without an answer throws UnsupportedOperationException, so a filter starting to use
+ * a method the fakes don't model fails loudly instead of being measured wrongly.
+ */
+final class FakeUno {
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a new object.
+     *
+     * @param interfaces The UNO interfaces the object implements.
+     * @return The object, to give answers and properties to before using it.
+     */
+    FakeObject object(final Class<?>... interfaces) {
+        return new FakeObject(interfaces);
+    }
+
+    /**
+     * Starts a new shape, having no other property than its glow.
+     *
+     * @param shapeType The type of the shape, such as "com.sun.star.drawing.GraphicObjectShape".
+     * @param x         The horizontal position of the shape.
+     * @param y         The vertical position of the shape.
+     * @param width     The width of the shape.
+     * @param height    The height of the shape.
+     * @return The shape.
+     */
+    FakeObject shape(final String shapeType, final int x, final int y, final int width, final int height) {
+        return object(XShape.class, XPropertySet.class)
+                .on("getShapeType", args -> shapeType)
+                .on("getPosition", args -> new Point(x, y))
+                .on("getSize", args -> new Size(width, height))
+                .property("GlowEffectRadius", 0);
+    }
+
+    /**
+     * Gets the number of calls made on the objects so far.
+     *
+     * @return The call count.
+     */
+    long getCalls() {
+        return calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Gets the number of calls made on a method of the objects so far.
+     *
+     * @param type   The interface declaring the method.
+     * @param method The name of the method.
+     * @return The call count.
+     */
+    long getCalls(final Class<?> type, final String method) {
+        final LongAdder count = calls.get(type.getSimpleName() + '.' + method);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Gets the number of calls made on each method of the objects so far.
+     *
+     * @return The call counts, by "Interface.method", sorted.
+     */
+    Map<String, Long> getCallsByMethod() {
+        final Map<String, Long> counts = new TreeMap<>();
+        calls.forEach((method, count) -> counts.put(method, count.sum()));
+        return counts;
+    }
+
+    /** Forgets the calls made so far. */
+    void resetCalls() {
+        calls.clear();
+    }
+
+    /** Answers a method of a fake object. */
+    @FunctionalInterface
+    interface Answer {
+        Object answer(Object[] args) throws Exception;
+    }
+
+    /**
+     * An object implementing some UNO interfaces. {@link XPropertySet} is implemented from the
+     * properties given to the object, unless its methods are answered otherwise.
+     */
+    final class FakeObject {
+
+        private final Class<?>[] interfaces;
+        private final Map<String, Answer> answers = new HashMap<>();
+        private final Map<String, Object> properties = new ConcurrentHashMap<>();
+        private Object proxy;
+
+        private FakeObject(final Class<?>[] interfaces) {
+            this.interfaces = interfaces.clone();
+        }
+
+        /**
+         * Answers a method, whatever interface declares it.
+         *
+         * @param method The name of the method.
+         * @param answer The answer.
+         * @return This object.
+         */
+        FakeObject on(final String method, final Answer answer) {
+            answers.put(method, answer);
+            return this;
+        }
+
+        /**
+         * Sets a property.
+         *
+         * @param name  The name of the property.
+         * @param value The value of the property.
+         * @return This object.
+         */
+        FakeObject property(final String name, final Object value) {
+            properties.put(name, value);
+            return this;
+        }
+
+        /**
+         * Gets a property, as last set by the fakes or by a filter.
+         *
+         * @param name The name of the property.
+         * @return The value, null if the property is not set.
+         */
+        Object getProperty(final String name) {
+            return properties.get(name);
+        }
+
+        /**
+         * Gets the object as one of its interfaces.
+         *
+         * @param type The interface.
+         * @param <T>  The type of the interface.
+         * @return The object.
+         */
+        <T> T as(final Class<T> type) {
+            return type.cast(get());
+        }
+
+        /**
+         * Gets the object, as UNO methods returning {@code Object} do.
+         *
+         * @return The object.
+         */
+        synchronized Object get() {
+            if (proxy == null) {
+                proxy = Proxy.newProxyInstance(FakeUno.class.getClassLoader(), interfaces, this::invoke);
+            }
+            return proxy;
+        }
+
+        private Object invoke(final Object self, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    default -> "Fake" + Arrays.toString(Arrays.stream(interfaces).map(Class::getSimpleName).toArray());
+                };
+            }
+            calls.computeIfAbsent(method.getDeclaringClass().getSimpleName() + '.' + method.getName(),
+                    name -> new LongAdder()).increment();
+
+            final Answer answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.answer(args);
+            }
+            if (method.getDeclaringClass() == XPropertySet.class) {
+                return invokeProperty(method.getName(), args);
+            }
+            throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + '.' + method.getName());
+        }
+
+        private Object invokeProperty(final String method, final Object[] args) throws UnknownPropertyException {
+            switch (method) {
+                case "getPropertyValue" -> {
+                    final Object value = properties.get((String) args[0]);
+                    if (value == null) {
+                        throw new UnknownPropertyException((String) args[0]);
+                    }
+                    return value;
+                }
+                case "setPropertyValue" -> {
+                    // Numbers are converted to the type of the property, as an office process does.
+                    final Object value = Objects.requireNonNull(args[1]);
+                    properties.merge((String) args[0], value, (previous, next) -> convert(next, previous));
+                    return null;
+                }
+                case "getPropertySetInfo" -> {
+                    return object(XPropertySetInfo.class)
+                            .on("hasPropertyByName", names -> properties.containsKey((String) names[0]))
+                            .on("getProperties", none -> properties.keySet().stream()
+                                    .map(name -> new Property(name, -1, null, (short) 0))
+                                    .toArray(Property[]::new))
+                            .as(XPropertySetInfo.class);
+                }
+                default -> throw new UnsupportedOperationException("XPropertySet." + method);
+            }
+        }
+
+        private static Object convert(final Object value, final Object previous) {
+            if (!(value instanceof Number number) || value.getClass() == previous.getClass()) {
+                return value;
+            }
+            if (previous instanceof Byte) {
+                return number.byteValue();
+            } else if (previous instanceof Short) {
+                return number.shortValue();
+            } else if (previous instanceof Integer) {
+                return number.intValue();
+            }
+            return value;
+        }
+    }
+}
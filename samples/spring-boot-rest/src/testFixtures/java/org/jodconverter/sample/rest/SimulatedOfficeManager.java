@@ -0,0 +1,165 @@
+package org.jodconverter.sample.rest;
+
+import org.jodconverter.core.job.SourceDocumentSpecs;
+import org.jodconverter.core.job.TargetDocumentSpecs;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Office manager that doesn't need an office installation and behaves like a pool of office
+ * processes under load: each conversion task waits for one of the processes, up to the task queue
+ * timeout, then keeps it for a simulated conversion time before writing target documents of a
+ * simulated size. Times and sizes follow log-normal distributions, as conversion times and
+ * document sizes do: most are close to their median, a few are many times larger.
+ */
+class SimulatedOfficeManager implements OfficeManager {
+
+    private final Semaphore processes;
+    private final Distribution conversionMillis;
+    private final Distribution outputBytes;
+    private final AtomicInteger executedTasks = new AtomicInteger();
+    private final AtomicInteger failedTasks = new AtomicInteger();
+    private volatile long taskQueueTimeout = 30_000L;
+    private volatile double failureRate;
+
+    /**
+     * Creates a new office manager.
+     *
+     * @param processes        The number of office processes, converting one document each at a
+     *                         time.
+     * @param conversionMillis The time a process works on a task, in milliseconds.
+     * @param outputBytes      The size of each target document, in bytes.
+     */
+    SimulatedOfficeManager(final int processes, final Distribution conversionMillis, final Distribution outputBytes) {
+        this.processes = new Semaphore(processes, true);
+        this.conversionMillis = conversionMillis;
+        this.outputBytes = outputBytes;
+    }
+
+    /**
+     * Sets how long a task waits for a process before failing, as
+     * {@code jodconverter.local.task-queue-timeout} does.
+     *
+     * @param taskQueueTimeout The timeout, in milliseconds.
+     */
+    void setTaskQueueTimeout(final long taskQueueTimeout) {
+        this.taskQueueTimeout = taskQueueTimeout;
+    }
+
+    /**
+     * Sets the share of the tasks failing once converted, as they do when a document is corrupted
+     * or an office process crashes.
+     *
+     * @param failureRate The share of failing tasks, from 0 to 1.
+     */
+    void setFailureRate(final double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void execute(final OfficeTask task) throws OfficeException {
+        final SourceDocumentSpecs source = EchoOfficeManager.getSource(task);
+        try {
+            if (!processes.tryAcquire(taskQueueTimeout, TimeUnit.MILLISECONDS)) {
+                failedTasks.incrementAndGet();
+                throw new OfficeException("Task did not run before the task queue timeout: " + task);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OfficeException("Interrupted while waiting for an office process", ex);
+        }
+        try {
+            final Random random = ThreadLocalRandom.current();
+            Thread.sleep(conversionMillis.sample(random));
+            executedTasks.incrementAndGet();
+            if (random.nextDouble() < failureRate) {
+                failedTasks.incrementAndGet();
+                throw new OfficeException("Simulated conversion failure: " + task);
+            }
+            for (final TargetDocumentSpecs target : EchoOfficeManager.getTargets(task)) {
+                write(target, outputBytes.sample(random));
+            }
+            source.onConsumed(source.getFile());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OfficeException("Interrupted while converting", ex);
+        } finally {
+            processes.release();
+        }
+    }
+
+    private static void write(final TargetDocumentSpecs target, final long size) throws OfficeException {
+        final File targetFile = target.getFile();
+        // The content doesn't matter, only its size: the file is extended without writing it.
+        try (RandomAccessFile file = new RandomAccessFile(targetFile, "rw")) {
+            file.setLength(size);
+        } catch (IOException ex) {
+            target.onFailure(targetFile, ex);
+            throw new OfficeException("Could not write " + targetFile, ex);
+        }
+        target.onComplete(targetFile);
+    }
+
+    /**
+     * Gets the number of tasks an office process worked on so far, failed ones included.
+     *
+     * @return The task count.
+     */
+    int getExecutedTasks() {
+        return executedTasks.get();
+    }
+
+    /**
+     * Gets the number of tasks that failed so far, after a conversion or in the queue.
+     *
+     * @return The failed task count.
+     */
+    int getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return true;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    /**
+     * A log-normal distribution.
+     *
+     * @param median The median of the values.
+     * @param spread The standard deviation of their logarithm: 0 for a constant, 0.5 for a p99
+     *               about 3 times the median, 1 for a p99 about 10 times the median.
+     */
+    record Distribution(double median, double spread) {
+
+        /**
+         * Gets a random value.
+         *
+         * @param random The generator of random numbers.
+         * @return The value, rounded.
+         */
+        long sample(final Random random) {
+            return Math.round(median * Math.exp(spread * random.nextGaussian()));
+        }
+    }
+}
@@ -2,7 +2,9 @@ package org.jodconverter.sample.springboot;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Locale;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -31,6 +33,7 @@ public class ConverterController {
   private static final String ON_ERROR_REDIRECT = "redirect:/";
 
   @Autowired private DocumentConverter converter;
+  @Autowired private MeterRegistry meterRegistry;
 
   @SuppressWarnings("SameReturnValue")
   @GetMapping("/")
@@ -70,7 +73,18 @@ public class ConverterController {
       final DocumentFormat targetFormat =
           DefaultDocumentFormatRegistry.getFormatByExtension(outputFormat);
       Assert.notNull(targetFormat, "targetFormat must not be null");
-      converter.convert(inputFile.getInputStream()).to(baos).as(targetFormat).execute();
+      final String extension = FileUtils.getExtension(inputFile.getOriginalFilename());
+      final String sourceExtension = extension == null ? null : extension.toLowerCase(Locale.ROOT);
+      try (InstrumentedOfficeManager.Scope scope =
+          InstrumentedOfficeManager.formats(sourceExtension, targetFormat.getExtension())) {
+        converter.convert(inputFile.getInputStream()).to(baos).as(targetFormat).execute();
+      }
+      InstrumentedOfficeManager.recordSizes(
+          meterRegistry,
+          sourceExtension,
+          targetFormat.getExtension(),
+          inputFile.getSize(),
+          baos.size());
 
       final HttpHeaders headers = new HttpHeaders();
       headers.setContentType(MediaType.parseMediaType(targetFormat.getMediaType()));
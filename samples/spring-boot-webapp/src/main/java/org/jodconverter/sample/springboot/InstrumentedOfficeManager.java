@@ -0,0 +1,231 @@
+package org.jodconverter.sample.springboot;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.jodconverter.core.document.DefaultDocumentFormatRegistry;
+import org.jodconverter.core.document.DocumentFormat;
+import org.jodconverter.core.office.OfficeContext;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.core.task.OfficeTask;
+
+/**
+ * Measures the tasks executed by an office manager: how long they wait for an office process and
+ * how long the process works on them, tagged with the formats of the conversion, how many tasks
+ * are waiting, how many processes are working, and how many processes restarted after their
+ * maximum number of tasks. The meters are the same as the ones of the REST sample: the formats
+ * are tagged with the extensions of the {@link DefaultDocumentFormatRegistry} only, "other" for
+ * any other one.
+ */
+public class InstrumentedOfficeManager implements OfficeManager {
+
+  /** The name of the timer of the time tasks wait for an office process. */
+  public static final String QUEUE_WAIT = "office.task.queue.wait";
+
+  /** The name of the timer of the time office processes work on tasks. */
+  public static final String EXECUTION = "office.task.execution";
+
+  /** The name of the gauge of the tasks waiting for an office process. */
+  public static final String PENDING = "office.tasks.pending";
+
+  /** The name of the gauge of the office processes working on a task. */
+  public static final String BUSY = "office.processes.busy";
+
+  /** The name of the counter of the processes restarted after their maximum number of tasks. */
+  public static final String RESTARTS = "office.process.restarts";
+
+  /** The name of the distribution summary of the size of the converted documents. */
+  public static final String INPUT_SIZE = "conversion.input.size";
+
+  /** The name of the distribution summary of the size of the documents they are converted to. */
+  public static final String OUTPUT_SIZE = "conversion.output.size";
+
+  private static final String UNKNOWN = "unknown";
+  private static final String OTHER = "other";
+  private static final ThreadLocal<String[]> FORMATS = new ThreadLocal<>();
+
+  private final OfficeManager officeManager;
+  private final MeterRegistry registry;
+  private final int maxTasksPerProcess;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicInteger busy = new AtomicInteger();
+  private final Counter restarts;
+  private final Map<OfficeContext, AtomicInteger> processTasks =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
+  /**
+   * Creates a new office manager measuring another one.
+   *
+   * @param officeManager The office manager executing the tasks.
+   * @param registry The registry of the meters.
+   * @param maxTasksPerProcess The number of tasks after which an office process restarts.
+   */
+  public InstrumentedOfficeManager(
+      final OfficeManager officeManager,
+      final MeterRegistry registry,
+      final int maxTasksPerProcess) {
+    this.officeManager = officeManager;
+    this.registry = registry;
+    this.maxTasksPerProcess = maxTasksPerProcess;
+
+    Gauge.builder(PENDING, pending, AtomicInteger::get)
+        .description("Tasks waiting for an office process")
+        .register(registry);
+    Gauge.builder(BUSY, busy, AtomicInteger::get)
+        .description("Office processes working on a task")
+        .register(registry);
+    this.restarts =
+        Counter.builder(RESTARTS)
+            .description("Office processes restarted after executing their maximum number of tasks")
+            .tag("reason", "max-tasks-per-process")
+            .register(registry);
+  }
+
+  /**
+   * Tags the tasks executed by the current thread with the formats of a conversion, until the
+   * returned scope is closed.
+   *
+   * @param source The extension of the source format.
+   * @param target The extension of the target format.
+   * @return The scope, to close once the conversion is done.
+   */
+  public static Scope formats(final String source, final String target) {
+    FORMATS.set(new String[] {tag(source), tag(target)});
+    return FORMATS::remove;
+  }
+
+  /**
+   * Records the size of the documents of a conversion.
+   *
+   * @param registry The registry of the meters.
+   * @param source The extension of the source format.
+   * @param target The extension of the target format.
+   * @param inputBytes The size of the converted document.
+   * @param outputBytes The size of the document it was converted to.
+   */
+  public static void recordSizes(
+      final MeterRegistry registry,
+      final String source,
+      final String target,
+      final long inputBytes,
+      final long outputBytes) {
+    size(INPUT_SIZE, source, target).register(registry).record(inputBytes);
+    size(OUTPUT_SIZE, source, target).register(registry).record(outputBytes);
+  }
+
+  private static DistributionSummary.Builder size(
+      final String name, final String source, final String target) {
+    return DistributionSummary.builder(name)
+        .baseUnit("bytes")
+        .tag("source", tag(source))
+        .tag("target", tag(target))
+        .publishPercentileHistogram()
+        .minimumExpectedValue(1024.0)
+        .maximumExpectedValue(1024.0 * 1024 * 1024);
+  }
+
+  private static String tag(final String extension) {
+    if (extension == null) {
+      return UNKNOWN;
+    }
+    final DocumentFormat format = DefaultDocumentFormatRegistry.getFormatByExtension(extension);
+    return format == null ? OTHER : format.getExtension();
+  }
+
+  @Override
+  public void execute(final OfficeTask task) throws OfficeException {
+    final String[] formats = FORMATS.get();
+    final String source = formats == null ? UNKNOWN : formats[0];
+    final String target = formats == null ? UNKNOWN : formats[1];
+    final AtomicBoolean started = new AtomicBoolean();
+    final long submitted = System.nanoTime();
+
+    pending.incrementAndGet();
+    try {
+      officeManager.execute(
+          context -> {
+            final long start = System.nanoTime();
+            if (started.compareAndSet(false, true)) {
+              pending.decrementAndGet();
+            }
+            timer(QUEUE_WAIT, source, target)
+                .register(registry)
+                .record(start - submitted, TimeUnit.NANOSECONDS);
+
+            busy.incrementAndGet();
+            boolean failed = true;
+            try {
+              task.execute(context);
+              failed = false;
+              countTask(context);
+            } finally {
+              busy.decrementAndGet();
+              timer(EXECUTION, source, target)
+                  .tag("outcome", failed ? "error" : "success")
+                  .register(registry)
+                  .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+          });
+    } finally {
+      // A task timing out in the queue never starts.
+      if (started.compareAndSet(false, true)) {
+        pending.decrementAndGet();
+      }
+    }
+  }
+
+  private static Timer.Builder timer(final String name, final String source, final String target) {
+    return Timer.builder(name)
+        .tag("source", source)
+        .tag("target", target)
+        .publishPercentileHistogram();
+  }
+
+  // The office manager restarts a process once it executed its maximum number of tasks
+  // successfully; restarts after a crash or a timeout aren't seen here.
+  private void countTask(final OfficeContext context) {
+    if (maxTasksPerProcess <= 0) {
+      return;
+    }
+    final AtomicInteger tasks = processTasks.computeIfAbsent(context, ctx -> new AtomicInteger());
+    if (tasks.incrementAndGet() >= maxTasksPerProcess) {
+      tasks.set(0);
+      restarts.increment();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return officeManager.isRunning();
+  }
+
+  @Override
+  public void start() throws OfficeException {
+    officeManager.start();
+  }
+
+  @Override
+  public void stop() throws OfficeException {
+    officeManager.stop();
+  }
+
+  /** The formats of the conversion the tasks of a thread belong to. */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+
+    /** Stops tagging the tasks of the thread with the formats. */
+    @Override
+    void close();
+  }
+}
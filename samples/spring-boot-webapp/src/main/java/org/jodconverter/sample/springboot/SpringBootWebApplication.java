@@ -1,7 +1,15 @@
 package org.jodconverter.sample.springboot;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import org.jodconverter.core.office.OfficeManager;
+import org.jodconverter.local.office.LocalOfficeManager;
 
 /** Main application. */
 @SpringBootApplication
@@ -15,4 +23,31 @@ public class SpringBootWebApplication {
   public static void main(final String[] args) {
     SpringApplication.run(SpringBootWebApplication.class, args);
   }
+
+  /**
+   * Measures the tasks of the office manager created by the JODConverter starter.
+   *
+   * @param meterRegistry The registry of the meters, looked up once the office manager is created.
+   * @param maxTasksPerProcess The number of tasks after which an office process restarts.
+   * @return The post processor wrapping the office manager.
+   */
+  @Bean
+  public static BeanPostProcessor officeManagerMetrics(
+      final ObjectProvider<MeterRegistry> meterRegistry,
+      @Value(
+              "${jodconverter.local.max-tasks-per-process:"
+                  + LocalOfficeManager.DEFAULT_MAX_TASKS_PER_PROCESS
+                  + "}")
+          final int maxTasksPerProcess) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (bean instanceof OfficeManager && !(bean instanceof InstrumentedOfficeManager)) {
+          return new InstrumentedOfficeManager(
+              (OfficeManager) bean, meterRegistry.getObject(), maxTasksPerProcess);
+        }
+        return bean;
+      }
+    };
+  }
 }
@@ -3,3 +3,4 @@ rootProject.name = "jodconverter-samples"
 include("samples:spring-boot-rest")
 include("samples:spring-boot-webapp")
 include("samples:basic-webapp")
+include("samples:benchmarks")